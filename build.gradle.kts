@@ -66,3 +66,48 @@ dependencies {
 
     compileOnly(deobfCurse("journeymap-32274:4500658"))
 }
+
+// region JMH
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    runtimeClasspath += output + compileClasspath + sourceSets.main.get().runtimeClasspath
+}
+
+dependencies {
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the headless lighting engine benchmarks. Pass -PjmhInclude=<regex> to filter, and -PjmhParams=<name=value;...> to set parameters."
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    args("-prof", "gc")
+    args("-rf", "json", "-rff", layout.buildDirectory.file("jmh-results.json").get().asFile.absolutePath)
+    providers.gradleProperty("jmhParams").orNull?.split(';')?.forEach { args("-p", it) }
+    providers.gradleProperty("jmhInclude").orNull?.let { args(it) }
+}
+
+tasks.register<JavaExec>("replayTrace") {
+    group = "benchmark"
+    description = "Replays a recorded lighting trace and verifies the result. Pass -PtracePath=<file> and optionally -PtraceIterations=<n>."
+    classpath = jmh.runtimeClasspath
+    mainClass.set("com.falsepattern.lumi.benchmark.trace.LightingTraceReplay")
+    providers.gradleProperty("tracePath").orNull?.let { args(it) }
+    providers.gradleProperty("traceIterations").orNull?.let { args(it) }
+}
+
+tasks.register<JavaExec>("lightingScenarios") {
+    group = "benchmark"
+    description = "Runs the end to end lighting scenarios and writes a JSON report. " +
+                  "Pass -PscenarioEngines=<provider class,...> to compare additional lighting engines."
+    classpath = jmh.runtimeClasspath
+    mainClass.set("com.falsepattern.lumi.benchmark.scenario.LightingScenarioSuite")
+    args(layout.buildDirectory.file("lighting-scenarios.json").get().asFile.absolutePath)
+    args(providers.gradleProperty("scenarioIterations").orNull ?: "5")
+    args(providers.gradleProperty("scenarioWarmupIterations").orNull ?: "3")
+    args(providers.gradleProperty("scenarioTerrainRadius").orNull ?: "8")
+    providers.gradleProperty("scenarioEngines").orNull?.split(',')?.forEach { args(it) }
+}
+// endregion
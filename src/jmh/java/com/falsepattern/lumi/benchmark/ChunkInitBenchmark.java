@@ -0,0 +1,71 @@
+/*
+ * Lumi
+ *
+ * Copyright (C) 2023-2025 FalsePattern, Ven
+ * All Rights Reserved
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, only version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.falsepattern.lumi.benchmark;
+
+import com.falsepattern.lumi.benchmark.headless.HeadlessChunk;
+import com.falsepattern.lumi.benchmark.headless.HeadlessWorld;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.falsepattern.lumi.internal.lighting.phosphor.PhosphorLightingEngineProvider.phosphorLightingEngineProvider;
+
+/**
+ * Measures {@link com.falsepattern.lumi.api.lighting.LumiLightingEngine#handleChunkInit} on freshly generated chunks.
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChunkInitBenchmark {
+    @State(Scope.Thread)
+    public static class FreshChunk {
+        HeadlessWorld world;
+        HeadlessChunk chunk;
+
+        @Setup(Level.Invocation)
+        public void generate() {
+            world = new HeadlessWorld(true, phosphorLightingEngineProvider());
+            world.generateFlat(1, 64);
+            chunk = world.lumi$getChunkFromChunkPosIfExists(0, 0);
+        }
+    }
+
+    @Benchmark
+    public boolean handleChunkInit(FreshChunk state) {
+        state.world.lumi$lightingEngine().handleChunkInit(state.chunk);
+        return state.chunk.lumi$isLightingInitialized();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Lumi
+ *
+ * Copyright (C) 2023-2025 FalsePattern, Ven
+ * All Rights Reserved
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, only version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.falsepattern.lumi.benchmark;
+
+import com.falsepattern.lumi.internal.util.NibbleUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full sweep over a sub chunk worth of nibbles, using the same accessors as the {@code NibbleArray} overwrites.
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class NibbleArrayBenchmark {
+    private static final int DEPTH_BITS = 4;
+
+    private byte[] data;
+
+    @Setup
+    public void setup() {
+        data = new byte[2048];
+        ThreadLocalRandom.current().nextBytes(data);
+    }
+
+    @Benchmark
+    public int getAll() {
+        int sum = 0;
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    sum += NibbleUtil.get(data, DEPTH_BITS, DEPTH_BITS + 4, x, y, z);
+                }
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public byte[] setAll() {
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    NibbleUtil.set(data, DEPTH_BITS, DEPTH_BITS + 4, x, y, z, x ^ z);
+                }
+            }
+        }
+        return data;
+    }
+}
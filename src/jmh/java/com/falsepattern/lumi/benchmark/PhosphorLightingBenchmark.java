@@ -0,0 +1,242 @@
+/*
+ * Lumi
+ *
+ * Copyright (C) 2023-2025 FalsePattern, Ven
+ * All Rights Reserved
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, only version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.falsepattern.lumi.benchmark;
+
+import com.falsepattern.lumi.api.LumiAPI;
+import com.falsepattern.lumi.api.lighting.LumiLightingEngine;
+import com.falsepattern.lumi.benchmark.headless.HeadlessWorld;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.falsepattern.lumi.api.lighting.LightType.BLOCK_LIGHT_TYPE;
+import static com.falsepattern.lumi.api.lighting.LightType.SKY_LIGHT_TYPE;
+import static com.falsepattern.lumi.internal.lighting.phosphor.PhosphorLightingEngineProvider.phosphorLightingEngineProvider;
+
+/**
+ * Measures full lighting passes of the Phosphor engine for common block change scenarios.
+ * <p>
+ * Each benchmark method performs one block change and processes the resulting updates,
+ * the per invocation setup restores the world to its previous state outside of the measurement.
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PhosphorLightingBenchmark {
+    private static final int WORLD_RADIUS = 4;
+    private static final int GROUND_HEIGHT = 64;
+
+    private static final int TORCH_BRIGHTNESS = 14;
+    private static final int OPAQUE = 15;
+
+    private static final int ROOF_SIZE = 64;
+    private static final int ROOF_POS_Y = 100;
+
+    private static final int CAVE_SIZE = 16;
+    private static final int CAVE_MIN_POS_Y = 20;
+    private static final int CAVE_HEIGHT = 8;
+
+    private static final long[] CHECK_POSITIONS = checkPositions();
+
+    @State(Scope.Thread)
+    public static class LitWorld {
+        HeadlessWorld world;
+        LumiLightingEngine lightingEngine;
+
+        @Setup(Level.Trial)
+        public void setupWorld() {
+            world = new HeadlessWorld(true, phosphorLightingEngineProvider());
+            world.generateFlat(WORLD_RADIUS, GROUND_HEIGHT);
+            world.lightAll();
+            lightingEngine = world.lumi$lightingEngine();
+        }
+
+        void torch(boolean place) {
+            world.setBlock(0, GROUND_HEIGHT, 0, 0, place ? TORCH_BRIGHTNESS : 0);
+        }
+
+        void roof(boolean place) {
+            final int min = -ROOF_SIZE / 2;
+            final int max = ROOF_SIZE / 2;
+            for (int posX = min; posX < max; posX++) {
+                for (int posZ = min; posZ < max; posZ++) {
+                    world.setBlock(posX, ROOF_POS_Y, posZ, place ? OPAQUE : 0, 0);
+                }
+            }
+        }
+
+        void cave(boolean carve) {
+            final int opacity = carve ? 0 : OPAQUE;
+            for (int posY = CAVE_MIN_POS_Y + CAVE_HEIGHT; posY < GROUND_HEIGHT; posY++)
+                world.setBlock(0, posY, 0, opacity, 0);
+            for (int posY = CAVE_MIN_POS_Y; posY < CAVE_MIN_POS_Y + CAVE_HEIGHT; posY++) {
+                for (int posX = 0; posX < CAVE_SIZE; posX++) {
+                    for (int posZ = 0; posZ < CAVE_SIZE; posZ++) {
+                        world.setBlock(posX, posY, posZ, opacity, 0);
+                    }
+                }
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class TorchAbsent extends LitWorld {
+        @Setup(Level.Invocation)
+        public void removeTorch() {
+            torch(false);
+            lightingEngine.processLightingUpdatesForAllTypes();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class TorchPresent extends LitWorld {
+        @Setup(Level.Invocation)
+        public void placeTorch() {
+            torch(true);
+            lightingEngine.processLightingUpdatesForAllTypes();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class CaveFilled extends LitWorld {
+        @Setup(Level.Invocation)
+        public void fillCave() {
+            cave(false);
+            lightingEngine.processLightingUpdatesForAllTypes();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class RoofAbsent extends LitWorld {
+        @Setup(Level.Invocation)
+        public void removeRoof() {
+            roof(false);
+            lightingEngine.processLightingUpdatesForAllTypes();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class RoofPresent extends LitWorld {
+        @Setup(Level.Invocation)
+        public void placeRoof() {
+            roof(true);
+            lightingEngine.processLightingUpdatesForAllTypes();
+        }
+    }
+
+    /**
+     * Brightening only: a single light source appears in an open area.
+     */
+    @Benchmark
+    public void torchPlace(TorchAbsent state) {
+        state.torch(true);
+        state.lightingEngine.processLightingUpdatesForAllTypes();
+    }
+
+    /**
+     * Darkening followed by re-brightening from the surrounding sky light.
+     */
+    @Benchmark
+    public void torchRemove(TorchPresent state) {
+        state.torch(false);
+        state.lightingEngine.processLightingUpdatesForAllTypes();
+    }
+
+    /**
+     * Checking phase only: every scheduled position is already correctly lit.
+     */
+    @Benchmark
+    public void checkUnchanged(LitWorld state) {
+        for (int posX = 0; posX < 16; posX++) {
+            for (int posZ = 0; posZ < 16; posZ++) {
+                for (int posY = GROUND_HEIGHT - 8; posY < GROUND_HEIGHT + 8; posY++) {
+                    state.world.lumi$scheduleLightingUpdate(posX, posY, posZ);
+                }
+            }
+        }
+        state.lightingEngine.processLightingUpdatesForAllTypes();
+    }
+
+    /**
+     * Same as {@link #checkUnchanged}, with the updates scheduled through the bulk API.
+     */
+    @Benchmark
+    public void checkUnchangedBulk(LitWorld state) {
+        state.lightingEngine.scheduleLightingUpdates(BLOCK_LIGHT_TYPE, CHECK_POSITIONS, 0, CHECK_POSITIONS.length);
+        state.lightingEngine.scheduleLightingUpdates(SKY_LIGHT_TYPE, CHECK_POSITIONS, 0, CHECK_POSITIONS.length);
+        state.lightingEngine.processLightingUpdatesForAllTypes();
+    }
+
+    /**
+     * Opens a shaft and a room underground, sky light floods in through the shaft.
+     */
+    @Benchmark
+    public void caveCarve(CaveFilled state) {
+        state.cave(true);
+        state.lightingEngine.processLightingUpdatesForAllTypes();
+    }
+
+    /**
+     * Large area sky light darkening, spanning several chunks.
+     */
+    @Benchmark
+    public void roofPlace(RoofAbsent state) {
+        state.roof(true);
+        state.lightingEngine.processLightingUpdatesForAllTypes();
+    }
+
+    /**
+     * Large area sky light brightening, spanning several chunks.
+     */
+    @Benchmark
+    public void roofRemove(RoofPresent state) {
+        state.roof(false);
+        state.lightingEngine.processLightingUpdatesForAllTypes();
+    }
+
+    private static long[] checkPositions() {
+        final long[] positions = new long[16 * 16 * 16];
+        int i = 0;
+        for (int posX = 0; posX < 16; posX++) {
+            for (int posZ = 0; posZ < 16; posZ++) {
+                for (int posY = GROUND_HEIGHT - 8; posY < GROUND_HEIGHT + 8; posY++) {
+                    positions[i++] = LumiAPI.packBlockPos(posX, posY, posZ);
+                }
+            }
+        }
+        return positions;
+    }
+}
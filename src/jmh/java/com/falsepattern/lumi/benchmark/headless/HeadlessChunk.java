@@ -0,0 +1,405 @@
+/*
+ * Lumi
+ *
+ * Copyright (C) 2023-2025 FalsePattern, Ven
+ * All Rights Reserved
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, only version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.falsepattern.lumi.benchmark.headless;
+
+import com.falsepattern.lumi.api.LumiChunkAPI;
+import com.falsepattern.lumi.api.chunk.LumiChunk;
+import com.falsepattern.lumi.api.chunk.LumiChunkRoot;
+import com.falsepattern.lumi.api.chunk.LumiSubChunk;
+import com.falsepattern.lumi.api.lighting.LightType;
+import com.falsepattern.lumi.internal.lighting.phosphor.PhosphorChunk;
+import net.minecraft.block.Block;
+import net.minecraft.nbt.NBTTagCompound;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Chunk without any vanilla backing storage, see {@link HeadlessSubChunk} for how blocks are modelled.
+ */
+public final class HeadlessChunk implements PhosphorChunk, LumiChunkRoot {
+    private final HeadlessWorld world;
+    private final int chunkPosX;
+    private final int chunkPosZ;
+
+    private final HeadlessSubChunk[] subChunks = new HeadlessSubChunk[SUB_CHUNK_ARRAY_SIZE];
+    private final int[] skyLightHeightMap = new int[HEIGHT_MAP_ARRAY_SIZE];
+    private final boolean[] outdatedHeights = new boolean[UPDATE_SKYLIGHT_COLUMNS_ARRAY_SIZE];
+    private final short[] lightCheckFlags = new short[LIGHT_CHECK_FLAGS_LENGTH];
+
+    private int minSkyLightHeight = Integer.MAX_VALUE;
+    private int queuedRandomLightUpdates;
+    private boolean isLightingInitialized;
+    private boolean isDirty;
+
+    HeadlessChunk(HeadlessWorld world, int chunkPosX, int chunkPosZ) {
+        this.world = world;
+        this.chunkPosX = chunkPosX;
+        this.chunkPosZ = chunkPosZ;
+        LumiChunkAPI.resetHeightMapArray(skyLightHeightMap);
+        LumiChunkAPI.resetUpdateSkylightColumns(outdatedHeights);
+    }
+
+    /**
+     * Places a block without notifying the lighting engine, used for terrain generation.
+     */
+    public void setBlock(int subChunkPosX, int posY, int subChunkPosZ, int opacity, int brightness) {
+        final int chunkPosY = (posY & 255) >> 4;
+        HeadlessSubChunk subChunk = subChunks[chunkPosY];
+        if (subChunk == null) {
+            if (opacity == 0 && brightness == 0)
+                return;
+            subChunk = new HeadlessSubChunk(chunkPosY << 4);
+            subChunks[chunkPosY] = subChunk;
+        }
+        subChunk.setBlock(subChunkPosX, posY, subChunkPosZ, opacity, brightness);
+    }
+
+    /**
+     * Creates an empty sub chunk, replacing any existing one, without notifying the lighting engine.
+     */
+    public HeadlessSubChunk createSubChunk(int chunkPosY) {
+        chunkPosY &= 15;
+        final HeadlessSubChunk subChunk = new HeadlessSubChunk(chunkPosY << 4);
+        subChunks[chunkPosY] = subChunk;
+        return subChunk;
+    }
+
+    public int opacity(int subChunkPosX, int posY, int subChunkPosZ) {
+        final HeadlessSubChunk subChunk = subChunks[(posY & 255) >> 4];
+        return subChunk == null ? 0 : subChunk.opacity(subChunkPosX, posY, subChunkPosZ);
+    }
+
+    public int brightness(int subChunkPosX, int posY, int subChunkPosZ) {
+        final HeadlessSubChunk subChunk = subChunks[(posY & 255) >> 4];
+        return subChunk == null ? 0 : subChunk.brightness(subChunkPosX, posY, subChunkPosZ);
+    }
+
+    public void clearDirty() {
+        isDirty = false;
+    }
+
+    // region Chunk
+    @Override
+    public @NotNull HeadlessChunk lumi$root() {
+        return this;
+    }
+
+    @Override
+    public @NotNull HeadlessWorld lumi$world() {
+        return world;
+    }
+
+    @Override
+    public @NotNull String lumi$chunkID() {
+        return "headless_chunk";
+    }
+
+    @Override
+    public void lumi$writeToNBT(@NotNull NBTTagCompound output) {
+        output.setIntArray(SKY_LIGHT_HEIGHT_MAP_NBT_TAG_NAME, skyLightHeightMap.clone());
+        output.setBoolean(IS_LIGHT_INITIALIZED_NBT_TAG_NAME, isLightingInitialized);
+    }
+
+    @Override
+    public void lumi$readFromNBT(@NotNull NBTTagCompound input) {
+        final int[] heightMap = input.getIntArray(SKY_LIGHT_HEIGHT_MAP_NBT_TAG_NAME);
+        isLightingInitialized = input.getBoolean(IS_LIGHT_INITIALIZED_NBT_TAG_NAME) &&
+                                heightMap.length == HEIGHT_MAP_ARRAY_SIZE;
+        if (isLightingInitialized)
+            System.arraycopy(heightMap, 0, skyLightHeightMap, 0, HEIGHT_MAP_ARRAY_SIZE);
+    }
+
+    @Override
+    public void lumi$cloneFrom(@NotNull LumiChunk from) {
+        System.arraycopy(from.lumi$skyLightHeightMap(), 0, skyLightHeightMap, 0, HEIGHT_MAP_ARRAY_SIZE);
+        isLightingInitialized = from.lumi$isLightingInitialized();
+    }
+
+    @Override
+    public void lumi$writeToPacket(@NotNull ByteBuffer output) {
+    }
+
+    @Override
+    public void lumi$readFromPacket(@NotNull ByteBuffer input) {
+        isLightingInitialized = true;
+    }
+
+    @Override
+    public @Nullable LumiSubChunk lumi$getSubChunkIfPrepared(int chunkPosY) {
+        return subChunks[chunkPosY & 15];
+    }
+
+    @Override
+    public @NotNull HeadlessSubChunk lumi$getSubChunk(int chunkPosY) {
+        lumi$prepareSubChunk(chunkPosY);
+        return subChunks[chunkPosY & 15];
+    }
+
+    @Override
+    public int lumi$chunkPosX() {
+        return chunkPosX;
+    }
+
+    @Override
+    public int lumi$chunkPosZ() {
+        return chunkPosZ;
+    }
+
+    @Override
+    public void lumi$queuedRandomLightUpdates(int queuedRandomLightUpdates) {
+        this.queuedRandomLightUpdates = queuedRandomLightUpdates;
+    }
+
+    @Override
+    public int lumi$queuedRandomLightUpdates() {
+        return queuedRandomLightUpdates;
+    }
+
+    @Override
+    public void lumi$resetQueuedRandomLightUpdates() {
+        queuedRandomLightUpdates = 0;
+    }
+
+    @Override
+    public int lumi$getBrightness(@NotNull LightType lightType, int subChunkPosX, int posY, int subChunkPosZ) {
+        if (lightType.isBlock())
+            return lumi$getBrightness(subChunkPosX, posY, subChunkPosZ);
+        return lumi$getSkyLightValue(subChunkPosX, posY, subChunkPosZ);
+    }
+
+    @Override
+    public int lumi$getBrightness(int subChunkPosX, int posY, int subChunkPosZ) {
+        return Math.max(lumi$getBlockBrightness(subChunkPosX, posY, subChunkPosZ),
+                        lumi$getBlockLightValue(subChunkPosX, posY, subChunkPosZ));
+    }
+
+    @Override
+    public int lumi$getLightValue(int subChunkPosX, int posY, int subChunkPosZ) {
+        return Math.max(lumi$getBlockLightValue(subChunkPosX, posY, subChunkPosZ),
+                        lumi$getSkyLightValue(subChunkPosX, posY, subChunkPosZ));
+    }
+
+    @Override
+    public void lumi$setLightValue(@NotNull LightType lightType, int subChunkPosX, int posY, int subChunkPosZ, int lightValue) {
+        if (lightType.isBlock()) {
+            lumi$setBlockLightValue(subChunkPosX, posY, subChunkPosZ, lightValue);
+        } else {
+            lumi$setSkyLightValue(subChunkPosX, posY, subChunkPosZ, lightValue);
+        }
+    }
+
+    @Override
+    public int lumi$getLightValue(@NotNull LightType lightType, int subChunkPosX, int posY, int subChunkPosZ) {
+        if (lightType.isBlock())
+            return lumi$getBlockLightValue(subChunkPosX, posY, subChunkPosZ);
+        return lumi$getSkyLightValue(subChunkPosX, posY, subChunkPosZ);
+    }
+
+    @Override
+    public void lumi$setBlockLightValue(int subChunkPosX, int posY, int subChunkPosZ, int lightValue) {
+        lumi$getSubChunk((posY & 255) >> 4).lumi$setBlockLightValue(subChunkPosX, posY, subChunkPosZ, lightValue);
+        lumi$markDirty();
+    }
+
+    @Override
+    public int lumi$getBlockLightValue(int subChunkPosX, int posY, int subChunkPosZ) {
+        final LumiSubChunk subChunk = lumi$getSubChunkIfPrepared((posY & 255) >> 4);
+        if (subChunk == null)
+            return 0;
+        return subChunk.lumi$getBlockLightValue(subChunkPosX, posY, subChunkPosZ);
+    }
+
+    @Override
+    public void lumi$setSkyLightValue(int subChunkPosX, int posY, int subChunkPosZ, int lightValue) {
+        if (!world.lumi$hasSky())
+            return;
+        lumi$getSubChunk((posY & 255) >> 4).lumi$setSkyLightValue(subChunkPosX, posY, subChunkPosZ, lightValue);
+        lumi$markDirty();
+    }
+
+    @Override
+    public int lumi$getSkyLightValue(int subChunkPosX, int posY, int subChunkPosZ) {
+        if (!world.lumi$hasSky())
+            return 0;
+        final LumiSubChunk subChunk = lumi$getSubChunkIfPrepared((posY & 255) >> 4);
+        if (subChunk == null)
+            return lumi$canBlockSeeSky(subChunkPosX, posY, subChunkPosZ) ? 15 : 0;
+        return subChunk.lumi$getSkyLightValue(subChunkPosX, posY, subChunkPosZ);
+    }
+
+    @Override
+    public int lumi$getBlockBrightness(int subChunkPosX, int posY, int subChunkPosZ) {
+        return brightness(subChunkPosX, posY, subChunkPosZ);
+    }
+
+    @Override
+    public int lumi$getBlockOpacity(int subChunkPosX, int posY, int subChunkPosZ) {
+        return opacity(subChunkPosX, posY, subChunkPosZ);
+    }
+
+    @Override
+    public int lumi$getBlockBrightness(@NotNull Block block, int blockMeta, int subChunkPosX, int posY, int subChunkPosZ) {
+        return brightness(subChunkPosX, posY, subChunkPosZ);
+    }
+
+    @Override
+    public int lumi$getBlockOpacity(@NotNull Block block, int blockMeta, int subChunkPosX, int posY, int subChunkPosZ) {
+        return opacity(subChunkPosX, posY, subChunkPosZ);
+    }
+
+    @Override
+    public boolean lumi$canBlockSeeSky(int subChunkPosX, int posY, int subChunkPosZ) {
+        return lumi$skyLightHeight(subChunkPosX, subChunkPosZ) <= posY;
+    }
+
+    @Override
+    public void lumi$skyLightHeight(int subChunkPosX, int subChunkPosZ, int skyLightHeight) {
+        skyLightHeightMap[(subChunkPosX & 15) + ((subChunkPosZ & 15) << 4)] = skyLightHeight;
+    }
+
+    @Override
+    public int lumi$skyLightHeight(int subChunkPosX, int subChunkPosZ) {
+        return skyLightHeightMap[(subChunkPosX & 15) + ((subChunkPosZ & 15) << 4)];
+    }
+
+    @Override
+    public void lumi$minSkyLightHeight(int minSkyLightHeight) {
+        this.minSkyLightHeight = minSkyLightHeight;
+    }
+
+    @Override
+    public int lumi$minSkyLightHeight() {
+        return minSkyLightHeight;
+    }
+
+    @Override
+    public void lumi$resetSkyLightHeightMap() {
+        LumiChunkAPI.resetHeightMapArray(skyLightHeightMap);
+        minSkyLightHeight = Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void lumi$isHeightOutdated(int subChunkPosX, int subChunkPosZ, boolean isHeightOutdated) {
+        outdatedHeights[(subChunkPosX & 15) + ((subChunkPosZ & 15) << 4)] = isHeightOutdated;
+    }
+
+    @Override
+    public boolean lumi$isHeightOutdated(int subChunkPosX, int subChunkPosZ) {
+        return outdatedHeights[(subChunkPosX & 15) + ((subChunkPosZ & 15) << 4)];
+    }
+
+    @Override
+    public void lumi$resetOutdatedHeightFlags() {
+        LumiChunkAPI.resetUpdateSkylightColumns(outdatedHeights);
+    }
+
+    @Override
+    public void lumi$isLightingInitialized(boolean isLightingInitialized) {
+        this.isLightingInitialized = isLightingInitialized;
+    }
+
+    @Override
+    public boolean lumi$isLightingInitialized() {
+        return isLightingInitialized;
+    }
+
+    @Override
+    public void lumi$resetLighting() {
+        isLightingInitialized = false;
+        world.lumi$lightingEngine().handleChunkInit(this);
+    }
+
+    @Override
+    public int @NotNull [] lumi$skyLightHeightMap() {
+        return skyLightHeightMap;
+    }
+    // endregion
+
+    // region Chunk Root
+    @Override
+    public @NotNull String lumi$chunkRootID() {
+        return "headless_chunk_root";
+    }
+
+    @Override
+    public boolean lumi$isUpdating() {
+        return false;
+    }
+
+    @Override
+    public void lumi$markDirty() {
+        isDirty = true;
+    }
+
+    @Override
+    public boolean lumi$isDirty() {
+        return isDirty;
+    }
+
+    @Override
+    public void lumi$prepareSubChunk(int chunkPosY) {
+        chunkPosY &= 15;
+        if (subChunks[chunkPosY] == null) {
+            final HeadlessSubChunk subChunk = new HeadlessSubChunk(chunkPosY << 4);
+            subChunks[chunkPosY] = subChunk;
+            world.lumi$lightingEngine().handleSubChunkInit(this, subChunk);
+            lumi$markDirty();
+        }
+    }
+
+    @Override
+    public boolean lumi$isSubChunkPrepared(int chunkPosY) {
+        return subChunks[chunkPosY & 15] != null;
+    }
+
+    @Override
+    public int lumi$topPreparedSubChunkBasePosY() {
+        for (int chunkPosY = SUB_CHUNK_ARRAY_SIZE - 1; chunkPosY >= 0; chunkPosY--) {
+            if (subChunks[chunkPosY] != null)
+                return chunkPosY << 4;
+        }
+        return 0;
+    }
+
+    @Override
+    @SuppressWarnings("ConstantConditions")
+    public Block lumi$getBlock(int subChunkPosX, int posY, int subChunkPosZ) {
+        return null;
+    }
+
+    @Override
+    public int lumi$getBlockMeta(int subChunkPosX, int posY, int subChunkPosZ) {
+        return 0;
+    }
+    // endregion
+
+    // region Phosphor
+    @Override
+    public short[] phosphor$lightCheckFlags() {
+        return lightCheckFlags;
+    }
+    // endregion
+}
@@ -0,0 +1,222 @@
+/*
+ * Lumi
+ *
+ * Copyright (C) 2023-2025 FalsePattern, Ven
+ * All Rights Reserved
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, only version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.falsepattern.lumi.benchmark.headless;
+
+import com.falsepattern.lumi.api.chunk.LumiSubChunk;
+import com.falsepattern.lumi.api.chunk.LumiSubChunkRoot;
+import com.falsepattern.lumi.api.lighting.LightType;
+import net.minecraft.block.Block;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.chunk.NibbleArray;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Sub chunk without any vanilla backing storage.
+ * <p>
+ * Blocks are modelled purely by their light properties: one opacity and one brightness value per position.
+ * {@link #lumi$getBlock(int, int, int)} always returns {@code null}, as constructing real blocks requires a bootstrapped registry.
+ */
+public final class HeadlessSubChunk implements LumiSubChunk, LumiSubChunkRoot {
+    public static final int VOLUME = 16 * 16 * 16;
+
+    private final int posY;
+    private final byte[] opacity = new byte[VOLUME];
+    private final byte[] brightness = new byte[VOLUME];
+
+    private NibbleArray blockLight;
+    private NibbleArray skyLight;
+
+    public HeadlessSubChunk(int posY) {
+        this.posY = posY;
+    }
+
+    public static int index(int subChunkPosX, int subChunkPosY, int subChunkPosZ) {
+        return (subChunkPosY & 15) << 8 | (subChunkPosZ & 15) << 4 | (subChunkPosX & 15);
+    }
+
+    public int opacity(int subChunkPosX, int subChunkPosY, int subChunkPosZ) {
+        return opacity[index(subChunkPosX, subChunkPosY, subChunkPosZ)];
+    }
+
+    public int brightness(int subChunkPosX, int subChunkPosY, int subChunkPosZ) {
+        return brightness[index(subChunkPosX, subChunkPosY, subChunkPosZ)];
+    }
+
+    public void setBlock(int subChunkPosX, int subChunkPosY, int subChunkPosZ, int opacity, int brightness) {
+        final int index = index(subChunkPosX, subChunkPosY, subChunkPosZ);
+        this.opacity[index] = (byte) opacity;
+        this.brightness[index] = (byte) brightness;
+    }
+
+    // region Sub Chunk
+    @Override
+    public @NotNull HeadlessSubChunk lumi$root() {
+        return this;
+    }
+
+    @Override
+    public @NotNull String lumi$subChunkID() {
+        return "headless_sub_chunk";
+    }
+
+    @Override
+    public void lumi$writeToNBT(@NotNull NBTTagCompound output) {
+        if (blockLight != null)
+            output.setByteArray(BLOCK_LIGHT_NBT_TAG_NAME, blockLight.data.clone());
+        if (skyLight != null)
+            output.setByteArray(SKY_LIGHT_NBT_TAG_NAME, skyLight.data.clone());
+    }
+
+    @Override
+    public void lumi$readFromNBT(@NotNull NBTTagCompound input) {
+        blockLight = input.hasKey(BLOCK_LIGHT_NBT_TAG_NAME) ? new NibbleArray(input.getByteArray(BLOCK_LIGHT_NBT_TAG_NAME), 4) : null;
+        skyLight = input.hasKey(SKY_LIGHT_NBT_TAG_NAME) ? new NibbleArray(input.getByteArray(SKY_LIGHT_NBT_TAG_NAME), 4) : null;
+    }
+
+    @Override
+    public void lumi$cloneFrom(LumiSubChunk from) {
+        blockLight = copy(from.lumi$getBlockLightArray());
+        skyLight = copy(from.lumi$getSkyLightArray());
+    }
+
+    @Override
+    public void lumi$writeToPacket(@NotNull ByteBuffer output) {
+        output.put((byte) ((blockLight != null ? 1 : 0) | (skyLight != null ? 2 : 0)));
+        if (blockLight != null)
+            output.put(blockLight.data);
+        if (skyLight != null)
+            output.put(skyLight.data);
+    }
+
+    @Override
+    public void lumi$readFromPacket(@NotNull ByteBuffer input) {
+        final byte flag = input.get();
+        blockLight = (flag & 1) != 0 ? read(input) : null;
+        skyLight = (flag & 2) != 0 ? read(input) : null;
+    }
+
+    @Override
+    public void lumi$setLightValue(@NotNull LightType lightType,
+                                   int subChunkPosX,
+                                   int subChunkPosY,
+                                   int subChunkPosZ,
+                                   int lightValue) {
+        if (lightType.isBlock()) {
+            lumi$setBlockLightValue(subChunkPosX, subChunkPosY, subChunkPosZ, lightValue);
+        } else {
+            lumi$setSkyLightValue(subChunkPosX, subChunkPosY, subChunkPosZ, lightValue);
+        }
+    }
+
+    @Override
+    public int lumi$getLightValue(@NotNull LightType lightType, int subChunkPosX, int subChunkPosY, int subChunkPosZ) {
+        if (lightType.isBlock())
+            return lumi$getBlockLightValue(subChunkPosX, subChunkPosY, subChunkPosZ);
+        return lumi$getSkyLightValue(subChunkPosX, subChunkPosY, subChunkPosZ);
+    }
+
+    @Override
+    public void lumi$setBlockLightValue(int subChunkPosX, int subChunkPosY, int subChunkPosZ, int lightValue) {
+        blockLight = lazySet(blockLight, subChunkPosX, subChunkPosY, subChunkPosZ, lightValue);
+    }
+
+    @Override
+    public int lumi$getBlockLightValue(int subChunkPosX, int subChunkPosY, int subChunkPosZ) {
+        return lazyGet(blockLight, subChunkPosX, subChunkPosY, subChunkPosZ);
+    }
+
+    @Override
+    public void lumi$setSkyLightValue(int subChunkPosX, int subChunkPosY, int subChunkPosZ, int lightValue) {
+        skyLight = lazySet(skyLight, subChunkPosX, subChunkPosY, subChunkPosZ, lightValue);
+    }
+
+    @Override
+    public int lumi$getSkyLightValue(int subChunkPosX, int subChunkPosY, int subChunkPosZ) {
+        return lazyGet(skyLight, subChunkPosX, subChunkPosY, subChunkPosZ);
+    }
+
+    @Override
+    public NibbleArray lumi$getBlockLightArray() {
+        return blockLight;
+    }
+
+    @Override
+    public NibbleArray lumi$getSkyLightArray() {
+        return skyLight;
+    }
+    // endregion
+
+    // region Sub Chunk Root
+    @Override
+    public @NotNull String lumi$subChunkRootID() {
+        return "headless_sub_chunk_root";
+    }
+
+    @Override
+    public int lumi$posY() {
+        return posY;
+    }
+
+    @Override
+    @SuppressWarnings("ConstantConditions")
+    public Block lumi$getBlock(int subChunkPosX, int subChunkPosY, int subChunkPosZ) {
+        return null;
+    }
+
+    @Override
+    public int lumi$getBlockMeta(int subChunkPosX, int subChunkPosY, int subChunkPosZ) {
+        return 0;
+    }
+    // endregion
+
+    private static NibbleArray copy(NibbleArray from) {
+        if (from == null)
+            return null;
+        return new NibbleArray(from.data.clone(), 4);
+    }
+
+    private static NibbleArray read(ByteBuffer input) {
+        final byte[] data = new byte[VOLUME / 2];
+        input.get(data);
+        return new NibbleArray(data, 4);
+    }
+
+    private static NibbleArray lazySet(NibbleArray lightArray, int subChunkPosX, int subChunkPosY, int subChunkPosZ, int lightValue) {
+        if (lightArray == null) {
+            if (lightValue == 0)
+                return null;
+            lightArray = new NibbleArray(VOLUME, 4);
+        }
+        lightArray.set(subChunkPosX, subChunkPosY, subChunkPosZ, lightValue);
+        return lightArray;
+    }
+
+    private static int lazyGet(NibbleArray lightArray, int subChunkPosX, int subChunkPosY, int subChunkPosZ) {
+        if (lightArray == null)
+            return 0;
+        return lightArray.get(subChunkPosX, subChunkPosY, subChunkPosZ);
+    }
+}
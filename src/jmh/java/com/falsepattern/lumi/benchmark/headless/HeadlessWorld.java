@@ -0,0 +1,361 @@
+/*
+ * Lumi
+ *
+ * Copyright (C) 2023-2025 FalsePattern, Ven
+ * All Rights Reserved
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, only version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.falsepattern.lumi.benchmark.headless;
+
+import com.falsepattern.lumi.api.chunk.LumiChunk;
+import com.falsepattern.lumi.api.chunk.LumiSubChunk;
+import com.falsepattern.lumi.api.lighting.LightType;
+import com.falsepattern.lumi.api.lighting.LumiLightingEngine;
+import com.falsepattern.lumi.api.lighting.LumiLightingEngineProvider;
+import com.falsepattern.lumi.api.world.LumiWorld;
+import com.falsepattern.lumi.api.world.LumiWorldRoot;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.Block;
+import net.minecraft.profiler.Profiler;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.IChunkProvider;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static com.falsepattern.lumi.api.lighting.LightType.BLOCK_LIGHT_TYPE;
+import static com.falsepattern.lumi.api.lighting.LightType.SKY_LIGHT_TYPE;
+
+/**
+ * Minimal world that lets a lighting engine run outside of a Minecraft environment.
+ * <p>
+ * Chunks only exist once generated, see {@link #generateFlat(int, int)}.
+ */
+public final class HeadlessWorld implements LumiWorld, LumiWorldRoot {
+    private final boolean hasSky;
+    private final Long2ObjectOpenHashMap<HeadlessChunk> chunks = new Long2ObjectOpenHashMap<>();
+    private final LumiLightingEngine lightingEngine;
+
+    private int renderUpdates;
+
+    public HeadlessWorld(boolean hasSky, LumiLightingEngineProvider lightingEngineProvider) {
+        this.hasSky = hasSky;
+        this.lightingEngine = lightingEngineProvider.provideLightingEngine(this, new Profiler());
+    }
+
+    private static long chunkKey(int chunkPosX, int chunkPosZ) {
+        return ((long) chunkPosX << 32) | (chunkPosZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Creates a square of {@code (2 * radius) ^ 2} chunks centered around the origin,
+     * filled with fully opaque blocks from the bottom of the world up to (not including) {@code groundHeight}.
+     */
+    public void generateFlat(int radius, int groundHeight) {
+        for (int chunkPosX = -radius; chunkPosX < radius; chunkPosX++) {
+            for (int chunkPosZ = -radius; chunkPosZ < radius; chunkPosZ++) {
+                final HeadlessChunk chunk = new HeadlessChunk(this, chunkPosX, chunkPosZ);
+                for (int posY = 0; posY < groundHeight; posY++) {
+                    for (int subChunkPosZ = 0; subChunkPosZ < 16; subChunkPosZ++) {
+                        for (int subChunkPosX = 0; subChunkPosX < 16; subChunkPosX++) {
+                            chunk.setBlock(subChunkPosX, posY, subChunkPosZ, 15, 0);
+                        }
+                    }
+                }
+                chunks.put(chunkKey(chunkPosX, chunkPosZ), chunk);
+            }
+        }
+    }
+
+    /**
+     * Creates an empty chunk, replacing any existing one, without notifying the lighting engine.
+     */
+    public HeadlessChunk createChunk(int chunkPosX, int chunkPosZ) {
+        final HeadlessChunk chunk = new HeadlessChunk(this, chunkPosX, chunkPosZ);
+        chunks.put(chunkKey(chunkPosX, chunkPosZ), chunk);
+        return chunk;
+    }
+
+    /**
+     * Runs the full chunk initialization for every chunk, followed by any resulting lighting updates.
+     */
+    public void lightAll() {
+        for (HeadlessChunk chunk : chunks.values())
+            lightingEngine.handleChunkInit(chunk);
+        for (HeadlessChunk chunk : chunks.values())
+            lightingEngine.handleChunkLoad(chunk);
+        for (HeadlessChunk chunk : chunks.values())
+            lightingEngine.isChunkFullyLit(chunk);
+        lightingEngine.processLightingUpdatesForAllTypes();
+    }
+
+    /**
+     * Places a block and schedules the lighting updates the same way a block change in the world would.
+     * <p>
+     * The updates are not processed, call {@link LumiLightingEngine#processLightingUpdatesForAllTypes()} to do so.
+     */
+    public void setBlock(int posX, int posY, int posZ, int opacity, int brightness) {
+        final HeadlessChunk chunk = chunks.get(chunkKey(posX >> 4, posZ >> 4));
+        if (chunk == null)
+            return;
+        chunk.setBlock(posX & 15, posY, posZ & 15, opacity, brightness);
+        lightingEngine.updateLightingForBlock(posX, posY, posZ);
+        lumi$scheduleLightingUpdate(posX, posY, posZ);
+    }
+
+    public Iterable<HeadlessChunk> chunks() {
+        return chunks.values();
+    }
+
+    public int renderUpdates() {
+        return renderUpdates;
+    }
+
+    // region World
+    @Override
+    public @NotNull HeadlessWorld lumi$root() {
+        return this;
+    }
+
+    @Override
+    public @NotNull String lumi$worldID() {
+        return "headless_world";
+    }
+
+    @Override
+    public @NotNull LumiChunk lumi$wrap(@NotNull Chunk chunkBase) {
+        throw new UnsupportedOperationException("Headless world has no vanilla chunks");
+    }
+
+    @Override
+    public @NotNull LumiSubChunk lumi$wrap(@NotNull ExtendedBlockStorage subChunkBase) {
+        throw new UnsupportedOperationException("Headless world has no vanilla sub chunks");
+    }
+
+    @Override
+    public @NotNull LumiLightingEngine lumi$lightingEngine() {
+        return lightingEngine;
+    }
+
+    @Override
+    public void lumi$setLightValue(@Nullable LumiChunk chunk, @NotNull LightType lightType, int posX, int posY, int posZ, int lightValue) {
+        if (chunk != null)
+            chunk.lumi$setLightValue(lightType, posX & 15, posY, posZ & 15, lightValue);
+    }
+
+    @Override
+    public void lumi$setBlockLightValue(@Nullable LumiChunk chunk, int posX, int posY, int posZ, int lightValue) {
+        if (chunk != null)
+            chunk.lumi$setBlockLightValue(posX & 15, posY, posZ & 15, lightValue);
+    }
+
+    @Override
+    public void lumi$setSkyLightValue(@Nullable LumiChunk chunk, int posX, int posY, int posZ, int lightValue) {
+        if (hasSky && chunk != null)
+            chunk.lumi$setSkyLightValue(posX & 15, posY, posZ & 15, lightValue);
+    }
+    // endregion
+
+    // region World Root
+    @Override
+    public @NotNull String lumi$worldRootID() {
+        return "headless_world_root";
+    }
+
+    @Override
+    public void lumi$markBlockForRenderUpdate(int posX, int posY, int posZ) {
+        renderUpdates++;
+    }
+
+    @Override
+    public void lumi$markBlockRangeForRenderUpdate(int minPosX, int minPosY, int minPosZ, int maxPosX, int maxPosY, int maxPosZ) {
+        renderUpdates++;
+    }
+
+    @Override
+    public void lumi$scheduleLightingUpdate(int posX, int posY, int posZ) {
+        lightingEngine.scheduleLightingUpdate(BLOCK_LIGHT_TYPE, posX, posY, posZ);
+        if (hasSky)
+            lightingEngine.scheduleLightingUpdate(SKY_LIGHT_TYPE, posX, posY, posZ);
+    }
+
+    @Override
+    public @NotNull IChunkProvider lumi$chunkProvider() {
+        throw new UnsupportedOperationException("Headless world has no chunk provider");
+    }
+
+    @Override
+    public boolean lumi$doChunksExistInRange(int minPosX, int minPosY, int minPosZ, int maxPosX, int maxPosY, int maxPosZ) {
+        if (maxPosY < 0 || minPosY > 255)
+            return false;
+        for (int chunkPosX = minPosX >> 4; chunkPosX <= maxPosX >> 4; chunkPosX++) {
+            for (int chunkPosZ = minPosZ >> 4; chunkPosZ <= maxPosZ >> 4; chunkPosZ++) {
+                if (!chunks.containsKey(chunkKey(chunkPosX, chunkPosZ)))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean lumi$doChunksExistInRange(int centerPosX, int centerPosY, int centerPosZ, int blockRange) {
+        return lumi$doChunksExistInRange(centerPosX - blockRange, centerPosY - blockRange, centerPosZ - blockRange,
+                                         centerPosX + blockRange, centerPosY + blockRange, centerPosZ + blockRange);
+    }
+    // endregion
+
+    // region Block Storage
+    @Override
+    public @NotNull String lumi$blockStorageID() {
+        return "headless_world";
+    }
+
+    @Override
+    public @NotNull HeadlessWorld lumi$world() {
+        return this;
+    }
+
+    @Override
+    public int lumi$getBrightness(@Nullable LumiChunk chunk, @NotNull LightType lightType, int posX, int posY, int posZ) {
+        if (lightType.isBlock())
+            return lumi$getBrightness(chunk, posX, posY, posZ);
+        return lumi$getSkyLightValue(chunk, posX, posY, posZ);
+    }
+
+    @Override
+    public int lumi$getBrightness(@Nullable LumiChunk chunk, int posX, int posY, int posZ) {
+        if (chunk != null)
+            return chunk.lumi$getBrightness(posX & 15, posY, posZ & 15);
+        return Math.max(lumi$getBlockBrightness(posX, posY, posZ), BLOCK_LIGHT_TYPE.defaultLightValue());
+    }
+
+    @Override
+    public int lumi$getLightValue(@Nullable LumiChunk chunk, int posX, int posY, int posZ) {
+        if (chunk != null)
+            return chunk.lumi$getLightValue(posX & 15, posY, posZ & 15);
+        return LightType.maxBaseLightValue();
+    }
+
+    @Override
+    public int lumi$getLightValue(@Nullable LumiChunk chunk, LightType lightType, int posX, int posY, int posZ) {
+        if (chunk != null)
+            return chunk.lumi$getLightValue(lightType, posX & 15, posY, posZ & 15);
+        if (lightType.isBlock())
+            return BLOCK_LIGHT_TYPE.defaultLightValue();
+        return hasSky ? SKY_LIGHT_TYPE.defaultLightValue() : 0;
+    }
+
+    @Override
+    public int lumi$getBlockLightValue(LumiChunk chunk, int posX, int posY, int posZ) {
+        if (chunk != null)
+            return chunk.lumi$getBlockLightValue(posX & 15, posY, posZ & 15);
+        return BLOCK_LIGHT_TYPE.defaultLightValue();
+    }
+
+    @Override
+    public int lumi$getSkyLightValue(@Nullable LumiChunk chunk, int posX, int posY, int posZ) {
+        if (!hasSky)
+            return 0;
+        if (chunk != null)
+            return chunk.lumi$getSkyLightValue(posX & 15, posY, posZ & 15);
+        return SKY_LIGHT_TYPE.defaultLightValue();
+    }
+
+    @Override
+    public int lumi$getBlockBrightness(int posX, int posY, int posZ) {
+        final HeadlessChunk chunk = chunks.get(chunkKey(posX >> 4, posZ >> 4));
+        return chunk == null ? 0 : chunk.brightness(posX & 15, posY, posZ & 15);
+    }
+
+    @Override
+    public int lumi$getBlockOpacity(int posX, int posY, int posZ) {
+        final HeadlessChunk chunk = chunks.get(chunkKey(posX >> 4, posZ >> 4));
+        return chunk == null ? 0 : chunk.opacity(posX & 15, posY, posZ & 15);
+    }
+
+    @Override
+    public int lumi$getBlockBrightness(@NotNull Block block, int blockMeta, int posX, int posY, int posZ) {
+        return lumi$getBlockBrightness(posX, posY, posZ);
+    }
+
+    @Override
+    public int lumi$getBlockOpacity(@NotNull Block block, int blockMeta, int posX, int posY, int posZ) {
+        return lumi$getBlockOpacity(posX, posY, posZ);
+    }
+
+    @Override
+    public @Nullable HeadlessChunk lumi$getChunkFromBlockPosIfExists(int posX, int posZ) {
+        return chunks.get(chunkKey(posX >> 4, posZ >> 4));
+    }
+
+    @Override
+    public @Nullable HeadlessChunk lumi$getChunkFromChunkPosIfExists(int chunkPosX, int chunkPosZ) {
+        return chunks.get(chunkKey(chunkPosX, chunkPosZ));
+    }
+    // endregion
+
+    // region Block Storage Root
+    @Override
+    public @NotNull String lumi$blockStorageRootID() {
+        return "headless_world_root";
+    }
+
+    @Override
+    public boolean lumi$isClientSide() {
+        return false;
+    }
+
+    @Override
+    public boolean lumi$hasSky() {
+        return hasSky;
+    }
+
+    @Override
+    @SuppressWarnings("ConstantConditions")
+    public Block lumi$getBlock(int posX, int posY, int posZ) {
+        return null;
+    }
+
+    @Override
+    public int lumi$getBlockMeta(int posX, int posY, int posZ) {
+        return 0;
+    }
+
+    @Override
+    public boolean lumi$isAirBlock(int posX, int posY, int posZ) {
+        return lumi$getBlockOpacity(posX, posY, posZ) == 0 && lumi$getBlockBrightness(posX, posY, posZ) == 0;
+    }
+
+    @Override
+    public @Nullable TileEntity lumi$getTileEntity(int posX, int posY, int posZ) {
+        return null;
+    }
+
+    @Override
+    public @Nullable HeadlessChunk lumi$getChunkRootFromBlockPosIfExists(int posX, int posZ) {
+        return lumi$getChunkFromBlockPosIfExists(posX, posZ);
+    }
+
+    @Override
+    public @Nullable HeadlessChunk lumi$getChunkRootFromChunkPosIfExists(int chunkPosX, int chunkPosZ) {
+        return lumi$getChunkFromChunkPosIfExists(chunkPosX, chunkPosZ);
+    }
+    // endregion
+}
@@ -0,0 +1,58 @@
+/*
+ * Lumi
+ *
+ * Copyright (C) 2023-2025 FalsePattern, Ven
+ * All Rights Reserved
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, only version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.falsepattern.lumi.benchmark.headless;
+
+import com.falsepattern.lumi.api.lighting.LumiLightingEngineProvider;
+import com.falsepattern.lumi.api.world.LumiWorldProvider;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Provides a fresh, empty {@link HeadlessWorld} for every call, ignoring the base world.
+ */
+public final class HeadlessWorldProvider implements LumiWorldProvider {
+    private final boolean hasSky;
+    private final LumiLightingEngineProvider lightingEngineProvider;
+
+    public HeadlessWorldProvider(boolean hasSky, LumiLightingEngineProvider lightingEngineProvider) {
+        this.hasSky = hasSky;
+        this.lightingEngineProvider = lightingEngineProvider;
+    }
+
+    @Override
+    public @NotNull String worldProviderID() {
+        return "headless_world_provider";
+    }
+
+    @Override
+    public @NotNull String worldProviderVersion() {
+        return "1";
+    }
+
+    @Override
+    public @NotNull HeadlessWorld provideWorld(@Nullable World worldBase) {
+        return new HeadlessWorld(hasSky, lightingEngineProvider);
+    }
+}
@@ -21,36 +21,25 @@
  *
  */
 
-package com.falsepattern.lumi.internal.util;
+package com.falsepattern.lumi.benchmark.scenario;
 
-import lombok.experimental.UtilityClass;
+import com.falsepattern.lumi.benchmark.headless.HeadlessWorld;
 
-import net.minecraft.world.chunk.NibbleArray;
-
-@UtilityClass
-public final class LazyUtil {
-    public static NibbleArray ensurePresent(NibbleArray arr) {
-        if (arr == null) {
-            arr = new NibbleArray(4096, 4);
-        }
-        return arr;
-    }
+/**
+ * End to end workload for {@link LightingScenarioSuite}, every run gets a fresh world.
+ */
+public interface LightingScenario {
+    String name();
 
-    public static int lazyGet(NibbleArray arr, int x, int y, int z) {
-        if (arr == null) {
-            return 0;
-        }
-        return arr.get(x, y, z);
-    }
+    /**
+     * Prepares the world outside of the measurement, any lighting updates must have been processed on return.
+     */
+    void setup(HeadlessWorld world);
 
-    public static NibbleArray lazySet(NibbleArray arr, int x, int y, int z, int val) {
-        if (arr == null) {
-            if (val == 0) {
-                return null;
-            }
-            arr = new NibbleArray(4096, 4);
-        }
-        arr.set(x, y, z, val);
-        return arr;
-    }
+    /**
+     * Performs the measured workload, processing all lighting updates before returning.
+     *
+     * @return the number of lighting updates scheduled by the scenario itself
+     */
+    long run(HeadlessWorld world);
 }
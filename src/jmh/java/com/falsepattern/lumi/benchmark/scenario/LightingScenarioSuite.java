@@ -0,0 +1,292 @@
+/*
+ * Lumi
+ *
+ * Copyright (C) 2023-2025 FalsePattern, Ven
+ * All Rights Reserved
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, only version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.falsepattern.lumi.benchmark.scenario;
+
+import com.falsepattern.lumi.api.lighting.LumiLightingEngine;
+import com.falsepattern.lumi.api.lighting.LumiLightingEngineProvider;
+import com.falsepattern.lumi.api.lighting.LumiLightingEngineRegistry;
+import com.falsepattern.lumi.benchmark.headless.HeadlessWorld;
+import com.falsepattern.lumi.benchmark.headless.HeadlessWorldProvider;
+import com.falsepattern.lumi.internal.lighting.phosphor.PhosphorLightingEngine;
+import com.falsepattern.lumi.internal.lighting.phosphor.PhosphorLightingMetrics;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Constructor;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static com.falsepattern.lumi.internal.lighting.phosphor.PhosphorLightingEngineProvider.phosphorLightingEngineProvider;
+
+/**
+ * Runs every {@link LightingScenarios scenario} against every registered lighting engine and writes a JSON report.
+ * <p>
+ * The Phosphor engine is always registered, further engines are given as {@link LumiLightingEngineProvider} class names
+ * with a no argument constructor, or can be registered directly through this {@link LumiLightingEngineRegistry}.
+ * <p>
+ * Usage: {@code LightingScenarioSuite <report file> [iterations] [warmup iterations] [terrain radius] [provider classes...]}
+ */
+public final class LightingScenarioSuite implements LumiLightingEngineRegistry {
+    private static final int DEFAULT_ITERATIONS = 5;
+    private static final int DEFAULT_WARMUP_ITERATIONS = 3;
+    private static final int DEFAULT_TERRAIN_RADIUS = 8;
+
+    private final List<LumiLightingEngineProvider> lightingEngineProviders = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: LightingScenarioSuite <report file> [iterations] [warmup iterations] [terrain radius] [provider classes...]");
+            System.exit(1);
+        }
+
+        final File reportFile = new File(args[0]);
+        final int iterations = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ITERATIONS;
+        final int warmupIterations = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_WARMUP_ITERATIONS;
+        final int terrainRadius = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_TERRAIN_RADIUS;
+
+        final LightingScenarioSuite suite = new LightingScenarioSuite();
+        suite.registerLightingEngineProvider(phosphorLightingEngineProvider(), false);
+        for (int i = 4; i < args.length; i++) {
+            final Constructor<?> constructor = Class.forName(args[i]).getDeclaredConstructor();
+            constructor.setAccessible(true);
+            suite.registerLightingEngineProvider((LumiLightingEngineProvider) constructor.newInstance(), false);
+        }
+
+        final List<Result> results = suite.run(LightingScenarios.all(terrainRadius), iterations, warmupIterations);
+        writeReport(reportFile, iterations, results);
+        System.out.println("Wrote lighting scenario report to " + reportFile);
+    }
+
+    /**
+     * Registers an engine to compare, providers with an already registered ID are replaced if {@code displace} is set.
+     */
+    @Override
+    public void registerLightingEngineProvider(@NotNull LumiLightingEngineProvider lightingEngineProvider, boolean displace) {
+        final String lightingEngineProviderID = lightingEngineProvider.lightingEngineProviderID();
+        for (int i = 0; i < lightingEngineProviders.size(); i++) {
+            if (!lightingEngineProviders.get(i).lightingEngineProviderID().equals(lightingEngineProviderID))
+                continue;
+            if (displace)
+                lightingEngineProviders.set(i, lightingEngineProvider);
+            return;
+        }
+        lightingEngineProviders.add(lightingEngineProvider);
+    }
+
+    public List<Result> run(List<LightingScenario> scenarios, int iterations, int warmupIterations) {
+        final List<Result> results = new ArrayList<>();
+        for (LumiLightingEngineProvider lightingEngineProvider : lightingEngineProviders) {
+            final HeadlessWorldProvider worldProvider = new HeadlessWorldProvider(true, lightingEngineProvider);
+            for (LightingScenario scenario : scenarios) {
+                for (int i = 0; i < warmupIterations; i++)
+                    runOnce(worldProvider, scenario);
+
+                final Result result = new Result(scenario.name(), lightingEngineProvider.lightingEngineProviderID());
+                for (int i = 0; i < iterations; i++)
+                    result.add(runOnce(worldProvider, scenario));
+                System.out.println(result);
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    private static Run runOnce(HeadlessWorldProvider worldProvider, LightingScenario scenario) {
+        final HeadlessWorld world = worldProvider.provideWorld(null);
+        scenario.setup(world);
+
+        // Only count what the scenario itself causes
+        final LumiLightingEngine lightingEngine = world.lumi$lightingEngine();
+        final PhosphorLightingMetrics metrics = lightingEngine instanceof PhosphorLightingEngine ?
+                                                ((PhosphorLightingEngine) lightingEngine).metrics() : null;
+        if (metrics != null)
+            metrics.reset();
+
+        final long startBytes = allocatedBytes();
+        final long startNanos = System.nanoTime();
+        final long issuedUpdates = scenario.run(world);
+        final long nanos = System.nanoTime() - startNanos;
+        final long bytes = startBytes < 0 ? -1 : allocatedBytes() - startBytes;
+
+        if (metrics == null)
+            return new Run(nanos, bytes, issuedUpdates, -1, -1, -1);
+        return new Run(nanos,
+                       bytes,
+                       issuedUpdates,
+                       metrics.getScheduledLightingUpdates(),
+                       max(metrics.getPeakDarkeningQueueSizes()),
+                       max(metrics.getPeakBrighteningQueueSizes()));
+    }
+
+    /**
+     * @return bytes allocated by the current thread so far, or {@code -1} if the JVM does not track it
+     */
+    private static long allocatedBytes() {
+        final java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean))
+            return -1;
+        return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static int max(int[] values) {
+        int max = 0;
+        for (int value : values)
+            max = Math.max(max, value);
+        return max;
+    }
+
+    private static void writeReport(File file, int iterations, List<Result> results) throws IOException {
+        final File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs())
+            throw new IOException("Could not create directory " + parent);
+
+        try (Writer output = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            output.write("{\n  \"iterations\": " + iterations + ",\n  \"results\": [");
+            for (int i = 0; i < results.size(); i++) {
+                if (i != 0)
+                    output.write(',');
+                output.write("\n    ");
+                output.write(results.get(i).toJson());
+            }
+            output.write("\n  ]\n}\n");
+        }
+    }
+
+    /**
+     * Measurements of a single run, engine specific values are {@code -1} if the engine does not report them.
+     */
+    private static final class Run {
+        final long nanos;
+        final long allocatedBytes;
+        final long issuedUpdates;
+        final long scheduledUpdates;
+        final int peakDarkeningQueueSize;
+        final int peakBrighteningQueueSize;
+
+        Run(long nanos,
+            long allocatedBytes,
+            long issuedUpdates,
+            long scheduledUpdates,
+            int peakDarkeningQueueSize,
+            int peakBrighteningQueueSize) {
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+            this.issuedUpdates = issuedUpdates;
+            this.scheduledUpdates = scheduledUpdates;
+            this.peakDarkeningQueueSize = peakDarkeningQueueSize;
+            this.peakBrighteningQueueSize = peakBrighteningQueueSize;
+        }
+
+        /**
+         * Prefers the updates counted by the engine, as those include the ones caused by chunk initialization.
+         */
+        long updates() {
+            return scheduledUpdates >= 0 ? scheduledUpdates : issuedUpdates;
+        }
+    }
+
+    /**
+     * Aggregate of all measured runs of one scenario on one engine.
+     */
+    public static final class Result {
+        private final String scenario;
+        private final String lightingEngineProviderID;
+
+        private int runs;
+        private long totalNanos;
+        private long minNanos = Long.MAX_VALUE;
+        private long totalAllocatedBytes;
+        private long totalUpdates;
+        private long issuedUpdates;
+        private int peakDarkeningQueueSize = -1;
+        private int peakBrighteningQueueSize = -1;
+
+        Result(String scenario, String lightingEngineProviderID) {
+            this.scenario = scenario;
+            this.lightingEngineProviderID = lightingEngineProviderID;
+        }
+
+        void add(Run run) {
+            runs++;
+            totalNanos += run.nanos;
+            minNanos = Math.min(minNanos, run.nanos);
+            totalAllocatedBytes += run.allocatedBytes;
+            totalUpdates += run.updates();
+            issuedUpdates = run.issuedUpdates;
+            peakDarkeningQueueSize = Math.max(peakDarkeningQueueSize, run.peakDarkeningQueueSize);
+            peakBrighteningQueueSize = Math.max(peakBrighteningQueueSize, run.peakBrighteningQueueSize);
+        }
+
+        public double meanMillis() {
+            return runs == 0 ? 0D : totalNanos / 1_000_000D / runs;
+        }
+
+        public double minMillis() {
+            return runs == 0 ? 0D : minNanos / 1_000_000D;
+        }
+
+        public double updatesPerSecond() {
+            return totalNanos == 0 ? 0D : totalUpdates * 1_000_000_000D / totalNanos;
+        }
+
+        public long meanAllocatedBytes() {
+            return runs == 0 || totalAllocatedBytes < 0 ? -1 : totalAllocatedBytes / runs;
+        }
+
+        String toJson() {
+            return String.format(Locale.ROOT, "{\"scenario\": \"%s\", \"engine\": \"%s\", \"runs\": %d, " +
+                                 "\"meanMillis\": %.3f, \"minMillis\": %.3f, \"updatesPerSecond\": %.0f, " +
+                                 "\"issuedUpdates\": %d, \"meanAllocatedBytes\": %d, " +
+                                 "\"peakDarkeningQueueSize\": %d, \"peakBrighteningQueueSize\": %d}",
+                                 scenario,
+                                 lightingEngineProviderID,
+                                 runs,
+                                 meanMillis(),
+                                 minMillis(),
+                                 updatesPerSecond(),
+                                 issuedUpdates,
+                                 meanAllocatedBytes(),
+                                 peakDarkeningQueueSize,
+                                 peakBrighteningQueueSize);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[%s] %s: %.2f ms mean, %.2f ms min, %.0f updates/s, %d bytes allocated",
+                                 lightingEngineProviderID,
+                                 scenario,
+                                 meanMillis(),
+                                 minMillis(),
+                                 updatesPerSecond(),
+                                 meanAllocatedBytes());
+        }
+    }
+}
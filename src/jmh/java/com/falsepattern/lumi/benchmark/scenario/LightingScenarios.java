@@ -0,0 +1,326 @@
+/*
+ * Lumi
+ *
+ * Copyright (C) 2023-2025 FalsePattern, Ven
+ * All Rights Reserved
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, only version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.falsepattern.lumi.benchmark.scenario;
+
+import com.falsepattern.lumi.benchmark.headless.HeadlessChunk;
+import com.falsepattern.lumi.benchmark.headless.HeadlessWorld;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The built-in scenarios, each modelled after a common in-game event.
+ * <p>
+ * Blocks are described by their light properties only, see {@link com.falsepattern.lumi.benchmark.headless.HeadlessSubChunk}.
+ */
+public final class LightingScenarios {
+    private static final int OPAQUE = 15;
+    private static final int TORCH_BRIGHTNESS = 14;
+    private static final int LAVA_BRIGHTNESS = 15;
+
+    private static final int WORLD_RADIUS = 4;
+    private static final int GROUND_HEIGHT = 64;
+
+    private LightingScenarios() {
+    }
+
+    /**
+     * @param terrainRadius radius in chunks of the generated terrain, covering {@code (2 * terrainRadius) ^ 2} chunks
+     */
+    public static List<LightingScenario> all(int terrainRadius) {
+        return Arrays.asList(new Terrain(terrainRadius),
+                             new TorchPlacement(),
+                             new Roof(),
+                             new LavaLake(),
+                             new TntCrater(),
+                             new SchematicPaste(false),
+                             new SchematicPaste(true));
+    }
+
+    /**
+     * Places a block and schedules its lighting updates.
+     *
+     * @return the number of lighting updates scheduled
+     */
+    static long setBlock(HeadlessWorld world, int posX, int posY, int posZ, int opacity, int brightness) {
+        world.setBlock(posX, posY, posZ, opacity, brightness);
+        return world.lumi$hasSky() ? 2 : 1;
+    }
+
+    static void litFlatWorld(HeadlessWorld world) {
+        world.generateFlat(WORLD_RADIUS, GROUND_HEIGHT);
+        world.lightAll();
+    }
+
+    /**
+     * Fresh chunk lighting of rolling hills, with a scattering of light sources underground.
+     */
+    static final class Terrain implements LightingScenario {
+        private static final int BASE_HEIGHT = 64;
+        private static final int HILL_HEIGHT = 12;
+        private static final int ORE_SPACING = 7;
+
+        private final int radius;
+
+        Terrain(int radius) {
+            this.radius = radius;
+        }
+
+        @Override
+        public String name() {
+            return "terrain_" + ((radius * 2) * (radius * 2)) + "_chunks";
+        }
+
+        @Override
+        public void setup(HeadlessWorld world) {
+            for (int chunkPosX = -radius; chunkPosX < radius; chunkPosX++) {
+                for (int chunkPosZ = -radius; chunkPosZ < radius; chunkPosZ++) {
+                    final HeadlessChunk chunk = world.createChunk(chunkPosX, chunkPosZ);
+                    for (int subChunkPosX = 0; subChunkPosX < 16; subChunkPosX++) {
+                        for (int subChunkPosZ = 0; subChunkPosZ < 16; subChunkPosZ++) {
+                            final int posX = (chunkPosX << 4) + subChunkPosX;
+                            final int posZ = (chunkPosZ << 4) + subChunkPosZ;
+                            final int height = height(posX, posZ);
+                            for (int posY = 0; posY < height; posY++) {
+                                final boolean isOre = posY < height - 8 && (posX + posY * 3 + posZ * 5) % ORE_SPACING == 0 &&
+                                                      ((posX ^ posZ) & 3) == 0;
+                                chunk.setBlock(subChunkPosX, posY, subChunkPosZ, OPAQUE, isOre ? LAVA_BRIGHTNESS : 0);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        @Override
+        public long run(HeadlessWorld world) {
+            world.lightAll();
+            return 0;
+        }
+
+        private static int height(int posX, int posZ) {
+            return BASE_HEIGHT + (int) (HILL_HEIGHT * Math.sin(posX / 19D) * Math.cos(posZ / 23D));
+        }
+    }
+
+    /**
+     * Torches placed on a grid across several chunks, processed in batches as if over several ticks.
+     */
+    static final class TorchPlacement implements LightingScenario {
+        private static final int AREA_SIZE = 64;
+        private static final int SPACING = 2;
+        private static final int TORCHES_PER_TICK = 64;
+
+        @Override
+        public String name() {
+            return "torch_placement";
+        }
+
+        @Override
+        public void setup(HeadlessWorld world) {
+            litFlatWorld(world);
+        }
+
+        @Override
+        public long run(HeadlessWorld world) {
+            long updates = 0;
+            int torches = 0;
+            for (int posX = -AREA_SIZE / 2; posX < AREA_SIZE / 2; posX += SPACING) {
+                for (int posZ = -AREA_SIZE / 2; posZ < AREA_SIZE / 2; posZ += SPACING) {
+                    updates += setBlock(world, posX, GROUND_HEIGHT, posZ, 0, TORCH_BRIGHTNESS);
+                    if (++torches % TORCHES_PER_TICK == 0)
+                        world.lumi$lightingEngine().processLightingUpdatesForAllTypes();
+                }
+            }
+            world.lumi$lightingEngine().processLightingUpdatesForAllTypes();
+            return updates;
+        }
+    }
+
+    /**
+     * A 64x64 roof placed and then removed again over open sky.
+     */
+    static final class Roof implements LightingScenario {
+        private static final int ROOF_SIZE = 64;
+        private static final int ROOF_POS_Y = 100;
+
+        @Override
+        public String name() {
+            return "roof_64x64";
+        }
+
+        @Override
+        public void setup(HeadlessWorld world) {
+            litFlatWorld(world);
+        }
+
+        @Override
+        public long run(HeadlessWorld world) {
+            return roof(world, true) + roof(world, false);
+        }
+
+        private static long roof(HeadlessWorld world, boolean place) {
+            long updates = 0;
+            for (int posX = -ROOF_SIZE / 2; posX < ROOF_SIZE / 2; posX++) {
+                for (int posZ = -ROOF_SIZE / 2; posZ < ROOF_SIZE / 2; posZ++)
+                    updates += setBlock(world, posX, ROOF_POS_Y, posZ, place ? OPAQUE : 0, 0);
+            }
+            world.lumi$lightingEngine().processLightingUpdatesForAllTypes();
+            return updates;
+        }
+    }
+
+    /**
+     * Lava spreading outwards from a source through a sunken pit, one ring of blocks per tick.
+     */
+    static final class LavaLake implements LightingScenario {
+        private static final int PIT_RADIUS = 16;
+        private static final int PIT_DEPTH = 4;
+
+        @Override
+        public String name() {
+            return "lava_lake_flow";
+        }
+
+        @Override
+        public void setup(HeadlessWorld world) {
+            litFlatWorld(world);
+            for (int posX = -PIT_RADIUS; posX < PIT_RADIUS; posX++) {
+                for (int posZ = -PIT_RADIUS; posZ < PIT_RADIUS; posZ++) {
+                    for (int posY = GROUND_HEIGHT - PIT_DEPTH; posY < GROUND_HEIGHT; posY++)
+                        world.setBlock(posX, posY, posZ, 0, 0);
+                }
+            }
+            world.lumi$lightingEngine().processLightingUpdatesForAllTypes();
+        }
+
+        @Override
+        public long run(HeadlessWorld world) {
+            final int posY = GROUND_HEIGHT - PIT_DEPTH;
+            long updates = 0;
+            for (int distance = 0; distance <= PIT_RADIUS * 2; distance++) {
+                for (int posX = -PIT_RADIUS; posX < PIT_RADIUS; posX++) {
+                    for (int posZ = -PIT_RADIUS; posZ < PIT_RADIUS; posZ++) {
+                        if (Math.abs(posX) + Math.abs(posZ) == distance)
+                            updates += setBlock(world, posX, posY, posZ, OPAQUE, LAVA_BRIGHTNESS);
+                    }
+                }
+                world.lumi$lightingEngine().processLightingUpdatesForAllTypes();
+            }
+            return updates;
+        }
+    }
+
+    /**
+     * A large structure of hollow rooms lit by lamps pasted in one go, optionally as a single lighting batch.
+     */
+    static final class SchematicPaste implements LightingScenario {
+        private static final int SIZE = 48;
+        private static final int ROOM_SIZE = 8;
+        private static final int BASE_POS_Y = GROUND_HEIGHT;
+
+        private final boolean isBatched;
+
+        SchematicPaste(boolean isBatched) {
+            this.isBatched = isBatched;
+        }
+
+        @Override
+        public String name() {
+            return isBatched ? "schematic_paste_batched" : "schematic_paste";
+        }
+
+        @Override
+        public void setup(HeadlessWorld world) {
+            litFlatWorld(world);
+        }
+
+        @Override
+        public long run(HeadlessWorld world) {
+            if (isBatched)
+                world.lumi$lightingEngine().beginBatch();
+            long updates = 0;
+            try {
+                for (int posY = BASE_POS_Y; posY < BASE_POS_Y + SIZE; posY++) {
+                    for (int posX = -SIZE / 2; posX < SIZE / 2; posX++) {
+                        for (int posZ = -SIZE / 2; posZ < SIZE / 2; posZ++) {
+                            final int roomX = Math.floorMod(posX, ROOM_SIZE);
+                            final int roomY = Math.floorMod(posY, ROOM_SIZE);
+                            final int roomZ = Math.floorMod(posZ, ROOM_SIZE);
+                            final boolean isWall = roomX == 0 || roomY == 0 || roomZ == 0;
+                            final boolean isLamp = roomX == ROOM_SIZE / 2 && roomY == 1 && roomZ == ROOM_SIZE / 2;
+                            updates += setBlock(world, posX, posY, posZ, isWall ? OPAQUE : 0, isLamp ? LAVA_BRIGHTNESS : 0);
+                        }
+                    }
+                }
+            } finally {
+                if (isBatched)
+                    world.lumi$lightingEngine().endBatch();
+            }
+            world.lumi$lightingEngine().processLightingUpdatesForAllTypes();
+            return updates;
+        }
+    }
+
+    /**
+     * A chain of TNT explosions blowing spherical craters into the ground.
+     */
+    static final class TntCrater implements LightingScenario {
+        private static final int EXPLOSIONS = 8;
+        private static final int CRATER_RADIUS = 4;
+        private static final int EXPLOSION_SPACING = 5;
+
+        @Override
+        public String name() {
+            return "tnt_crater";
+        }
+
+        @Override
+        public void setup(HeadlessWorld world) {
+            litFlatWorld(world);
+        }
+
+        @Override
+        public long run(HeadlessWorld world) {
+            long updates = 0;
+            for (int i = 0; i < EXPLOSIONS; i++) {
+                final int centerPosX = (i - EXPLOSIONS / 2) * EXPLOSION_SPACING;
+                final int centerPosY = GROUND_HEIGHT - 2;
+                for (int posX = centerPosX - CRATER_RADIUS; posX <= centerPosX + CRATER_RADIUS; posX++) {
+                    for (int posY = centerPosY - CRATER_RADIUS; posY <= centerPosY + CRATER_RADIUS; posY++) {
+                        for (int posZ = -CRATER_RADIUS; posZ <= CRATER_RADIUS; posZ++) {
+                            final int deltaX = posX - centerPosX;
+                            final int deltaY = posY - centerPosY;
+                            if (deltaX * deltaX + deltaY * deltaY + posZ * posZ <= CRATER_RADIUS * CRATER_RADIUS &&
+                                world.lumi$getBlockOpacity(posX, posY, posZ) != 0)
+                                updates += setBlock(world, posX, posY, posZ, 0, 0);
+                        }
+                    }
+                }
+                world.lumi$lightingEngine().processLightingUpdatesForAllTypes();
+            }
+            return updates;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * Lumi
+ *
+ * Copyright (C) 2023-2025 FalsePattern, Ven
+ * All Rights Reserved
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, only version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.falsepattern.lumi.benchmark.trace;
+
+import com.falsepattern.lumi.api.lighting.LightType;
+import com.falsepattern.lumi.api.lighting.LumiLightingEngine;
+import com.falsepattern.lumi.api.lighting.LumiLightingEngineProvider;
+import com.falsepattern.lumi.benchmark.headless.HeadlessChunk;
+import com.falsepattern.lumi.benchmark.headless.HeadlessSubChunk;
+import com.falsepattern.lumi.benchmark.headless.HeadlessWorld;
+import com.falsepattern.lumi.internal.lighting.phosphor.LightingTraceRecorder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+import static com.falsepattern.lumi.api.lighting.LightType.BLOCK_LIGHT_TYPE;
+import static com.falsepattern.lumi.api.lighting.LightType.SKY_LIGHT_TYPE;
+import static com.falsepattern.lumi.internal.lighting.phosphor.LightingTraceRecorder.ALL_LIGHT_TYPES;
+import static com.falsepattern.lumi.internal.lighting.phosphor.LightingTraceRecorder.BLOCK_LIGHT;
+import static com.falsepattern.lumi.internal.lighting.phosphor.LightingTraceRecorder.SKY_LIGHT;
+import static com.falsepattern.lumi.internal.lighting.phosphor.PhosphorLightingEngineProvider.phosphorLightingEngineProvider;
+
+/**
+ * Replays a trace written by {@link LightingTraceRecorder} against a lighting engine in a {@link HeadlessWorld}.
+ * <p>
+ * Recorded chunks are restored into the world as they appear in the trace, all other records are passed to the engine as-is.
+ * The final light values of the trace are compared against the replayed world, so any engine can be checked for correctness.
+ * <p>
+ * Usage: {@code LightingTraceReplay <trace file> [iterations]}
+ */
+public final class LightingTraceReplay {
+    private LightingTraceReplay() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: LightingTraceReplay <trace file> [iterations]");
+            System.exit(1);
+        }
+
+        final byte[] trace = load(new File(args[0]));
+        final int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        boolean isMismatched = false;
+        for (int i = 0; i < iterations; i++) {
+            final Result result = replay(trace, phosphorLightingEngineProvider());
+            System.out.printf("[%d/%d] %s%n", i + 1, iterations, result);
+            isMismatched |= result.mismatches() != 0;
+        }
+        if (isMismatched)
+            System.exit(2);
+    }
+
+    /**
+     * Reads and decompresses a whole trace, so replays do not measure any file access.
+     */
+    public static byte[] load(File file) throws IOException {
+        try (InputStream input = new GZIPInputStream(new FileInputStream(file))) {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[65536];
+            int length;
+            while ((length = input.read(buffer)) != -1)
+                output.write(buffer, 0, length);
+            return output.toByteArray();
+        }
+    }
+
+    public static Result replay(byte[] trace, LumiLightingEngineProvider lightingEngineProvider) throws IOException {
+        final DataInputStream input = new DataInputStream(new ByteArrayInputStream(trace));
+        if (input.readInt() != LightingTraceRecorder.MAGIC)
+            throw new IOException("Not a lighting trace");
+        final int version = input.readShort();
+        if (version != LightingTraceRecorder.VERSION)
+            throw new IOException("Unsupported lighting trace version " + version);
+
+        final HeadlessWorld world = new HeadlessWorld(input.readBoolean(), lightingEngineProvider);
+        final LumiLightingEngine lightingEngine = world.lumi$lightingEngine();
+
+        int ops = 0;
+        int verifiedChunks = 0;
+        int mismatches = 0;
+        long engineNanos = 0;
+        while (true) {
+            final int op = input.readUnsignedByte();
+            if (op == LightingTraceRecorder.OP_END)
+                break;
+            if (op == LightingTraceRecorder.OP_CHUNK) {
+                readChunk(input, world);
+                continue;
+            }
+            if (op == LightingTraceRecorder.OP_RESULT) {
+                mismatches += verifyChunk(input, world);
+                verifiedChunks++;
+                continue;
+            }
+
+            final long startNanos = System.nanoTime();
+            switch (op) {
+                case LightingTraceRecorder.OP_CHUNK_INIT:
+                case LightingTraceRecorder.OP_CHUNK_LOAD:
+                case LightingTraceRecorder.OP_IS_CHUNK_FULLY_LIT:
+                case LightingTraceRecorder.OP_RANDOM_UPDATES: {
+                    final HeadlessChunk chunk = world.lumi$getChunkFromChunkPosIfExists(input.readInt(), input.readInt());
+                    if (chunk == null)
+                        throw new IOException("Trace references a chunk that was never recorded");
+                    if (op == LightingTraceRecorder.OP_CHUNK_INIT) {
+                        lightingEngine.handleChunkInit(chunk);
+                    } else if (op == LightingTraceRecorder.OP_CHUNK_LOAD) {
+                        lightingEngine.handleChunkLoad(chunk);
+                    } else if (op == LightingTraceRecorder.OP_IS_CHUNK_FULLY_LIT) {
+                        lightingEngine.isChunkFullyLit(chunk);
+                    } else {
+                        lightingEngine.doRandomChunkLightingUpdates(chunk);
+                    }
+                    break;
+                }
+                case LightingTraceRecorder.OP_UPDATE_FOR_BLOCK: {
+                    final int posX = input.readInt();
+                    final int posY = input.readInt();
+                    final int posZ = input.readInt();
+                    setBlock(world, posX, posY, posZ, input.readByte());
+                    lightingEngine.updateLightingForBlock(posX, posY, posZ);
+                    break;
+                }
+                case LightingTraceRecorder.OP_SCHEDULE: {
+                    final LightType lightType = lightType(input.readByte());
+                    final int posX = input.readInt();
+                    final int posY = input.readInt();
+                    final int posZ = input.readInt();
+                    setBlock(world, posX, posY, posZ, input.readByte());
+                    lightingEngine.scheduleLightingUpdate(lightType, posX, posY, posZ);
+                    break;
+                }
+                case LightingTraceRecorder.OP_SCHEDULE_RANGE: {
+                    final LightType lightType = lightType(input.readByte());
+                    lightingEngine.scheduleLightingUpdateForRange(lightType,
+                                                                  input.readInt(),
+                                                                  input.readInt(),
+                                                                  input.readInt(),
+                                                                  input.readInt(),
+                                                                  input.readInt(),
+                                                                  input.readInt());
+                    break;
+                }
+                case LightingTraceRecorder.OP_SCHEDULE_COLUMN: {
+                    final LightType lightType = lightType(input.readByte());
+                    lightingEngine.scheduleLightingUpdateForColumn(lightType,
+                                                                   input.readInt(),
+                                                                   input.readInt(),
+                                                                   input.readInt(),
+                                                                   input.readInt());
+                    break;
+                }
+                case LightingTraceRecorder.OP_FLUSH: {
+                    final int lightTypeID = input.readByte();
+                    if (lightTypeID == ALL_LIGHT_TYPES) {
+                        lightingEngine.processLightingUpdatesForAllTypes();
+                    } else {
+                        lightingEngine.processLightingUpdatesForType(lightType(lightTypeID));
+                    }
+                    break;
+                }
+                default:
+                    throw new IOException("Unknown lighting trace op " + op);
+            }
+            engineNanos += System.nanoTime() - startNanos;
+            ops++;
+        }
+        return new Result(ops, engineNanos, verifiedChunks, mismatches);
+    }
+
+    private static void readChunk(DataInputStream input, HeadlessWorld world) throws IOException {
+        final HeadlessChunk chunk = world.createChunk(input.readInt(), input.readInt());
+        chunk.lumi$isLightingInitialized(input.readBoolean());
+        chunk.lumi$minSkyLightHeight(input.readInt());
+        chunk.lumi$queuedRandomLightUpdates(input.readInt());
+        final int[] skyLightHeightMap = chunk.lumi$skyLightHeightMap();
+        for (int i = 0; i < skyLightHeightMap.length; i++)
+            skyLightHeightMap[i] = input.readInt();
+        for (int subChunkPosZ = 0; subChunkPosZ < 16; subChunkPosZ++) {
+            for (int subChunkPosX = 0; subChunkPosX < 16; subChunkPosX++)
+                chunk.lumi$isHeightOutdated(subChunkPosX, subChunkPosZ, input.readBoolean());
+        }
+        final short[] lightCheckFlags = chunk.phosphor$lightCheckFlags();
+        final int lightCheckFlagsLength = input.readInt();
+        for (int i = 0; i < lightCheckFlagsLength; i++) {
+            final short lightCheckFlag = input.readShort();
+            if (i < lightCheckFlags.length)
+                lightCheckFlags[i] = lightCheckFlag;
+        }
+
+        final int subChunkMask = input.readUnsignedShort();
+        final byte[] blocks = new byte[HeadlessSubChunk.VOLUME];
+        final byte[] blockLight = new byte[HeadlessSubChunk.VOLUME / 2];
+        final byte[] skyLight = new byte[HeadlessSubChunk.VOLUME / 2];
+        for (int chunkPosY = 0; chunkPosY < 16; chunkPosY++) {
+            if ((subChunkMask & 1 << chunkPosY) == 0)
+                continue;
+
+            input.readFully(blocks);
+            input.readFully(blockLight);
+            input.readFully(skyLight);
+            final HeadlessSubChunk subChunk = chunk.createSubChunk(chunkPosY);
+            for (int index = 0; index < HeadlessSubChunk.VOLUME; index++) {
+                final int subChunkPosX = index & 15;
+                final int subChunkPosY = index >> 8;
+                final int subChunkPosZ = (index >> 4) & 15;
+                final int block = blocks[index];
+                subChunk.setBlock(subChunkPosX, subChunkPosY, subChunkPosZ, (block >> 4) & 15, block & 15);
+                subChunk.lumi$setBlockLightValue(subChunkPosX, subChunkPosY, subChunkPosZ, nibble(blockLight, index));
+                subChunk.lumi$setSkyLightValue(subChunkPosX, subChunkPosY, subChunkPosZ, nibble(skyLight, index));
+            }
+        }
+        chunk.clearDirty();
+    }
+
+    /**
+     * Applies the light properties recorded along with a block update, preparing the sub chunk the same way a block placement would.
+     */
+    private static void setBlock(HeadlessWorld world, int posX, int posY, int posZ, int block) {
+        final HeadlessChunk chunk = world.lumi$getChunkFromBlockPosIfExists(posX, posZ);
+        if (chunk == null || posY < 0 || posY > 255)
+            return;
+
+        final int opacity = (block >> 4) & 15;
+        final int brightness = block & 15;
+        if (opacity != 0 || brightness != 0)
+            chunk.lumi$prepareSubChunk(posY >> 4);
+        chunk.setBlock(posX & 15, posY, posZ & 15, opacity, brightness);
+    }
+
+    /**
+     * @return the number of positions with a different light value than recorded
+     */
+    private static int verifyChunk(DataInputStream input, HeadlessWorld world) throws IOException {
+        final int chunkPosX = input.readInt();
+        final int chunkPosZ = input.readInt();
+        final byte[] blockLight = new byte[32768];
+        final byte[] skyLight = new byte[32768];
+        input.readFully(blockLight);
+        input.readFully(skyLight);
+
+        final HeadlessChunk chunk = world.lumi$getChunkFromChunkPosIfExists(chunkPosX, chunkPosZ);
+        if (chunk == null)
+            return 65536;
+
+        int mismatches = 0;
+        for (int index = 0; index < 65536; index++) {
+            final int subChunkPosX = index & 15;
+            final int posY = index >> 8;
+            final int subChunkPosZ = (index >> 4) & 15;
+            if (LightingTraceRecorder.traceLightValue(chunk, BLOCK_LIGHT, subChunkPosX, posY, subChunkPosZ) != nibble(blockLight, index))
+                mismatches++;
+            if (LightingTraceRecorder.traceLightValue(chunk, SKY_LIGHT, subChunkPosX, posY, subChunkPosZ) != nibble(skyLight, index))
+                mismatches++;
+        }
+        return mismatches;
+    }
+
+    private static LightType lightType(int lightTypeID) throws IOException {
+        switch (lightTypeID) {
+            case BLOCK_LIGHT:
+                return BLOCK_LIGHT_TYPE;
+            case SKY_LIGHT:
+                return SKY_LIGHT_TYPE;
+            default:
+                throw new IOException("Unknown light type " + lightTypeID);
+        }
+    }
+
+    private static int nibble(byte[] data, int index) {
+        final int value = data[index >> 1];
+        return (index & 1) == 0 ? value & 15 : (value >> 4) & 15;
+    }
+
+    public static final class Result {
+        private final int ops;
+        private final long engineNanos;
+        private final int verifiedChunks;
+        private final int mismatches;
+
+        Result(int ops, long engineNanos, int verifiedChunks, int mismatches) {
+            this.ops = ops;
+            this.engineNanos = engineNanos;
+            this.verifiedChunks = verifiedChunks;
+            this.mismatches = mismatches;
+        }
+
+        public int ops() {
+            return ops;
+        }
+
+        /**
+         * Time spent inside the lighting engine, excluding restoring recorded chunks and verification.
+         */
+        public long engineNanos() {
+            return engineNanos;
+        }
+
+        public int verifiedChunks() {
+            return verifiedChunks;
+        }
+
+        public int mismatches() {
+            return mismatches;
+        }
+
+        @Override
+        public String toString() {
+            final double engineMillis = engineNanos / 1_000_000D;
+            final double opsPerSecond = engineNanos == 0 ? 0D : ops * 1_000_000_000D / engineNanos;
+            return String.format("%d ops in %.2f ms (%.0f ops/s), %d chunks verified, %d mismatches",
+                                 ops,
+                                 engineMillis,
+                                 opsPerSecond,
+                                 verifiedChunks,
+                                 mismatches);
+        }
+    }
+}
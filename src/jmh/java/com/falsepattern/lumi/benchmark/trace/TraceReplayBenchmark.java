@@ -0,0 +1,80 @@
+/*
+ * Lumi
+ *
+ * Copyright (C) 2023-2025 FalsePattern, Ven
+ * All Rights Reserved
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, only version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.falsepattern.lumi.benchmark.trace;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static com.falsepattern.lumi.internal.lighting.phosphor.PhosphorLightingEngineProvider.phosphorLightingEngineProvider;
+
+/**
+ * Measures a full replay of a recorded lighting trace, including restoring the recorded chunks.
+ * <p>
+ * The trace is passed with {@code -PjmhParams=tracePath=<file>}, record one in game with {@code /lumi trace start|stop}.
+ * Without a trace the benchmark is skipped.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TraceReplayBenchmark {
+    @State(Scope.Benchmark)
+    public static class Trace {
+        @Param("")
+        public String tracePath;
+
+        byte[] trace;
+
+        @Setup(Level.Trial)
+        public void loadTrace() throws IOException {
+            if (tracePath.isEmpty())
+                throw new IllegalStateException("No trace given, pass -PjmhParams=tracePath=<file>");
+
+            trace = LightingTraceReplay.load(new File(tracePath));
+            final LightingTraceReplay.Result result = LightingTraceReplay.replay(trace, phosphorLightingEngineProvider());
+            if (result.mismatches() != 0)
+                throw new IllegalStateException("Replay does not match the recorded light values: " + result);
+        }
+    }
+
+    @Benchmark
+    public LightingTraceReplay.Result replay(Trace state) throws IOException {
+        return LightingTraceReplay.replay(state.trace, phosphorLightingEngineProvider());
+    }
+}
@@ -24,14 +24,18 @@
 package com.falsepattern.lumi.api;
 
 import com.falsepattern.lib.StableAPI;
+import com.falsepattern.lumi.api.lighting.LightType;
 import com.falsepattern.lumi.api.lighting.LumiLightingEngine;
 import com.falsepattern.lumi.api.lighting.LumiLightingEngineProvider;
 import com.falsepattern.lumi.api.world.LumiWorld;
+import com.falsepattern.lumi.internal.mixin.hook.LightingHooks;
 import net.minecraft.profiler.Profiler;
+import net.minecraft.world.World;
 import org.jetbrains.annotations.NotNull;
 
 import static com.falsepattern.lumi.internal.Tags.*;
 import static com.falsepattern.lumi.internal.lighting.LightingEngineManager.lightingEngineManager;
+import static com.falsepattern.lumi.internal.world.WorldProviderManager.worldProviderManager;
 
 @StableAPI(since = "1.0.0")
 public final class LumiAPI {
@@ -56,4 +60,60 @@ public final class LumiAPI {
     public static @NotNull LumiLightingEngineProvider lightingEngineProvider() {
         return lightingEngineManager();
     }
+
+    /**
+     * Packs a block position for the bulk scheduling methods, such as {@link LumiLightingEngine#scheduleLightingUpdates}.
+     * <p>
+     * Layout: [x(26)] [z(26)] [y(12)], all signed.
+     */
+    @StableAPI.Expose(since = "__EXPERIMENTAL__")
+    public static long packBlockPos(int posX, int posY, int posZ) {
+        return ((long) posX & 0x3FFFFFFL) << 38 | ((long) posZ & 0x3FFFFFFL) << 12 | (long) posY & 0xFFFL;
+    }
+
+    @StableAPI.Expose(since = "__EXPERIMENTAL__")
+    public static int unpackBlockPosX(long packedBlockPos) {
+        return (int) (packedBlockPos >> 38);
+    }
+
+    @StableAPI.Expose(since = "__EXPERIMENTAL__")
+    public static int unpackBlockPosY(long packedBlockPos) {
+        return (int) (packedBlockPos << 52 >> 52);
+    }
+
+    @StableAPI.Expose(since = "__EXPERIMENTAL__")
+    public static int unpackBlockPosZ(long packedBlockPos) {
+        return (int) (packedBlockPos << 26 >> 38);
+    }
+
+    /**
+     * Schedules updates in every lighting engine of the world, see {@link LumiLightingEngine#scheduleLightingUpdates}.
+     */
+    @StableAPI.Expose(since = "__EXPERIMENTAL__")
+    public static void scheduleLightingUpdates(@NotNull World worldBase,
+                                               @NotNull LightType lightType,
+                                               long @NotNull [] packedBlockPositions,
+                                               int offset,
+                                               int count) {
+        LightingHooks.scheduleLightingUpdates(worldBase, lightType, packedBlockPositions, offset, count);
+    }
+
+    /**
+     * Starts a lighting batch in every lighting engine of the world, see {@link LumiLightingEngine#beginBatch()}.
+     * <p>
+     * Must be paired with {@link #endLightingBatch(World)} in a {@code finally} block.
+     */
+    @StableAPI.Expose(since = "__EXPERIMENTAL__")
+    public static void beginLightingBatch(@NotNull World worldBase) {
+        final LumiWorld[] lumiWorlds = worldProviderManager().lumiWorldsFromBaseWorld(worldBase);
+        for (int i = 0; i < lumiWorlds.length; i++)
+            lumiWorlds[i].lumi$lightingEngine().beginBatch();
+    }
+
+    @StableAPI.Expose(since = "__EXPERIMENTAL__")
+    public static void endLightingBatch(@NotNull World worldBase) {
+        final LumiWorld[] lumiWorlds = worldProviderManager().lumiWorldsFromBaseWorld(worldBase);
+        for (int i = 0; i < lumiWorlds.length; i++)
+            lumiWorlds[i].lumi$lightingEngine().endBatch();
+    }
 }
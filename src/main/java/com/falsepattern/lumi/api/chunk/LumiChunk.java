@@ -84,10 +84,18 @@ public interface LumiChunk {
     @Expose
     void lumi$readFromPacket(@NotNull ByteBuffer input);
 
+    /**
+     * Read-only access, never allocates a sub chunk or marks the chunk as dirty.
+     *
+     * @return the sub chunk, or {@code null} if it has not been prepared yet
+     */
+    @Expose
     @Nullable
-    @Deprecated
     LumiSubChunk lumi$getSubChunkIfPrepared(int chunkPosY);
 
+    /**
+     * Prepares the sub chunk if needed, use {@link #lumi$getSubChunkIfPrepared(int)} when only reading.
+     */
     @Expose
     @NotNull
     LumiSubChunk lumi$getSubChunk(int chunkPosY);
@@ -119,6 +127,18 @@ public interface LumiChunk {
     @Expose
     void lumi$setLightValue(@NotNull LightType lightType, int subChunkPosX, int posY, int subChunkPosZ, int lightValue);
 
+    /**
+     * Same as {@link #lumi$setLightValue(LightType, int, int, int, int)}, but leaves marking the chunk dirty to the caller.
+     */
+    @Expose
+    default void lumi$setLightValueWithoutMarkingDirty(@NotNull LightType lightType,
+                                                       int subChunkPosX,
+                                                       int posY,
+                                                       int subChunkPosZ,
+                                                       int lightValue) {
+        lumi$setLightValue(lightType, subChunkPosX, posY, subChunkPosZ, lightValue);
+    }
+
     @Expose
     int lumi$getLightValue(@NotNull LightType lightType, int subChunkPosX, int posY, int subChunkPosZ);
 
@@ -49,6 +49,9 @@ public interface LumiChunkRoot {
     @Expose
     boolean lumi$isDirty();
 
+    /**
+     * Allocates the sub chunk if it is missing, marking the chunk as dirty only in that case.
+     */
     @Expose
     void lumi$prepareSubChunk(int chunkPosY);
 
@@ -25,6 +25,7 @@ package com.falsepattern.lumi.api.lighting;
 
 import com.falsepattern.lib.StableAPI;
 import com.falsepattern.lib.compat.BlockPos;
+import com.falsepattern.lumi.api.LumiAPI;
 import com.falsepattern.lumi.api.chunk.LumiChunk;
 import com.falsepattern.lumi.api.chunk.LumiSubChunk;
 import cpw.mods.fml.relauncher.SideOnly;
@@ -147,9 +148,48 @@ public interface LumiLightingEngine {
     @Expose
     void scheduleLightingUpdate(@NotNull LightType lightType, int posX, int posY, int posZ);
 
+    /**
+     * Schedules updates for many positions at once, cheaper than scheduling each one separately.
+     *
+     * @param packedBlockPositions positions packed with {@link LumiAPI#packBlockPos(int, int, int)}
+     * @param offset               index of the first position to schedule
+     * @param count                number of positions to schedule
+     */
+    @Expose
+    default void scheduleLightingUpdates(@NotNull LightType lightType,
+                                         long @NotNull [] packedBlockPositions,
+                                         int offset,
+                                         int count) {
+        for (int i = offset; i < offset + count; i++) {
+            final long packedBlockPos = packedBlockPositions[i];
+            scheduleLightingUpdate(lightType,
+                                   LumiAPI.unpackBlockPosX(packedBlockPos),
+                                   LumiAPI.unpackBlockPosY(packedBlockPos),
+                                   LumiAPI.unpackBlockPosZ(packedBlockPos));
+        }
+    }
+
     @Expose
     void processLightingUpdatesForType(@NotNull LightType lightType);
 
     @Expose
     void processLightingUpdatesForAllTypes();
+
+    /**
+     * Starts a batch of block changes, for mass edits such as filling a region or pasting a schematic.
+     * <p>
+     * Engines may defer any work caused by the changes in a batch until it ends, so light read in the meantime can be stale.
+     * Batches may be nested, and every call must be paired with {@link #endBatch()} in a {@code finally} block.
+     */
+    @Expose
+    default void beginBatch() {
+    }
+
+    /**
+     * Ends a batch started by {@link #beginBatch()}, processing all updates once the outermost batch has ended.
+     */
+    @Expose
+    default void endBatch() {
+        processLightingUpdatesForAllTypes();
+    }
 }
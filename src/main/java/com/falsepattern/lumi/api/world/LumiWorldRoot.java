@@ -39,6 +39,24 @@ public interface LumiWorldRoot extends LumiBlockStorageRoot {
     @Expose
     void lumi$markBlockForRenderUpdate(int posX, int posY, int posZ);
 
+    /**
+     * Marks all blocks within the inclusive range, implementations should override this if they can do it in one go.
+     */
+    @Expose
+    default void lumi$markBlockRangeForRenderUpdate(int minPosX,
+                                                    int minPosY,
+                                                    int minPosZ,
+                                                    int maxPosX,
+                                                    int maxPosY,
+                                                    int maxPosZ) {
+        for (int posY = minPosY; posY <= maxPosY; posY++) {
+            for (int posZ = minPosZ; posZ <= maxPosZ; posZ++) {
+                for (int posX = minPosX; posX <= maxPosX; posX++)
+                    lumi$markBlockForRenderUpdate(posX, posY, posZ);
+            }
+        }
+    }
+
     @Expose
     void lumi$scheduleLightingUpdate(int posX, int posY, int posZ);
 
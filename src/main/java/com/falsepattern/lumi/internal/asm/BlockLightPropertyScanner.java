@@ -0,0 +1,101 @@
+/*
+ * Lumi
+ *
+ * Copyright (C) 2023-2025 FalsePattern, Ven
+ * All Rights Reserved
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, only version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.falsepattern.lumi.internal.asm;
+
+import com.falsepattern.lib.turboasm.ClassNodeHandle;
+import com.falsepattern.lib.turboasm.TurboClassTransformer;
+import com.falsepattern.lumi.internal.Tags;
+import lombok.NoArgsConstructor;
+import lombok.val;
+import net.minecraft.launchwrapper.Launch;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Never modifies any classes, only records which ones declare Forge's positional light property getters.
+ * <p>
+ * Blocks without any such override resolve to the non-positional getters, which can then be called directly.
+ */
+@NoArgsConstructor
+public final class BlockLightPropertyScanner implements TurboClassTransformer {
+    private static final String BLOCK_CLASS_NAME = "net.minecraft.block.Block";
+    private static final String GET_LIGHT_VALUE_METHOD_NAME = "getLightValue";
+    private static final String GET_LIGHT_OPACITY_METHOD_NAME = "getLightOpacity";
+    private static final String POSITIONAL_METHOD_DESC = "(Lnet/minecraft/world/IBlockAccess;III)I";
+
+    private static final Set<String> POSITIONAL_CLASSES = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public String owner() {
+        return Tags.MOD_NAME;
+    }
+
+    @Override
+    public String name() {
+        return "BlockLightPropertyScanner";
+    }
+
+    @Override
+    public boolean shouldTransformClass(@NotNull String className, @NotNull ClassNodeHandle classNode) {
+        return !className.startsWith("com.falsepattern.lumi");
+    }
+
+    @Override
+    public boolean transformClass(@NotNull String className, @NotNull ClassNodeHandle classNode) {
+        val cn = classNode.getNode();
+        if (cn == null || BLOCK_CLASS_NAME.equals(className))
+            return false;
+
+        for (val method : cn.methods) {
+            if (!POSITIONAL_METHOD_DESC.equals(method.desc))
+                continue;
+            if (GET_LIGHT_VALUE_METHOD_NAME.equals(method.name) || GET_LIGHT_OPACITY_METHOD_NAME.equals(method.name)) {
+                POSITIONAL_CLASSES.add(className);
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param blockClass A subclass of {@code Block}
+     *
+     * @return {@code true} if the light value or opacity of this block class may depend on its position
+     */
+    public static boolean hasPositionalLightProperties(@NotNull Class<?> blockClass) {
+        for (Class<?> clazz = blockClass; clazz != null; clazz = clazz.getSuperclass()) {
+            val className = clazz.getName();
+            if (BLOCK_CLASS_NAME.equals(className))
+                return false;
+            // Classes excluded from transformation are loaded by the parent class loader, and were never scanned
+            if (clazz.getClassLoader() != Launch.classLoader)
+                return true;
+            if (POSITIONAL_CLASSES.contains(className))
+                return true;
+        }
+        return true;
+    }
+}
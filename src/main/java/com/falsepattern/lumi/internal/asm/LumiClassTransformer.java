@@ -29,6 +29,6 @@ import java.util.Arrays;
 
 public class LumiClassTransformer extends MergeableTurboTransformer {
     public LumiClassTransformer() {
-        super(Arrays.asList(new PhosphorDataInjector()));
+        super(Arrays.asList(new PhosphorDataInjector(), new BlockLightPropertyScanner()));
     }
 }
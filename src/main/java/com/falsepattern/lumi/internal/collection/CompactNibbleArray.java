@@ -0,0 +1,168 @@
+/*
+ * Lumi
+ *
+ * Copyright (C) 2023-2025 FalsePattern, Ven
+ * All Rights Reserved
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, only version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.falsepattern.lumi.internal.collection;
+
+import lombok.val;
+import lombok.var;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Immutable, compact stand-in for a 16x16x16 nibble array holding at most 4 distinct values.
+ * <p>
+ * Uniform arrays store no data and are shared, others store a palette index of 1 or 2 bits per entry.
+ * Any write must replace the compact array with a regular one, see {@link #toNibbleData()}.
+ * <p>
+ * Entries are indexed the same as in a {@link net.minecraft.world.chunk.NibbleArray}: [y(4)] [z(4)] [x(4)].
+ */
+public final class CompactNibbleArray {
+    private static final int ENTRY_COUNT = 4096;
+    private static final int NIBBLE_DATA_SIZE = ENTRY_COUNT / 2;
+    private static final int MAX_PALETTE_SIZE = 4;
+
+    private static final CompactNibbleArray[] UNIFORM = new CompactNibbleArray[16];
+
+    static {
+        for (var value = 0; value < UNIFORM.length; value++)
+            UNIFORM[value] = new CompactNibbleArray(new byte[]{(byte) value}, 0, null, value == 0 ? 0 : ENTRY_COUNT);
+    }
+
+    private final byte[] palette;
+    private final int bitsPerEntry;
+    private final long @Nullable [] data;
+    private final int nonZeroCount;
+
+    private CompactNibbleArray(byte[] palette, int bitsPerEntry, long @Nullable [] data, int nonZeroCount) {
+        this.palette = palette;
+        this.bitsPerEntry = bitsPerEntry;
+        this.data = data;
+        this.nonZeroCount = nonZeroCount;
+    }
+
+    @Contract(pure = true)
+    public static @NotNull CompactNibbleArray uniform(int value) {
+        return UNIFORM[value & 0xF];
+    }
+
+    /**
+     * @param nibbleData the 2048 bytes of a nibble array
+     *
+     * @return a compact copy of the given data, or {@code null} if it holds too many distinct values
+     */
+    public static @Nullable CompactNibbleArray compact(byte @NotNull [] nibbleData) {
+        var presentValues = 0;
+        for (var i = 0; i < NIBBLE_DATA_SIZE; i++) {
+            val nibbles = nibbleData[i];
+            presentValues |= 1 << (nibbles & 0xF) | 1 << (nibbles >> 4 & 0xF);
+        }
+
+        val paletteSize = Integer.bitCount(presentValues);
+        if (paletteSize > MAX_PALETTE_SIZE)
+            return null;
+        if (paletteSize == 1)
+            return uniform(Integer.numberOfTrailingZeros(presentValues));
+
+        val palette = new byte[paletteSize];
+        val paletteIndices = new int[16];
+        var paletteIndex = 0;
+        for (var value = 0; value < 16; value++) {
+            if ((presentValues & 1 << value) == 0)
+                continue;
+            palette[paletteIndex] = (byte) value;
+            paletteIndices[value] = paletteIndex++;
+        }
+
+        val bitsPerEntry = paletteSize == 2 ? 1 : 2;
+        val data = new long[ENTRY_COUNT * bitsPerEntry / Long.SIZE];
+        var nonZeroCount = 0;
+        for (var i = 0; i < ENTRY_COUNT; i++) {
+            val value = nibbleData[i >> 1] >> ((i & 1) << 2) & 0xF;
+            val bitIndex = i * bitsPerEntry;
+            data[bitIndex >> 6] |= (long) paletteIndices[value] << (bitIndex & 63);
+            if (value != 0)
+                nonZeroCount++;
+        }
+        return new CompactNibbleArray(palette, bitsPerEntry, data, nonZeroCount);
+    }
+
+    /**
+     * @return {@code true} if every entry is zero
+     */
+    public boolean isZero() {
+        return data == null && palette[0] == 0;
+    }
+
+    /**
+     * @return {@code true} if every entry holds the same value
+     */
+    public boolean isUniform() {
+        return data == null;
+    }
+
+    /**
+     * @return the number of non-zero entries
+     */
+    public int nonZeroCount() {
+        return nonZeroCount;
+    }
+
+    public int get(int subChunkPosX, int subChunkPosY, int subChunkPosZ) {
+        if (data == null)
+            return palette[0];
+
+        val index = (subChunkPosY & 15) << 8 | (subChunkPosZ & 15) << 4 | (subChunkPosX & 15);
+        val bitIndex = index * bitsPerEntry;
+        val paletteIndex = (int) (data[bitIndex >> 6] >>> (bitIndex & 63)) & ((1 << bitsPerEntry) - 1);
+        return palette[paletteIndex];
+    }
+
+    /**
+     * @return a new array with the 2048 bytes of the equivalent nibble array
+     */
+    public byte @NotNull [] toNibbleData() {
+        val nibbleData = new byte[NIBBLE_DATA_SIZE];
+        writeNibbleData(nibbleData);
+        return nibbleData;
+    }
+
+    public void writeNibbleData(byte @NotNull [] nibbleData) {
+        if (data == null) {
+            val value = palette[0];
+            val nibbles = (byte) (value | value << 4);
+            for (var i = 0; i < NIBBLE_DATA_SIZE; i++)
+                nibbleData[i] = nibbles;
+            return;
+        }
+
+        val mask = (1 << bitsPerEntry) - 1;
+        for (var i = 0; i < NIBBLE_DATA_SIZE; i++) {
+            val lowBitIndex = (i << 1) * bitsPerEntry;
+            val highBitIndex = lowBitIndex + bitsPerEntry;
+            val low = palette[(int) (data[lowBitIndex >> 6] >>> (lowBitIndex & 63)) & mask];
+            val high = palette[(int) (data[highBitIndex >> 6] >>> (highBitIndex & 63)) & mask];
+            nibbleData[i] = (byte) (low | high << 4);
+        }
+    }
+}
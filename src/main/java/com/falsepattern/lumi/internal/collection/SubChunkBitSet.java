@@ -0,0 +1,122 @@
+/*
+ * Lumi
+ *
+ * Copyright (C) 2023-2025 FalsePattern, Ven
+ * All Rights Reserved
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, only version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.falsepattern.lumi.internal.collection;
+
+import lombok.val;
+import lombok.var;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * One bit for each of the 4096 positions in a sub chunk, indexed as [y(4)] [z(4)] [x(4)].
+ * <p>
+ * Sets with no bits or all bits set do not allocate any storage, so the summary checks are free.
+ */
+public final class SubChunkBitSet {
+    public static final int SIZE = 4096;
+
+    private static final int WORD_COUNT = SIZE / Long.SIZE;
+
+    private long @Nullable [] words;
+    private int count;
+
+    public static int index(int subChunkPosX, int subChunkPosY, int subChunkPosZ) {
+        return (subChunkPosY & 15) << 8 | (subChunkPosZ & 15) << 4 | (subChunkPosX & 15);
+    }
+
+    public boolean get(int index) {
+        if (words == null)
+            return count != 0;
+        return (words[index >> 6] & 1L << index) != 0;
+    }
+
+    public void set(int index, boolean value) {
+        if (words == null) {
+            if (value == (count != 0))
+                return;
+            inflate();
+        }
+
+        val word = words[index >> 6];
+        val bit = 1L << index;
+        if (value == ((word & bit) != 0))
+            return;
+
+        if (value) {
+            words[index >> 6] = word | bit;
+            count++;
+        } else {
+            words[index >> 6] = word & ~bit;
+            count--;
+        }
+
+        if (count == 0 || count == SIZE)
+            words = null;
+    }
+
+    public void clear() {
+        words = null;
+        count = 0;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public boolean isFull() {
+        return count == SIZE;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * @return the first set index at or after {@code fromIndex}, or {@code -1} if there is none
+     */
+    public int nextSetIndex(int fromIndex) {
+        if (fromIndex >= SIZE || count == 0)
+            return -1;
+        if (words == null)
+            return fromIndex;
+
+        var wordIndex = fromIndex >> 6;
+        var word = words[wordIndex] & -1L << fromIndex;
+        while (true) {
+            if (word != 0)
+                return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+            if (++wordIndex == WORD_COUNT)
+                return -1;
+            word = words[wordIndex];
+        }
+    }
+
+    private void inflate() {
+        val words = new long[WORD_COUNT];
+        if (count != 0)
+            Arrays.fill(words, -1L);
+        this.words = words;
+    }
+}
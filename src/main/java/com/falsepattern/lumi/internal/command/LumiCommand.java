@@ -0,0 +1,216 @@
+/*
+ * Lumi
+ *
+ * Copyright (C) 2023-2025 FalsePattern, Ven
+ * All Rights Reserved
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, only version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.falsepattern.lumi.internal.command;
+
+import com.falsepattern.lumi.internal.lighting.phosphor.LightingTraceRecorder;
+import com.falsepattern.lumi.internal.lighting.phosphor.PhosphorLightingEngine;
+import com.falsepattern.lumi.internal.lighting.phosphor.PhosphorLightingMetrics;
+import lombok.val;
+import lombok.var;
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.command.WrongUsageException;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.ChatComponentText;
+import net.minecraftforge.common.DimensionManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static com.falsepattern.lumi.internal.lighting.phosphor.PhosphorLightingMetrics.histogramPercentileMicros;
+import static com.falsepattern.lumi.internal.world.WorldProviderManager.worldProviderManager;
+
+public final class LumiCommand extends CommandBase {
+    @Override
+    public String getCommandName() {
+        return "lumi";
+    }
+
+    @Override
+    public String getCommandUsage(ICommandSender sender) {
+        return "/lumi <stats [reset]|trace <start|stop>>";
+    }
+
+    @Override
+    public int getRequiredPermissionLevel() {
+        return 2;
+    }
+
+    @Override
+    public void processCommand(ICommandSender sender, String[] args) {
+        if (args.length == 0)
+            throw new WrongUsageException(getCommandUsage(sender));
+
+        switch (args[0]) {
+            case "stats":
+                processStats(sender, args);
+                break;
+            case "trace":
+                if (args.length < 2)
+                    throw new WrongUsageException(getCommandUsage(sender));
+                if ("start".equals(args[1])) {
+                    startTraces(sender);
+                } else if ("stop".equals(args[1])) {
+                    stopTraces(sender);
+                } else {
+                    throw new WrongUsageException(getCommandUsage(sender));
+                }
+                break;
+            default:
+                throw new WrongUsageException(getCommandUsage(sender));
+        }
+    }
+
+    private static void processStats(ICommandSender sender, String[] args) {
+        val isReset = args.length > 1 && "reset".equals(args[1]);
+        for (val worldBase : DimensionManager.getWorlds()) {
+            val lumiWorldsFromBaseWorld = worldProviderManager().lumiWorldsFromBaseWorld(worldBase);
+            for (var i = 0; i < lumiWorldsFromBaseWorld.length; i++) {
+                val world = lumiWorldsFromBaseWorld[i];
+                val lightingEngine = world.lumi$lightingEngine();
+                if (!(lightingEngine instanceof PhosphorLightingEngine))
+                    continue;
+
+                val metrics = ((PhosphorLightingEngine) lightingEngine).metrics();
+                if (isReset) {
+                    metrics.reset();
+                    continue;
+                }
+                sendStats(sender, "DIM" + worldBase.provider.dimensionId + " " + world.lumi$worldID(), metrics);
+            }
+        }
+        if (isReset)
+            sender.addChatMessage(new ChatComponentText("Lighting stats reset"));
+    }
+
+    private static void startTraces(ICommandSender sender) {
+        val traceDir = MinecraftServer.getServer().getFile("lumi_traces");
+        if (!traceDir.isDirectory() && !traceDir.mkdirs())
+            throw new CommandException("Could not create " + traceDir);
+
+        val timestamp = System.currentTimeMillis();
+        for (val worldBase : DimensionManager.getWorlds()) {
+            val lumiWorldsFromBaseWorld = worldProviderManager().lumiWorldsFromBaseWorld(worldBase);
+            for (var i = 0; i < lumiWorldsFromBaseWorld.length; i++) {
+                val world = lumiWorldsFromBaseWorld[i];
+                val lightingEngine = world.lumi$lightingEngine();
+                if (!(lightingEngine instanceof PhosphorLightingEngine))
+                    continue;
+
+                val phosphorLightingEngine = (PhosphorLightingEngine) lightingEngine;
+                // Finish any previous trace first, so it is not left open
+                phosphorLightingEngine.stopTrace();
+
+                val worldName = "DIM" + worldBase.provider.dimensionId + "_" + world.lumi$worldID();
+                val traceFile = new File(traceDir, worldName + "_" + timestamp + ".lumitrace");
+                final LightingTraceRecorder traceRecorder;
+                try {
+                    traceRecorder = LightingTraceRecorder.open(world, traceFile);
+                } catch (IOException e) {
+                    throw new CommandException("Could not create " + traceFile + ": " + e.getMessage());
+                }
+                phosphorLightingEngine.startTrace(traceRecorder);
+                sender.addChatMessage(new ChatComponentText("Recording lighting trace to " + traceFile));
+            }
+        }
+    }
+
+    private static void stopTraces(ICommandSender sender) {
+        var traceCount = 0;
+        for (val worldBase : DimensionManager.getWorlds()) {
+            val lumiWorldsFromBaseWorld = worldProviderManager().lumiWorldsFromBaseWorld(worldBase);
+            for (var i = 0; i < lumiWorldsFromBaseWorld.length; i++) {
+                val lightingEngine = lumiWorldsFromBaseWorld[i].lumi$lightingEngine();
+                if (!(lightingEngine instanceof PhosphorLightingEngine))
+                    continue;
+
+                val traceRecorder = ((PhosphorLightingEngine) lightingEngine).stopTrace();
+                if (traceRecorder == null)
+                    continue;
+                if (traceRecorder.isFailed()) {
+                    sender.addChatMessage(new ChatComponentText("Failed to save lighting trace to " +
+                                                                traceRecorder.file() +
+                                                                ", see the log for details"));
+                } else {
+                    sender.addChatMessage(new ChatComponentText("Saved lighting trace to " + traceRecorder.file()));
+                }
+                traceCount++;
+            }
+        }
+        if (traceCount == 0)
+            sender.addChatMessage(new ChatComponentText("No lighting traces are being recorded"));
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public List addTabCompletionOptions(ICommandSender sender, String[] args) {
+        if (args.length == 1)
+            return getListOfStringsMatchingLastWord(args, "stats", "trace");
+        if (args.length == 2) {
+            if ("stats".equals(args[0]))
+                return getListOfStringsMatchingLastWord(args, "reset");
+            if ("trace".equals(args[0]))
+                return getListOfStringsMatchingLastWord(args, "start", "stop");
+        }
+        return null;
+    }
+
+    private static void sendStats(ICommandSender sender, String worldName, PhosphorLightingMetrics metrics) {
+        val chunkLookups = metrics.getChunkLookups();
+        val chunkLookupMissPercent = chunkLookups == 0 ? 0D : 100D * metrics.getChunkLookupMisses() / chunkLookups;
+        sender.addChatMessage(new ChatComponentText(String.format(
+                "[%s] updates: %d scheduled, %d unique, %d forced flushes; passes: %d, %d paused",
+                worldName,
+                metrics.getScheduledLightingUpdates(),
+                metrics.getUniqueLightingUpdates(),
+                metrics.getForcedFlushes(),
+                metrics.getPasses(),
+                metrics.getPausedPasses())));
+        sender.addChatMessage(new ChatComponentText(String.format(
+                "  p50/p99 us: checking %d/%d, darkening %d/%d, brightening %d/%d; chunk lookups: %d, %.1f%% misses",
+                histogramPercentileMicros(metrics.getCheckingMicrosHistogram(), 0.5D),
+                histogramPercentileMicros(metrics.getCheckingMicrosHistogram(), 0.99D),
+                histogramPercentileMicros(metrics.getDarkeningMicrosHistogram(), 0.5D),
+                histogramPercentileMicros(metrics.getDarkeningMicrosHistogram(), 0.99D),
+                histogramPercentileMicros(metrics.getBrighteningMicrosHistogram(), 0.5D),
+                histogramPercentileMicros(metrics.getBrighteningMicrosHistogram(), 0.99D),
+                chunkLookups,
+                chunkLookupMissPercent)));
+        sender.addChatMessage(new ChatComponentText("  peak darkening queues: " + peakQueueSizes(metrics.getPeakDarkeningQueueSizes())));
+        sender.addChatMessage(new ChatComponentText("  peak brightening queues: " + peakQueueSizes(metrics.getPeakBrighteningQueueSizes())));
+    }
+
+    private static String peakQueueSizes(int[] peakQueueSizes) {
+        // Brightest first, matching the processing order
+        val sb = new StringBuilder();
+        for (var i = peakQueueSizes.length - 1; i >= 0; i--) {
+            if (sb.length() > 0)
+                sb.append(' ');
+            sb.append(peakQueueSizes[i]);
+        }
+        return sb.toString();
+    }
+}
@@ -48,12 +48,34 @@ public final class LumiConfig {
     @Config.DefaultBoolean(false)
     public static boolean DO_RANDOM_LIGHT_UPDATES;
 
-    @Config.Comment("Increases the lighting engine internal buffer sizes from 256kB to 4MB per serverside world. Uses more ram, but improves worldgen speed.\n" +
-                    "Not recommended on 4GB heap or smaller.")
-    @Config.LangKey("config.lumi.enoughRam")
+    @Config.Comment("Process serverside lighting updates on a dedicated thread per world, in between server ticks.\n" +
+                    "Light values read during a tick reflect the state at the start of that tick. Always uses locks.")
+    @Config.LangKey("config.lumi.asyncLighting")
     @Config.DefaultBoolean(false)
-    @Config.RequiresMcRestart
-    public static boolean I_HAVE_ENOUGH_RAM;
+    @Config.RequiresWorldRestart
+    public static boolean ENABLE_ASYNC_LIGHTING;
+
+    @Config.Comment("Split large serverside lighting updates, such as from world generation, by region and process them on all CPU cores.\n" +
+                    "Light spreading across region edges is finished on the world thread afterwards.")
+    @Config.LangKey("config.lumi.parallelLighting")
+    @Config.DefaultBoolean(false)
+    @Config.RequiresWorldRestart
+    public static boolean ENABLE_PARALLEL_LIGHTING;
+
+    @Config.Comment("Time budget in microseconds for serverside lighting updates at the end of each server tick, 0 to disable.\n" +
+                    "Unfinished updates are paused and resumed on the next tick, using any time left over in that tick first.\n" +
+                    "Reading light in an area with paused updates finishes them right away. Not used with async lighting.")
+    @Config.LangKey("config.lumi.lightingTimeBudget")
+    @Config.DefaultInt(0)
+    @Config.RangeInt(min = 0, max = 50_000)
+    public static int LIGHTING_TIME_BUDGET_MICROS;
+
+    @Config.Comment("Drop the block storage of sub chunks that only hold light, such as lit air above the terrain.\n" +
+                    "The block storage is allocated again once a block is placed there, or when another mod asks for it.\n" +
+                    "Experimental, mods accessing the block arrays of sub chunks without going through their getters will crash.")
+    @Config.LangKey("config.lumi.lightOnlySubChunks")
+    @Config.DefaultBoolean(false)
+    public static boolean ENABLE_LIGHT_ONLY_SUB_CHUNKS;
 
     static {
         ConfigurationManager.selfInit();
@@ -0,0 +1,422 @@
+/*
+ * Lumi
+ *
+ * Copyright (C) 2023-2025 FalsePattern, Ven
+ * All Rights Reserved
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, only version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.falsepattern.lumi.internal.lighting.phosphor;
+
+import com.falsepattern.lumi.api.chunk.LumiChunk;
+import com.falsepattern.lumi.api.lighting.LightType;
+import com.falsepattern.lumi.api.world.LumiWorld;
+import com.falsepattern.lumi.internal.collection.PosHashSet;
+import lombok.val;
+import lombok.var;
+import net.minecraft.world.ChunkCoordIntPair;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+import static com.falsepattern.lumi.internal.Lumi.createLogger;
+
+/**
+ * Records the calls made to a {@link PhosphorLightingEngine} into a compact binary trace,
+ * which can be replayed against any lighting engine outside of the game.
+ * <p>
+ * The block and light state of a chunk is recorded the first time the engine touches it,
+ * every later block change is recorded along with the update it schedules.
+ * Closing the recorder flushes all queued updates and appends the final light values of every recorded chunk.
+ * <p>
+ * Layout: [magic(int)] [version(short)] [hasSky(boolean)] [records...] [{@link #OP_END}],
+ * where each record starts with its op code byte.
+ */
+public final class LightingTraceRecorder {
+    private static final Logger LOG = createLogger("Trace");
+
+    public static final int MAGIC = 0x4C554D54;
+    public static final int VERSION = 1;
+
+    public static final int OP_END = 0;
+    /**
+     * [chunkX(int)] [chunkZ(int)] [lightingInitialized(boolean)] [minSkyLightHeight(int)] [queuedRandomLightUpdates(int)]
+     * [skyLightHeightMap(256 ints)] [outdatedHeights(256 booleans)] [lightCheckFlagsLength(int)] [lightCheckFlags(shorts)]
+     * [subChunkMask(short)], followed by [blocks(4096)] [blockLight(2048)] [skyLight(2048)] for each sub chunk in the mask
+     */
+    public static final int OP_CHUNK = 1;
+    /**
+     * [chunkX(int)] [chunkZ(int)]
+     */
+    public static final int OP_CHUNK_INIT = 2;
+    /**
+     * [chunkX(int)] [chunkZ(int)]
+     */
+    public static final int OP_CHUNK_LOAD = 3;
+    /**
+     * [chunkX(int)] [chunkZ(int)]
+     */
+    public static final int OP_IS_CHUNK_FULLY_LIT = 4;
+    /**
+     * [chunkX(int)] [chunkZ(int)]
+     */
+    public static final int OP_RANDOM_UPDATES = 5;
+    /**
+     * [x(int)] [y(int)] [z(int)] [block(byte)]
+     */
+    public static final int OP_UPDATE_FOR_BLOCK = 6;
+    /**
+     * [lightType(byte)] [x(int)] [y(int)] [z(int)] [block(byte)]
+     */
+    public static final int OP_SCHEDULE = 7;
+    /**
+     * [lightType(byte)] [minX(int)] [minY(int)] [minZ(int)] [maxX(int)] [maxY(int)] [maxZ(int)]
+     */
+    public static final int OP_SCHEDULE_RANGE = 8;
+    /**
+     * [lightType(byte)] [x(int)] [z(int)] [minY(int)] [maxY(int)]
+     */
+    public static final int OP_SCHEDULE_COLUMN = 9;
+    /**
+     * [lightType(byte)], either a light type or {@link #ALL_LIGHT_TYPES}
+     */
+    public static final int OP_FLUSH = 10;
+    /**
+     * [chunkX(int)] [chunkZ(int)] [blockLight(32768)] [skyLight(32768)], as read by {@link #traceLightValue}
+     */
+    public static final int OP_RESULT = 11;
+
+    public static final int BLOCK_LIGHT = 0;
+    public static final int SKY_LIGHT = 1;
+    public static final int ALL_LIGHT_TYPES = 2;
+
+    private final LumiWorld world;
+    private final File file;
+    private final DataOutputStream output;
+    /**
+     * Layout of longs: [chunkZ(32)] [chunkX(32)]
+     */
+    private final PosHashSet recordedChunks = new PosHashSet();
+    private boolean isFailed;
+
+    private LightingTraceRecorder(LumiWorld world, File file, DataOutputStream output) {
+        this.world = world;
+        this.file = file;
+        this.output = output;
+    }
+
+    public static @NotNull LightingTraceRecorder open(@NotNull LumiWorld world, @NotNull File file) throws IOException {
+        val parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs())
+            throw new IOException("Could not create directory " + parent);
+
+        val output = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(file))));
+        output.writeInt(MAGIC);
+        output.writeShort(VERSION);
+        output.writeBoolean(world.lumi$root().lumi$hasSky());
+        return new LightingTraceRecorder(world, file, output);
+    }
+
+    public @NotNull File file() {
+        return file;
+    }
+
+    /**
+     * The value compared when verifying a replay: the stored light value,
+     * or the implicit full sky light for positions that can see the sky.
+     */
+    public static int traceLightValue(@NotNull LumiChunk chunk, int lightType, int subChunkPosX, int posY, int subChunkPosZ) {
+        if (lightType == BLOCK_LIGHT)
+            return chunk.lumi$getBlockLightValue(subChunkPosX, posY, subChunkPosZ);
+        if (!chunk.lumi$world().lumi$root().lumi$hasSky())
+            return 0;
+        if (chunk.lumi$canBlockSeeSky(subChunkPosX, posY, subChunkPosZ))
+            return 15;
+        val subChunk = chunk.lumi$getSubChunkIfPrepared(posY >> 4);
+        return subChunk == null ? 0 : subChunk.lumi$getSkyLightValue(subChunkPosX, posY & 15, subChunkPosZ);
+    }
+
+    public static int lightTypeID(@NotNull LightType lightType) {
+        return lightType.isBlock() ? BLOCK_LIGHT : SKY_LIGHT;
+    }
+
+    public synchronized void recordChunk(@NotNull LumiChunk chunk) {
+        val chunkPosX = chunk.lumi$chunkPosX();
+        val chunkPosZ = chunk.lumi$chunkPosZ();
+        if (isFailed || !recordedChunks.add(ChunkCoordIntPair.chunkXZ2Int(chunkPosX, chunkPosZ)))
+            return;
+
+        try {
+            output.writeByte(OP_CHUNK);
+            output.writeInt(chunkPosX);
+            output.writeInt(chunkPosZ);
+            output.writeBoolean(chunk.lumi$isLightingInitialized());
+            output.writeInt(chunk.lumi$minSkyLightHeight());
+            output.writeInt(chunk.lumi$queuedRandomLightUpdates());
+            for (val skyLightHeight : chunk.lumi$skyLightHeightMap())
+                output.writeInt(skyLightHeight);
+            for (var subChunkPosZ = 0; subChunkPosZ < 16; subChunkPosZ++) {
+                for (var subChunkPosX = 0; subChunkPosX < 16; subChunkPosX++)
+                    output.writeBoolean(chunk.lumi$isHeightOutdated(subChunkPosX, subChunkPosZ));
+            }
+            if (chunk instanceof PhosphorChunk) {
+                val lightCheckFlags = ((PhosphorChunk) chunk).phosphor$lightCheckFlags();
+                output.writeInt(lightCheckFlags.length);
+                for (val lightCheckFlag : lightCheckFlags)
+                    output.writeShort(lightCheckFlag);
+            } else {
+                output.writeInt(0);
+            }
+
+            var subChunkMask = 0;
+            for (var chunkPosY = 0; chunkPosY < 16; chunkPosY++) {
+                if (chunk.lumi$getSubChunkIfPrepared(chunkPosY) != null)
+                    subChunkMask |= 1 << chunkPosY;
+            }
+            output.writeShort(subChunkMask);
+
+            val blocks = new byte[4096];
+            val blockLight = new byte[2048];
+            val skyLight = new byte[2048];
+            for (var chunkPosY = 0; chunkPosY < 16; chunkPosY++) {
+                val subChunk = chunk.lumi$getSubChunkIfPrepared(chunkPosY);
+                if (subChunk == null)
+                    continue;
+
+                for (var index = 0; index < 4096; index++) {
+                    val subChunkPosX = index & 15;
+                    val subChunkPosY = index >> 8;
+                    val subChunkPosZ = (index >> 4) & 15;
+                    val posY = (chunkPosY << 4) + subChunkPosY;
+                    blocks[index] = block(chunk, subChunkPosX, posY, subChunkPosZ);
+                    setNibble(blockLight, index, subChunk.lumi$getBlockLightValue(subChunkPosX, subChunkPosY, subChunkPosZ));
+                    setNibble(skyLight, index, subChunk.lumi$getSkyLightValue(subChunkPosX, subChunkPosY, subChunkPosZ));
+                }
+                output.write(blocks);
+                output.write(blockLight);
+                output.write(skyLight);
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Records every loaded chunk within the radius, as chunk initialization and loading read their neighbours directly.
+     */
+    public void recordChunks(int centerChunkPosX, int centerChunkPosZ, int radius) {
+        for (var chunkPosX = centerChunkPosX - radius; chunkPosX <= centerChunkPosX + radius; chunkPosX++) {
+            for (var chunkPosZ = centerChunkPosZ - radius; chunkPosZ <= centerChunkPosZ + radius; chunkPosZ++) {
+                val chunk = world.lumi$getChunkFromChunkPosIfExists(chunkPosX, chunkPosZ);
+                if (chunk != null)
+                    recordChunk(chunk);
+            }
+        }
+    }
+
+    public synchronized void recordChunkOp(int op, @NotNull LumiChunk chunk) {
+        if (isFailed)
+            return;
+        try {
+            output.writeByte(op);
+            output.writeInt(chunk.lumi$chunkPosX());
+            output.writeInt(chunk.lumi$chunkPosZ());
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    public synchronized void recordUpdateLightingForBlock(int posX, int posY, int posZ) {
+        if (isFailed)
+            return;
+        val chunk = recordChunkAt(posX, posZ);
+        try {
+            output.writeByte(OP_UPDATE_FOR_BLOCK);
+            output.writeInt(posX);
+            output.writeInt(posY);
+            output.writeInt(posZ);
+            output.writeByte(block(chunk, posX & 15, posY, posZ & 15));
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    public synchronized void recordSchedule(@NotNull LightType lightType, int posX, int posY, int posZ) {
+        if (isFailed)
+            return;
+        val chunk = recordChunkAt(posX, posZ);
+        try {
+            output.writeByte(OP_SCHEDULE);
+            output.writeByte(lightTypeID(lightType));
+            output.writeInt(posX);
+            output.writeInt(posY);
+            output.writeInt(posZ);
+            output.writeByte(block(chunk, posX & 15, posY, posZ & 15));
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    public synchronized void recordScheduleRange(@NotNull LightType lightType,
+                                                 int minPosX,
+                                                 int minPosY,
+                                                 int minPosZ,
+                                                 int maxPosX,
+                                                 int maxPosY,
+                                                 int maxPosZ) {
+        if (isFailed)
+            return;
+        try {
+            output.writeByte(OP_SCHEDULE_RANGE);
+            output.writeByte(lightTypeID(lightType));
+            output.writeInt(minPosX);
+            output.writeInt(minPosY);
+            output.writeInt(minPosZ);
+            output.writeInt(maxPosX);
+            output.writeInt(maxPosY);
+            output.writeInt(maxPosZ);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    public synchronized void recordScheduleColumn(@NotNull LightType lightType, int posX, int posZ, int minPosY, int maxPosY) {
+        if (isFailed)
+            return;
+        try {
+            output.writeByte(OP_SCHEDULE_COLUMN);
+            output.writeByte(lightTypeID(lightType));
+            output.writeInt(posX);
+            output.writeInt(posZ);
+            output.writeInt(minPosY);
+            output.writeInt(maxPosY);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * @param lightType {@code null} for all light types
+     */
+    public synchronized void recordFlush(@Nullable LightType lightType) {
+        if (isFailed)
+            return;
+        try {
+            output.writeByte(OP_FLUSH);
+            output.writeByte(lightType == null ? ALL_LIGHT_TYPES : lightTypeID(lightType));
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Appends the final light values of every recorded chunk that is still loaded, and closes the trace.
+     * <p>
+     * All queued updates must have been processed beforehand.
+     *
+     * @return {@code false} if writing the trace failed at any point
+     */
+    public synchronized boolean close() {
+        if (!isFailed) {
+            try {
+                val blockLight = new byte[32768];
+                val skyLight = new byte[32768];
+                val iterator = recordedChunks.iterator();
+                while (iterator.hasNext()) {
+                    val chunkKey = iterator.next();
+                    val chunkPosX = (int) chunkKey;
+                    val chunkPosZ = (int) (chunkKey >> 32);
+                    val chunk = world.lumi$getChunkFromChunkPosIfExists(chunkPosX, chunkPosZ);
+                    if (chunk == null)
+                        continue;
+
+                    for (var index = 0; index < 65536; index++) {
+                        val subChunkPosX = index & 15;
+                        val posY = index >> 8;
+                        val subChunkPosZ = (index >> 4) & 15;
+                        setNibble(blockLight, index, traceLightValue(chunk, BLOCK_LIGHT, subChunkPosX, posY, subChunkPosZ));
+                        setNibble(skyLight, index, traceLightValue(chunk, SKY_LIGHT, subChunkPosX, posY, subChunkPosZ));
+                    }
+                    output.writeByte(OP_RESULT);
+                    output.writeInt(chunkPosX);
+                    output.writeInt(chunkPosZ);
+                    output.write(blockLight);
+                    output.write(skyLight);
+                }
+                output.writeByte(OP_END);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        try {
+            output.close();
+        } catch (IOException e) {
+            fail(e);
+        }
+        return !isFailed;
+    }
+
+    /**
+     * @return {@code true} if writing the trace failed at any point, in which case it is incomplete
+     */
+    public synchronized boolean isFailed() {
+        return isFailed;
+    }
+
+    private @Nullable LumiChunk recordChunkAt(int posX, int posZ) {
+        val chunk = world.lumi$getChunkFromChunkPosIfExists(posX >> 4, posZ >> 4);
+        if (chunk != null)
+            recordChunk(chunk);
+        return chunk;
+    }
+
+    /**
+     * Light properties of a block as read by the engine, layout: [opacity(4)] [brightness(4)]
+     */
+    private static byte block(@Nullable LumiChunk chunk, int subChunkPosX, int posY, int subChunkPosZ) {
+        if (chunk == null || posY < 0 || posY > 255)
+            return 0;
+        val opacity = PhosphorUtil.clampLightValue(chunk.lumi$getBlockOpacity(subChunkPosX, posY, subChunkPosZ));
+        val brightness = PhosphorUtil.clampLightValue(chunk.lumi$getBlockBrightness(subChunkPosX, posY, subChunkPosZ));
+        return (byte) (opacity << 4 | brightness);
+    }
+
+    private static void setNibble(byte[] data, int index, int value) {
+        val byteIndex = index >> 1;
+        if ((index & 1) == 0) {
+            data[byteIndex] = (byte) (data[byteIndex] & 0xF0 | value & 15);
+        } else {
+            data[byteIndex] = (byte) (data[byteIndex] & 0x0F | (value & 15) << 4);
+        }
+    }
+
+    private void fail(IOException e) {
+        if (isFailed)
+            return;
+        isFailed = true;
+        LOG.error("Failed to write lighting trace {}, recording stopped", file, e);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Lumi
+ *
+ * Copyright (C) 2023-2025 FalsePattern, Ven
+ * All Rights Reserved
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, only version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.falsepattern.lumi.internal.lighting.phosphor;
+
+/**
+ * What caused the lighting updates of a {@link PhosphorLightingEngine} to be processed, as recorded by {@link PhosphorLightingEvents}.
+ */
+public enum LightingTrigger {
+    /**
+     * Called through the lighting engine API, usually by another mod or chunk lighting initialization.
+     */
+    API,
+    /**
+     * Light was read from the world.
+     */
+    READ,
+    /**
+     * The update queue was full while scheduling more updates.
+     */
+    FORCED,
+    /**
+     * A chunk or the whole world is being saved.
+     */
+    SAVE,
+    /**
+     * Chunks are being unloaded.
+     */
+    UNLOAD,
+    /**
+     * A chunk was loaded next to chunks it needs to be relit with.
+     */
+    CHUNK_LOAD,
+    /**
+     * A chunk is being written to a packet.
+     */
+    PACKET,
+    /**
+     * The end of a server tick, with a time budget.
+     */
+    TICK,
+    /**
+     * The async lighting thread, in between server ticks.
+     * <p>
+     * Run on the owning thread instead while a trace is being recorded.
+     */
+    ASYNC,
+    /**
+     * A single region of a parallel pass.
+     */
+    REGION,
+    /**
+     * The client game loop.
+     */
+    CLIENT_TICK,
+    /**
+     * The end of a batch of block changes.
+     */
+    BATCH
+}
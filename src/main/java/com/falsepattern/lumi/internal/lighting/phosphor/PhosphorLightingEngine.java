@@ -25,16 +25,24 @@ package com.falsepattern.lumi.internal.lighting.phosphor;
 
 import com.falsepattern.lib.compat.BlockPos;
 import com.falsepattern.lumi.api.chunk.LumiChunk;
+import com.falsepattern.lumi.api.chunk.LumiChunkRoot;
 import com.falsepattern.lumi.api.chunk.LumiSubChunk;
 import com.falsepattern.lumi.api.chunk.LumiSubChunkRoot;
 import com.falsepattern.lumi.api.lighting.LightType;
 import com.falsepattern.lumi.api.lighting.LumiLightingEngine;
 import com.falsepattern.lumi.api.world.LumiWorld;
 import com.falsepattern.lumi.api.world.LumiWorldRoot;
+import com.falsepattern.lumi.internal.collection.PosHashSet;
+import com.falsepattern.lumi.internal.collection.SubChunkBitSet;
 import com.falsepattern.lumi.internal.config.LumiConfig;
+import com.falsepattern.lumi.internal.mixin.interfaces.LumiBlockImpl;
+import com.falsepattern.lumi.internal.mixin.interfaces.LumiSubChunkImpl;
 import cpw.mods.fml.relauncher.SideOnly;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.longs.LongArrayList;
 import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import lombok.val;
 import lombok.var;
 import net.minecraft.block.Block;
@@ -42,6 +50,7 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.init.Blocks;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.profiler.Profiler;
+import net.minecraft.world.ChunkCoordIntPair;
 import net.minecraft.world.chunk.Chunk;
 
 import org.apache.logging.log4j.Logger;
@@ -49,9 +58,25 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+import static com.falsepattern.lumi.api.LumiAPI.unpackBlockPosX;
+import static com.falsepattern.lumi.api.LumiAPI.unpackBlockPosY;
+import static com.falsepattern.lumi.api.LumiAPI.unpackBlockPosZ;
 import static com.falsepattern.lumi.api.chunk.LumiChunk.MAX_QUEUED_RANDOM_LIGHT_UPDATES;
 import static com.falsepattern.lumi.api.lighting.LightType.BLOCK_LIGHT_TYPE;
 import static com.falsepattern.lumi.api.lighting.LightType.SKY_LIGHT_TYPE;
@@ -68,11 +93,83 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
 
     /**
      * Maximum scheduled lighting updates before processing the updates is forced.
+     * <p>
+     * On the server, this starts at the initial value and is adapted between the min and max after every forced pass.
+     */
+    private static final int MIN_SCHEDULED_LIGHT_UPDATES_SERVER = 1 << 12;
+    private static final int INITIAL_SCHEDULED_LIGHT_UPDATES_SERVER = 1 << 14;
+    private static final int MAX_SCHEDULED_LIGHT_UPDATES_SERVER = 1 << 18;
+    private static final int MAX_SCHEDULED_LIGHT_UPDATES_CLIENT = 1 << 10;
+    /**
+     * A forced pass taking longer than this halves the maximum scheduled lighting updates.
+     */
+    private static final long SLOW_FORCED_PASS_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    /**
+     * A forced pass taking less than this doubles the maximum scheduled lighting updates, given enough heap headroom.
+     */
+    private static final long FAST_FORCED_PASS_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    /**
+     * Fraction of the max heap which must be free to grow the maximum scheduled lighting updates.
+     */
+    private static final double GROW_HEAP_HEADROOM = 0.5D;
+    /**
+     * Below this fraction of free max heap, the maximum scheduled lighting updates is halved.
+     */
+    private static final double SHRINK_HEAP_HEADROOM = 0.15D;
+    /**
+     * Minimum amount of queued updates for a pass to count as large, large passes grow the internal queues.
+     */
+    private static final int MIN_LARGE_PASS_LIGHTING_UPDATES = 1 << 12;
+    /**
+     * Time without any large passes after which the internal queues are trimmed back down.
+     */
+    private static final long TRIM_QUEUES_IDLE_NANOS = TimeUnit.SECONDS.toNanos(30);
+    /**
+     * Deadline used by passes which always run to completion.
+     */
+    private static final long NO_DEADLINE = Long.MIN_VALUE;
+    /**
+     * Never a valid packed bounds value, as the padding is always zero.
+     */
+    private static final int NO_RENDER_UPDATE_BOUNDS = -1;
+    private static final int NO_BATCHED_COLUMN = -1;
+    /**
+     * The chunk cache maps an 8x8 chunk area directly, so a pass moving within it never evicts anything.
+     */
+    private static final int CHUNK_CACHE_SIZE_BIT_LENGTH = 3;
+    private static final int CHUNK_CACHE_POS_BIT_MASK = (1 << CHUNK_CACHE_SIZE_BIT_LENGTH) - 1;
+    private static final int CHUNK_CACHE_SIZE = 1 << (CHUNK_CACHE_SIZE_BIT_LENGTH * 2);
+    /**
+     * Never a valid chunk key, as the padding is always zero.
+     */
+    private static final long NO_CACHED_CHUNK = -1L;
+    /**
+     * Radius of the chunks recorded along with a traced chunk call, matching {@link WorldChunkSlice}.
+     */
+    private static final int TRACE_CHUNK_RADIUS = 2;
+    /**
+     * Budgeted passes check the time once every this many processed positions, minus one.
+     */
+    private static final int DEADLINE_CHECK_INTERVAL_MASK = (1 << 6) - 1;
+    /**
+     * Initial capacity of the sets used to deduplicate scheduled lighting updates.
+     */
+    private static final int INITIAL_SCHEDULED_POSITIONS_CAPACITY = 1 << 10;
+    /**
+     * Time in seconds after which an idle async lighting thread is stopped.
+     */
+    private static final int ASYNC_THREAD_KEEP_ALIVE_SECONDS = 30;
+    private static final AtomicInteger ASYNC_THREAD_COUNTER = new AtomicInteger();
+    /**
+     * Minimum amount of queued updates of a single light type before they are propagated in parallel.
+     */
+    private static final int MIN_PARALLEL_LIGHTING_UPDATES = 1 << 12;
+    /**
+     * Size of a parallel propagation region as a bit shift, 4x4 chunks.
      */
-    private static final int MAX_SCHEDULED_BLOCK_LIGHT_UPDATES_SERVER = 1 << (LumiConfig.I_HAVE_ENOUGH_RAM ? 18 : 14);
-    private static final int MAX_SCHEDULED_SKY_LIGHT_UPDATES_SERVER = 1 << (LumiConfig.I_HAVE_ENOUGH_RAM ? 18 : 14);
-    private static final int MAX_SCHEDULED_BLOCK_LIGHT_UPDATES_CLIENT = 1 << 10;
-    private static final int MAX_SCHEDULED_SKY_LIGHT_UPDATES_CLIENT = 1 << 10;
+    private static final int REGION_SIZE_CHUNK_BIT_SHIFT = 2;
+    private static final int REGION_SIZE_CHUNKS = 1 << REGION_SIZE_CHUNK_BIT_SHIFT;
+    private static final int REGION_CHUNK_POS_BIT_MASK = REGION_SIZE_CHUNKS - 1;
 
     /**
      * Bit length of the Z coordinate in a pos long.
@@ -142,6 +239,10 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
      * which is expected when dealing with cursor data, but not when dealing with a simple pos long.
      */
     private static final long POS_OVERFLOW_CHECK_BIT_MASK = 1L << (POS_Y_BIT_SHIFT + POS_Y_BIT_LENGTH);
+    /**
+     * Ranges of this volume or smaller are scheduled as individual positions.
+     */
+    private static final int MAX_EXPANDED_RANGE_VOLUME = 2;
 
     private static final int NEIGHBOUR_COUNT = VALID_DIRECTIONS_SIZE;
 
@@ -164,55 +265,260 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
     private final LumiWorldRoot worldRoot;
     private final boolean isClientSide;
     private final Profiler profiler;
+    /**
+     * The sub chunk block bitmaps are built from the vanilla light properties,
+     * so they can only stand in for the lookups of the root world.
+     */
+    private final boolean useBlockBits;
+
+    /**
+     * When enabled, the queued updates are processed on a dedicated thread in between server ticks.
+     * <p>
+     * Ownership of the engine is handed over through {@link #lock}: the async thread holds it for the whole pass,
+     * and the owning thread waits for the pass to complete at the start of the next tick.
+     */
+    private final boolean isAsync;
+    private final @Nullable ExecutorService asyncExecutor;
+    /**
+     * Used instead of the world profiler on the async thread, as the world profiler is not thread safe.
+     */
+    private final @Nullable Profiler asyncProfiler;
+    private volatile @Nullable Thread asyncThread;
+    private @Nullable Future<?> asyncLightingUpdates;
+
+    /**
+     * When enabled, large passes are first split by region and propagated in parallel by pooled region engines.
+     */
+    private final boolean isParallel;
+    private final @Nullable Queue<PhosphorLightingEngine> regionEngines;
+    /**
+     * Only present on region engines, which never leave their region.
+     * <p>
+     * Any position at the edge of the region which would have needed a neighbour from outside of it is recorded here,
+     * so it can be checked again in the serial pass after all regions are done.
+     * <p>
+     * Layout of longs: [padding(4)] [y(8)] [x(26)] [z(26)]
+     */
+    private final @Nullable LongList regionFrontier;
+    /**
+     * Only present on region engines, the chunks of the region as resolved by the owning engine before the fork.
+     * <p>
+     * Region engines run on worker threads, so they never look up chunks, prepare sub chunks, mark chunks dirty
+     * or query positional light properties themselves, as none of it is thread safe.
+     * Anything which would need one of these is handed back to the serial pass through the {@link #regionFrontier}.
+     * <p>
+     * Layout of indices: [z(2)] [x(2)], relative to the region
+     */
+    private final @Nullable LumiChunk[] regionChunks;
+    private int regionPosX;
+    private int regionPosZ;
 
-    private final int maxBlockLightUpdates;
-    private final int maxSkyLightUpdates;
+    private int maxBlockLightUpdates;
+    private int maxSkyLightUpdates;
+    /**
+     * Time of the last large pass as per {@link System#nanoTime()}, used to trim the queues once idle.
+     */
+    private long lastLargePassNanos;
+    private boolean areQueuesTrimmed;
 
     /**
      * Layout of longs: [padding(4)] [y(8)] [x(26)] [z(26)]
      */
-    private final LongList blockLightUpdateQueue;
-    private final LongList skyLightUpdateQueue;
+    private final LongArrayList blockLightUpdateQueue;
+    private final LongArrayList skyLightUpdateQueue;
+    /**
+     * Ranges of positions waiting to be expanded into the matching update queue, two longs per range.
+     * <p>
+     * Layout of longs: [padding(4)] [minY(8)] [minX(26)] [minZ(26)], followed by [padding(4)] [maxY(8)] [maxX(26)] [maxZ(26)],
+     * both corners inclusive.
+     */
+    private final LongArrayList blockLightRangeQueue;
+    private final LongArrayList skyLightRangeQueue;
+    /**
+     * Amount of positions covered by the matching range queue.
+     * <p>
+     * Counted against the maximum queue size, so a range takes up as much of it as the positions it expands to.
+     */
+    private long blockLightRangeVolume;
+    private long skyLightRangeVolume;
+    /**
+     * Positions currently present in the matching update queue, cleared once the queue is processed.
+     * <p>
+     * Layout of longs: [padding(4)] [y(8)] [x(26)] [z(26)]
+     */
+    private final PosHashSet blockLightScheduledPositions;
+    private final PosHashSet skyLightScheduledPositions;
+    /**
+     * Chunks with positions or ranges in the matching update queue, so reads elsewhere do not have to process it.
+     * <p>
+     * Cleared along with the scheduled positions, and may hold chunks whose updates were already processed.
+     * <p>
+     * Layout of longs: [chunkZ(32)] [chunkX(32)]
+     */
+    private final PosHashSet blockLightQueuedChunks;
+    private final PosHashSet skyLightQueuedChunks;
     /**
      * Layout of longs: [padding(4)] [y(8)] [x(26)] [z(26)]
      */
-    private final LongList[] brighteningQueues;
+    private final LongArrayList[] brighteningQueues;
     /**
      * Layout of longs: [padding(4)] [y(8)] [x(26)] [z(26)]
      */
-    private final LongList[] darkeningQueues;
+    private final LongArrayList[] darkeningQueues;
     /**
      * Layout of longs: [newLight(4)] [y(8)] [x(26)] [z(26)]
      */
-    private final LongList initialBrighteningQueue;
+    private final LongArrayList initialBrighteningQueue;
+    /**
+     * Layout of longs: [padding(4)] [y(8)] [x(26)] [z(26)]
+     */
+    private final LongArrayList initialDarkeningQueue;
+
+    /**
+     * Light type of the pass which ran out of budget, its remaining work is kept in the bucket queues.
+     * <p>
+     * As the bucket queues are shared between light types, a paused pass is always finished before any other.
+     */
+    private @Nullable LightType pausedLightType;
+    /**
+     * Chunks with positions still queued by the paused pass, reading light from these finishes the pass first.
+     * <p>
+     * Layout of longs: [chunkZ(32)] [chunkX(32)]
+     */
+    private final PosHashSet pausedChunks;
+    private int itemsSinceDeadlineCheck;
     /**
+     * Scheduled updates outside the near chunks of a budgeted pass, put back into the update queue afterwards.
+     * <p>
      * Layout of longs: [padding(4)] [y(8)] [x(26)] [z(26)]
      */
-    private final LongList initialDarkeningQueue;
+    private final LongArrayList deferredUpdateQueue;
+    /**
+     * Chunks observed by players, collected for each budgeted pass into the same set.
+     * <p>
+     * Layout of longs: [chunkZ(32)] [chunkX(32)]
+     */
+    private final PosHashSet nearChunks;
+    /**
+     * Changed bounds of each sub chunk since the last flush, only present on the client.
+     * <p>
+     * Each sub chunk is marked for a render update once per pass, instead of once for every changed position.
+     * <p>
+     * Layout of keys: [padding(4)] [y(8)] [x(26)] [z(26)], of the sub chunk base position
+     * <p>
+     * Layout of values: [padding(8)] [maxZ(4)] [maxY(4)] [maxX(4)] [minZ(4)] [minY(4)] [minX(4)]
+     */
+    private final @Nullable Long2IntOpenHashMap renderUpdateBounds;
+    /**
+     * Chunks with light values written by the current pass, each is marked dirty once when the pass ends.
+     */
+    private final ReferenceOpenHashSet<LumiChunkRoot> dirtyChunkRoots;
+    /**
+     * Last chunk added to {@link #dirtyChunkRoots}, as consecutive writes mostly land in the same chunk.
+     */
+    private @Nullable LumiChunk lastDirtyChunk;
 
     private @Nullable LightType currentLightType;
+    /**
+     * What caused the current pass, only used for recording.
+     */
+    private LightingTrigger currentTrigger;
     private @Nullable LongList currentQueue;
     private int currentQueueSize;
     private int currentQueueIndex;
 
+    /**
+     * Chunks looked up by the current pass, including missing ones, cleared along with the block references.
+     * <p>
+     * Chunks are never loaded or unloaded while a pass is running, so the entries stay valid for the whole pass.
+     * <p>
+     * Layout of keys: [padding(12)] [x(22)] [padding(4)] [z(22)] [padding(4)]
+     */
+    private final long[] chunkCacheKeys;
+    private final @Nullable LumiChunk[] chunkCacheChunks;
+
+    /**
+     * Present while a trace is being recorded, see {@link LightingTraceRecorder}.
+     * <p>
+     * Async and parallel passes are not run while recording, so the recorder is only used on the owning thread.
+     */
+    private volatile @Nullable LightingTraceRecorder traceRecorder;
+    /**
+     * Set while a recorded call is running, so any calls it makes back into the engine are not recorded again.
+     * <p>
+     * Only accessed on the owning thread, as is the recorder.
+     */
+    private boolean isTraceSuppressed;
+
+    /**
+     * Number of batches currently open, no passes are run while above zero.
+     */
+    private int batchDepth;
+    /**
+     * Highest changed position of each column changed in the current batch, their sky light heights are updated once it ends.
+     * <p>
+     * Layout of keys: [x(32)] [z(32)]
+     */
+    private final Long2IntOpenHashMap batchedColumns;
+
     private final BlockReference cursor;
 
     private final BlockReference[] neighbors;
     private boolean areNeighboursBlocksValid;
 
+    private final PhosphorLightingMetrics metrics;
+    private long passDarkeningNanos;
+    private long passBrighteningNanos;
+
     PhosphorLightingEngine(LumiWorld world, Profiler profiler) {
-        this.lock = LumiConfig.ENABLE_LOCKS ? new ReentrantLock() : getDummyLock();
+        this(world, profiler, false);
+    }
 
+    private PhosphorLightingEngine(LumiWorld world, Profiler profiler, boolean isRegionEngine) {
         this.world = world;
         this.worldRoot = world.lumi$root();
         this.isClientSide = worldRoot.lumi$isClientSide();
         this.profiler = profiler;
+        this.useBlockBits = (Object) world == worldRoot;
+
+        this.isAsync = !isRegionEngine && LumiConfig.ENABLE_ASYNC_LIGHTING && !isClientSide;
+        // The async thread relies on the lock for the ownership handoff, so it may never be a dummy
+        // Region engines are only ever accessed while the owning engine holds its lock
+        this.lock = !isRegionEngine && (LumiConfig.ENABLE_LOCKS || isAsync) ? new ReentrantLock() : getDummyLock();
+        if (isAsync) {
+            val executor = new ThreadPoolExecutor(1,
+                                                  1,
+                                                  ASYNC_THREAD_KEEP_ALIVE_SECONDS,
+                                                  TimeUnit.SECONDS,
+                                                  new LinkedBlockingQueue<>(),
+                                                  this::newAsyncThread);
+            executor.allowCoreThreadTimeOut(true);
+            this.asyncExecutor = executor;
+            this.asyncProfiler = new Profiler();
+        } else {
+            this.asyncExecutor = null;
+            this.asyncProfiler = null;
+        }
 
-        this.maxBlockLightUpdates = isClientSide ? MAX_SCHEDULED_BLOCK_LIGHT_UPDATES_CLIENT : MAX_SCHEDULED_BLOCK_LIGHT_UPDATES_SERVER;
-        this.maxSkyLightUpdates = isClientSide ? MAX_SCHEDULED_SKY_LIGHT_UPDATES_CLIENT : MAX_SCHEDULED_SKY_LIGHT_UPDATES_SERVER;
-
-        this.blockLightUpdateQueue = new LongArrayList(maxBlockLightUpdates);
-        this.skyLightUpdateQueue = new LongArrayList(maxSkyLightUpdates);
+        this.isParallel = !isRegionEngine && LumiConfig.ENABLE_PARALLEL_LIGHTING && !isClientSide;
+        this.regionEngines = isParallel ? new ConcurrentLinkedQueue<>() : null;
+        this.regionFrontier = isRegionEngine ? new LongArrayList() : null;
+        this.regionChunks = isRegionEngine ? new LumiChunk[REGION_SIZE_CHUNKS * REGION_SIZE_CHUNKS] : null;
+
+        this.maxBlockLightUpdates = isClientSide ? MAX_SCHEDULED_LIGHT_UPDATES_CLIENT : INITIAL_SCHEDULED_LIGHT_UPDATES_SERVER;
+        this.maxSkyLightUpdates = isClientSide ? MAX_SCHEDULED_LIGHT_UPDATES_CLIENT : INITIAL_SCHEDULED_LIGHT_UPDATES_SERVER;
+        this.lastLargePassNanos = System.nanoTime();
+        this.areQueuesTrimmed = true;
+
+        // Queues grow on demand, and are trimmed back down once idle
+        this.blockLightUpdateQueue = new LongArrayList();
+        this.skyLightUpdateQueue = new LongArrayList();
+        this.blockLightRangeQueue = new LongArrayList();
+        this.skyLightRangeQueue = new LongArrayList();
+        this.blockLightScheduledPositions = new PosHashSet(INITIAL_SCHEDULED_POSITIONS_CAPACITY, 0.5F);
+        this.skyLightScheduledPositions = new PosHashSet(INITIAL_SCHEDULED_POSITIONS_CAPACITY, 0.5F);
+        this.blockLightQueuedChunks = new PosHashSet();
+        this.skyLightQueuedChunks = new PosHashSet();
 
         this.brighteningQueues = new LongArrayList[LIGHT_VALUE_RANGE];
         for (var i = 0; i < LIGHT_VALUE_RANGE; i++)
@@ -222,6 +528,23 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
             this.darkeningQueues[i] = new LongArrayList();
         this.initialBrighteningQueue = new LongArrayList();
         this.initialDarkeningQueue = new LongArrayList();
+        this.pausedChunks = new PosHashSet();
+        this.deferredUpdateQueue = new LongArrayList();
+        this.nearChunks = new PosHashSet();
+        if (isClientSide) {
+            this.renderUpdateBounds = new Long2IntOpenHashMap();
+            renderUpdateBounds.defaultReturnValue(NO_RENDER_UPDATE_BOUNDS);
+        } else {
+            this.renderUpdateBounds = null;
+        }
+        this.dirtyChunkRoots = new ReferenceOpenHashSet<>();
+        this.batchedColumns = new Long2IntOpenHashMap();
+        batchedColumns.defaultReturnValue(NO_BATCHED_COLUMN);
+        this.chunkCacheKeys = new long[CHUNK_CACHE_SIZE];
+        Arrays.fill(chunkCacheKeys, NO_CACHED_CHUNK);
+        this.chunkCacheChunks = new LumiChunk[CHUNK_CACHE_SIZE];
+        this.metrics = new PhosphorLightingMetrics();
+        this.currentTrigger = LightingTrigger.API;
 
         this.neighbors = new BlockReference[NEIGHBOUR_COUNT];
         for (var i = 0; i < NEIGHBOUR_COUNT; i++) {
@@ -320,27 +643,48 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
 
     @Override
     public int getCurrentLightValue(@NotNull LightType lightType, int posX, int posY, int posZ) {
-        if (THREAD_ALLOWED_TO_RELIGHT.get()) {
-            processLightingUpdatesForType(lightType);
+        // In async mode, reads observe the light values published at the start of the tick
+        if (!isAsync && THREAD_ALLOWED_TO_RELIGHT.get()) {
+            processLightingUpdatesNearChunk(lightType, posX >> 4, posZ >> 4);
+            finishPausedLightingForChunk(lightType, posX >> 4, posZ >> 4);
         }
         return clampLightValue(world.lumi$getLightValue(lightType, posX, posY, posZ));
     }
 
     @Override
     public int getCurrentLightValueChunk(@NotNull Chunk chunk, @NotNull LightType lightType, int chunkPosX, int posY, int chunkPosZ) {
-        if (THREAD_ALLOWED_TO_RELIGHT.get()) {
-            processLightingUpdatesForType(lightType);
+        if (!isAsync && THREAD_ALLOWED_TO_RELIGHT.get()) {
+            processLightingUpdatesNearChunk(lightType, chunk.xPosition, chunk.zPosition);
+            finishPausedLightingForChunk(lightType, chunk.xPosition, chunk.zPosition);
         }
         return clampLightValue(world.lumi$getLightValue(world.lumi$wrap(chunk), lightType, chunkPosX, posY, chunkPosZ));
     }
 
     @Override
     public boolean isChunkFullyLit(@NotNull LumiChunk chunk) {
-        return PhosphorUtil.isChunkFullyLit(world, chunk, profiler);
+        val traceRecorder = beginTrace();
+        if (traceRecorder != null)
+            traceChunkOp(traceRecorder, LightingTraceRecorder.OP_IS_CHUNK_FULLY_LIT, chunk);
+        try {
+            return PhosphorUtil.isChunkFullyLit(world, chunk, profiler);
+        } finally {
+            endTrace(traceRecorder);
+        }
     }
 
     @Override
     public void handleChunkInit(@NotNull LumiChunk chunk) {
+        val traceRecorder = beginTrace();
+        if (traceRecorder != null)
+            traceChunkOp(traceRecorder, LightingTraceRecorder.OP_CHUNK_INIT, chunk);
+        try {
+            initChunk(chunk);
+        } finally {
+            endTrace(traceRecorder);
+        }
+    }
+
+    private void initChunk(LumiChunk chunk) {
         chunk.lumi$isLightingInitialized(false);
 
         val hasSky = worldRoot.lumi$hasSky();
@@ -354,62 +698,71 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
         val maxPosY = basePosY + 16;
 
         var minSkyLightHeight = Integer.MAX_VALUE;
+        var maxSkyLightHeight = 0;
         for (int subChunkPosX = 0; subChunkPosX < 16; ++subChunkPosX) {
-            int subChunkPosZ = 0;
-            while (subChunkPosZ < 16) {
+            for (int subChunkPosZ = 0; subChunkPosZ < 16; ++subChunkPosZ) {
                 var skyLightHeight = maxPosY;
-
-                while (true) {
-                    if (skyLightHeight > 0) {
-                        val posY = skyLightHeight - 1;
-                        // Will use Fast-Path in LUMI & RPLE
-                        val blockOpacity = clampSkyLightOpacity(
-                                chunk.lumi$getBlockOpacity(subChunkPosX, posY, subChunkPosZ));
-                        if (blockOpacity == MIN_SKY_LIGHT_OPACITY) {
-                            skyLightHeight--;
-                            continue;
-                        }
-
+                while (skyLightHeight > 0) {
+                    val posY = skyLightHeight - 1;
+                    // Will use Fast-Path in LUMI & RPLE
+                    val blockOpacity = clampSkyLightOpacity(
+                            chunk.lumi$getBlockOpacity(subChunkPosX, posY, subChunkPosZ));
+                    if (blockOpacity != MIN_SKY_LIGHT_OPACITY) {
                         chunk.lumi$skyLightHeight(subChunkPosX, subChunkPosZ, skyLightHeight);
                         minSkyLightHeight = Math.min(minSkyLightHeight, skyLightHeight);
+                        maxSkyLightHeight = Math.max(maxSkyLightHeight, skyLightHeight);
+                        break;
                     }
+                    skyLightHeight--;
+                }
+            }
+        }
 
-                    if (hasSky) {
-                        var lightLevel = MAX_LIGHT_VALUE;
-                        skyLightHeight = (basePosY + 16) - 1;
-
-                        do {
-                            // Will use Fast-Path in LUMI & RPLE
-                            var blockOpacity = clampSkyLightOpacity(
-                                    chunk.lumi$getBlockOpacity(subChunkPosX, skyLightHeight, subChunkPosZ));
-                            if (blockOpacity == MIN_SKY_LIGHT_OPACITY && lightLevel != MAX_LIGHT_VALUE)
-                                blockOpacity = 1;
-
-                            lightLevel -= blockOpacity;
-                            if (lightLevel > 0) {
-                                val chunkPosY = skyLightHeight / 16;
-                                val subChunkPosY = skyLightHeight & 15;
-
-                                val subChunk = chunk.lumi$getSubChunk(chunkPosY);
-                                val posX = basePosX + subChunkPosX;
-                                val posZ = basePosZ + subChunkPosZ;
-
-                                subChunk.lumi$setSkyLightValue(subChunkPosX,
-                                                               subChunkPosY,
-                                                               subChunkPosZ,
-                                                               lightLevel);
-                                worldRoot.lumi$markBlockForRenderUpdate(posX, skyLightHeight, posZ);
-                            }
+        if (hasSky) {
+            // Sub chunks above every column's sky light height are full sky light, so they are filled in one go
+            var topPosY = basePosY + 16;
+            while (topPosY - 16 >= maxSkyLightHeight) {
+                val subChunk = chunk.lumi$getSubChunk((topPosY - 16) >> 4);
+                if (!(subChunk instanceof LumiSubChunkImpl))
+                    break;
+                ((LumiSubChunkImpl) subChunk).lumi$fillLightArray(SKY_LIGHT_TYPE, MAX_LIGHT_VALUE);
+                markBlockForRenderUpdate(basePosX, topPosY - 16, basePosZ);
+                markBlockForRenderUpdate(basePosX + 15, topPosY - 1, basePosZ + 15);
+                topPosY -= 16;
+            }
 
-                            skyLightHeight--;
+            for (int subChunkPosX = 0; subChunkPosX < 16; ++subChunkPosX) {
+                for (int subChunkPosZ = 0; subChunkPosZ < 16; ++subChunkPosZ) {
+                    var lightLevel = MAX_LIGHT_VALUE;
+                    var skyLightHeight = topPosY - 1;
+                    while (skyLightHeight > 0 && lightLevel > MIN_LIGHT_VALUE) {
+                        // Will use Fast-Path in LUMI & RPLE
+                        var blockOpacity = clampSkyLightOpacity(
+                                chunk.lumi$getBlockOpacity(subChunkPosX, skyLightHeight, subChunkPosZ));
+                        if (blockOpacity == MIN_SKY_LIGHT_OPACITY && lightLevel != MAX_LIGHT_VALUE)
+                            blockOpacity = 1;
+
+                        lightLevel -= blockOpacity;
+                        if (lightLevel > 0) {
+                            val chunkPosY = skyLightHeight / 16;
+                            val subChunkPosY = skyLightHeight & 15;
+
+                            val subChunk = chunk.lumi$getSubChunk(chunkPosY);
+                            val posX = basePosX + subChunkPosX;
+                            val posZ = basePosZ + subChunkPosZ;
+
+                            subChunk.lumi$setSkyLightValue(subChunkPosX,
+                                                           subChunkPosY,
+                                                           subChunkPosZ,
+                                                           lightLevel);
+                            markBlockForRenderUpdate(posX, skyLightHeight, posZ);
                         }
-                        while (skyLightHeight > 0 && lightLevel > MIN_LIGHT_VALUE);
-                    }
 
-                    subChunkPosZ++;
-                    break;
+                        skyLightHeight--;
+                    }
                 }
             }
+            flushRenderUpdates();
         }
 
         chunk.lumi$minSkyLightHeight(minSkyLightHeight);
@@ -471,6 +824,12 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
 
         val maxPosY = subChunk.lumi$root().lumi$posY() + 15;
         val lightValue = SKY_LIGHT_TYPE.defaultLightValue();
+        if (subChunk instanceof LumiSubChunkImpl && canWholeSubChunkSeeSky(chunk, maxPosY)) {
+            ((LumiSubChunkImpl) subChunk).lumi$fillLightArray(SKY_LIGHT_TYPE, lightValue);
+            chunk.lumi$root().lumi$markDirty();
+            return;
+        }
+
         for (var subChunkPosZ = 0; subChunkPosZ < 16; subChunkPosZ++) {
             for (var subChunkPosX = 0; subChunkPosX < 16; subChunkPosX++) {
                 if (chunk.lumi$canBlockSeeSky(subChunkPosX, maxPosY, subChunkPosZ)) {
@@ -480,17 +839,47 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
                 }
             }
         }
+        if (subChunk instanceof LumiSubChunkImpl)
+            ((LumiSubChunkImpl) subChunk).lumi$compactLightArrays();
         chunk.lumi$root().lumi$markDirty();
     }
 
+    private static boolean canWholeSubChunkSeeSky(LumiChunk chunk, int maxPosY) {
+        for (var subChunkPosZ = 0; subChunkPosZ < 16; subChunkPosZ++) {
+            for (var subChunkPosX = 0; subChunkPosX < 16; subChunkPosX++) {
+                if (!chunk.lumi$canBlockSeeSky(subChunkPosX, maxPosY, subChunkPosZ))
+                    return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public void handleChunkLoad(@NotNull LumiChunk chunk) {
-        if (scheduleRelightChecksForChunkBoundaries(world, chunk))
-            processLightingUpdatesForType(SKY_LIGHT_TYPE);
+        val traceRecorder = beginTrace();
+        if (traceRecorder != null)
+            traceChunkOp(traceRecorder, LightingTraceRecorder.OP_CHUNK_LOAD, chunk);
+        try {
+            if (scheduleRelightChecksForChunkBoundaries(world, chunk))
+                processLightingUpdatesForType(SKY_LIGHT_TYPE, LightingTrigger.CHUNK_LOAD);
+        } finally {
+            endTrace(traceRecorder);
+        }
     }
 
     @Override
     public void doRandomChunkLightingUpdates(@NotNull LumiChunk chunk) {
+        val traceRecorder = beginTrace();
+        if (traceRecorder != null)
+            traceChunkOp(traceRecorder, LightingTraceRecorder.OP_RANDOM_UPDATES, chunk);
+        try {
+            doRandomUpdates(chunk);
+        } finally {
+            endTrace(traceRecorder);
+        }
+    }
+
+    private void doRandomUpdates(LumiChunk chunk) {
         val chunkRoot = chunk.lumi$root();
 
         var queuedRandomLightUpdates = chunk.lumi$queuedRandomLightUpdates();
@@ -585,6 +974,24 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
 
     @Override
     public void updateLightingForBlock(int posX, int posY, int posZ) {
+        val traceRecorder = beginTrace();
+        if (traceRecorder != null)
+            traceRecorder.recordUpdateLightingForBlock(posX, posY, posZ);
+        try {
+            if (batchDepth != 0) {
+                // Only the highest change matters, the column is walked down from there using the final blocks
+                val columnKey = (long) posX << 32 | posZ & 0xFFFFFFFFL;
+                if (posY > batchedColumns.get(columnKey))
+                    batchedColumns.put(columnKey, posY);
+                return;
+            }
+            updateSkyLightHeight(posX, posY, posZ);
+        } finally {
+            endTrace(traceRecorder);
+        }
+    }
+
+    private void updateSkyLightHeight(int posX, int posY, int posZ) {
         val chunkPosX = posX >> 4;
         val chunkPosZ = posZ >> 4;
         val chunk = world.lumi$getChunkFromChunkPosIfExists(chunkPosX, chunkPosZ);
@@ -632,31 +1039,13 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
 
     @Override
     public void scheduleLightingUpdateForRange(@NotNull LightType lightType, @NotNull BlockPos minBlockPos, @NotNull BlockPos maxBlockPos) {
-        val minPosX = minBlockPos.getX();
-        val maxPosX = maxBlockPos.getX();
-        if (maxPosX < minPosX)
-            return;
-        val minPosY = minBlockPos.getY();
-        val maxPosY = maxBlockPos.getY();
-        if (maxPosY < minPosY)
-            return;
-        val minPosZ = minBlockPos.getZ();
-        val maxPosZ = maxBlockPos.getZ();
-        if (maxPosZ < minPosZ)
-            return;
-
-        acquireLock();
-        try {
-            for (var posY = minPosY; posY < maxPosY; posY++) {
-                for (var posZ = minPosZ; posZ < maxPosZ; posZ++) {
-                    for (var posX = minPosX; posX < maxPosX; posX++) {
-                        scheduleLightingUpdate(lightType, posLongFromPosXYZ(posX, posY, posZ));
-                    }
-                }
-            }
-        } finally {
-            releaseLock();
-        }
+        scheduleLightingUpdateForRange(lightType,
+                                       minBlockPos.getX(),
+                                       minBlockPos.getY(),
+                                       minBlockPos.getZ(),
+                                       maxBlockPos.getX(),
+                                       maxBlockPos.getY(),
+                                       maxBlockPos.getZ());
     }
 
     @Override
@@ -667,22 +1056,13 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
                                                int maxPosX,
                                                int maxPosY,
                                                int maxPosZ) {
-        if (maxPosX < minPosX)
-            return;
-        if (maxPosY < minPosY)
-            return;
-        if (maxPosZ < minPosZ)
-            return;
+        val traceRecorder = this.traceRecorder;
+        if (traceRecorder != null && !isTraceSuppressed)
+            traceRecorder.recordScheduleRange(lightType, minPosX, minPosY, minPosZ, maxPosX, maxPosY, maxPosZ);
 
         acquireLock();
         try {
-            for (var posY = minPosY; posY < maxPosY; posY++) {
-                for (var posZ = minPosZ; posZ < maxPosZ; posZ++) {
-                    for (var posX = minPosX; posX < maxPosX; posX++) {
-                        scheduleLightingUpdatePostLock(lightType, posX, posY, posZ);
-                    }
-                }
-            }
+            scheduleLightingUpdateForRangePostLock(lightType, minPosX, minPosY, minPosZ, maxPosX, maxPosY, maxPosZ);
         } finally {
             releaseLock();
         }
@@ -695,19 +1075,78 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
 
     @Override
     public void scheduleLightingUpdateForColumn(@NotNull LightType lightType, int posX, int posZ, int minPosY, int maxPosY) {
-        if (maxPosY < minPosY)
-            return;
+        val traceRecorder = this.traceRecorder;
+        if (traceRecorder != null && !isTraceSuppressed)
+            traceRecorder.recordScheduleColumn(lightType, posX, posZ, minPosY, maxPosY);
+
         acquireLock();
         try {
-            for (var posY = minPosY; posY < maxPosY; posY++)
-                scheduleLightingUpdatePostLock(lightType, posX, posY, posZ);
+            scheduleLightingUpdateForRangePostLock(lightType, posX, minPosY, posZ, posX + 1, maxPosY, posZ + 1);
         } finally {
             releaseLock();
         }
     }
 
+    /**
+     * Schedules every position in the range, with exclusive max coordinates, as a single range entry.
+     */
+    private void scheduleLightingUpdateForRangePostLock(LightType lightType,
+                                                        int minPosX,
+                                                        int minPosY,
+                                                        int minPosZ,
+                                                        int maxPosX,
+                                                        int maxPosY,
+                                                        int maxPosZ) {
+        minPosY = Math.max(minPosY, 0);
+        maxPosY = Math.min(maxPosY, 256);
+        if (maxPosX <= minPosX || maxPosY <= minPosY || maxPosZ <= minPosZ)
+            return;
+
+        val volume = (long) (maxPosX - minPosX) * (maxPosY - minPosY) * (maxPosZ - minPosZ);
+        if (volume <= MAX_EXPANDED_RANGE_VOLUME) {
+            for (var posY = minPosY; posY < maxPosY; posY++) {
+                for (var posZ = minPosZ; posZ < maxPosZ; posZ++) {
+                    for (var posX = minPosX; posX < maxPosX; posX++) {
+                        scheduleLightingUpdatePostLock(lightType, posX, posY, posZ);
+                    }
+                }
+            }
+            return;
+        }
+
+        final int maxLightUpdates;
+        final LongList rangeQueue;
+        if (lightType.isBlock()) {
+            maxLightUpdates = maxBlockLightUpdates;
+            rangeQueue = blockLightRangeQueue;
+        } else {
+            maxLightUpdates = maxSkyLightUpdates;
+            rangeQueue = skyLightRangeQueue;
+        }
+
+        if (queuedLightingUpdates(lightType) + volume > maxLightUpdates)
+            processFullUpdateQueue(lightType);
+
+        rangeQueue.add(posLongFromPosXYZ(minPosX, minPosY, minPosZ));
+        rangeQueue.add(posLongFromPosXYZ(maxPosX - 1, maxPosY - 1, maxPosZ - 1));
+        for (var chunkPosX = minPosX >> 4; chunkPosX <= (maxPosX - 1) >> 4; chunkPosX++) {
+            for (var chunkPosZ = minPosZ >> 4; chunkPosZ <= (maxPosZ - 1) >> 4; chunkPosZ++)
+                addQueuedChunk(lightType, posLongFromPosXYZ(chunkPosX << 4, 0, chunkPosZ << 4));
+        }
+        if (lightType.isBlock()) {
+            blockLightRangeVolume += volume;
+        } else {
+            skyLightRangeVolume += volume;
+        }
+        metrics.addScheduledLightingUpdates(volume);
+    }
+
     @Override
     public void scheduleLightingUpdate(@NotNull LightType lightType, @NotNull BlockPos blockPos) {
+        val traceRecorder = this.traceRecorder;
+        if (traceRecorder != null && !isTraceSuppressed)
+            traceRecorder.recordSchedule(lightType, blockPos.getX(), blockPos.getY(), blockPos.getZ());
+
         acquireLock();
         try {
             scheduleLightingUpdatePostLock(lightType, posLongFromBlockPos(blockPos));
@@ -718,6 +1157,10 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
 
     @Override
     public void scheduleLightingUpdate(@NotNull LightType lightType, int posX, int posY, int posZ) {
+        val traceRecorder = this.traceRecorder;
+        if (traceRecorder != null && !isTraceSuppressed)
+            traceRecorder.recordSchedule(lightType, posX, posY, posZ);
+
         acquireLock();
         try {
             scheduleLightingUpdatePostLock(lightType, posX, posY, posZ);
@@ -728,6 +1171,17 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
 
     @Override
     public void processLightingUpdatesForType(@NotNull LightType lightType) {
+        val traceRecorder = this.traceRecorder;
+        if (traceRecorder != null && !isTraceSuppressed)
+            traceRecorder.recordFlush(lightType);
+
+        processLightingUpdatesForType(lightType, LightingTrigger.API);
+    }
+
+    private void processLightingUpdatesForType(LightType lightType, LightingTrigger trigger) {
+        if (batchDepth != 0)
+            return;
+
         // We only want to perform updates if we're being called from a tick event on the client
         // There are many locations in the client code which will end up making calls to this method, usually from
         // other threads.
@@ -735,61 +1189,463 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
             return;
 
         // Quickly check if the queue is empty before we acquire a more expensive lock.
-        val queue = lightType.isBlock() ? blockLightUpdateQueue : skyLightUpdateQueue;
-        if (queue.isEmpty())
+        if (queuedLightingUpdates(lightType) == 0)
             return;
 
         acquireLock();
         try {
-            updateLighting(lightType);
+            currentTrigger = trigger;
+            val flushEvent = PhosphorLightingEvents.beginFlush();
+            val blockLightUpdates = blockLightUpdateQueue.size();
+            val skyLightUpdates = skyLightUpdateQueue.size();
+            val visitedPositions = metrics.getVisitedPositions();
+
+            updateLighting(lightType, profiler, NO_DEADLINE);
             resetBlockReferences();
+
+            PhosphorLightingEvents.commitFlush(flushEvent,
+                                               trigger,
+                                               blockLightUpdates,
+                                               skyLightUpdates,
+                                               metrics.getVisitedPositions() - visitedPositions);
         } finally {
             releaseLock();
         }
     }
 
-    @Override
-    public void processLightingUpdatesForAllTypes() {
-        // We only want to perform updates if we're being called from a tick event on the client
-        // There are many locations in the client code which will end up making calls to this method, usually from
-        // other threads.
-        if (isClientSide && !isCallingFromClientThread())
+    /**
+     * Processes an update queue which has reached its maximum size, and adapts the maximum to the cost of doing so.
+     */
+    private void processFullUpdateQueue(LightType lightType) {
+        // Batches let the queues grow as needed, everything is processed in one pass at the end
+        if (batchDepth != 0)
             return;
 
-        val hasBlockLightUpdates = !blockLightUpdateQueue.isEmpty();
-        val hasSkyLightUpdates = !skyLightUpdateQueue.isEmpty();
-
-        // Quickly check if the queue is empty before we acquire a more expensive lock.
-        if (!(hasBlockLightUpdates || hasSkyLightUpdates))
+        metrics.addForcedFlush();
+        if (isClientSide) {
+            processLightingUpdatesForType(lightType, LightingTrigger.FORCED);
             return;
+        }
 
-        acquireLock();
+        val startNanos = System.nanoTime();
+        processLightingUpdatesForType(lightType, LightingTrigger.FORCED);
+        val passNanos = System.nanoTime() - startNanos;
+
+        if (lightType.isBlock()) {
+            maxBlockLightUpdates = adaptMaxLightUpdates(maxBlockLightUpdates, passNanos);
+        } else {
+            maxSkyLightUpdates = adaptMaxLightUpdates(maxSkyLightUpdates, passNanos);
+        }
+    }
+
+    /**
+     * Halves the maximum when a forced pass was slow or the heap is running low, doubles it when it was fast and the heap has room.
+     */
+    private static int adaptMaxLightUpdates(int maxLightUpdates, long passNanos) {
+        val runtime = Runtime.getRuntime();
+        val maxMemory = runtime.maxMemory();
+        val usedMemory = runtime.totalMemory() - runtime.freeMemory();
+        val heapHeadroom = (double) (maxMemory - usedMemory) / maxMemory;
+
+        if (passNanos > SLOW_FORCED_PASS_NANOS || heapHeadroom < SHRINK_HEAP_HEADROOM)
+            return Math.max(maxLightUpdates >> 1, MIN_SCHEDULED_LIGHT_UPDATES_SERVER);
+        if (passNanos < FAST_FORCED_PASS_NANOS && heapHeadroom > GROW_HEAP_HEADROOM)
+            return Math.min(maxLightUpdates << 1, MAX_SCHEDULED_LIGHT_UPDATES_SERVER);
+        return maxLightUpdates;
+    }
+
+    /**
+     * Trims all internal queues back down, once no large pass has happened for a while.
+     */
+    private void trimQueuesIfIdle() {
+        if (areQueuesTrimmed || System.nanoTime() - lastLargePassNanos < TRIM_QUEUES_IDLE_NANOS)
+            return;
+
+        trimQueues();
+        if (regionEngines != null) {
+            for (val regionEngine : regionEngines)
+                regionEngine.trimQueues();
+        }
+        if (!isClientSide) {
+            maxBlockLightUpdates = INITIAL_SCHEDULED_LIGHT_UPDATES_SERVER;
+            maxSkyLightUpdates = INITIAL_SCHEDULED_LIGHT_UPDATES_SERVER;
+        }
+        areQueuesTrimmed = true;
+    }
+
+    private void trimQueues() {
+        for (var i = 0; i < LIGHT_VALUE_RANGE; i++) {
+            brighteningQueues[i].trim();
+            darkeningQueues[i].trim();
+        }
+        initialBrighteningQueue.trim();
+        initialDarkeningQueue.trim();
+        // Trimming keeps any entries still present, so these are safe to trim while not empty
+        blockLightUpdateQueue.trim();
+        skyLightUpdateQueue.trim();
+        blockLightRangeQueue.trim();
+        skyLightRangeQueue.trim();
+        if (blockLightScheduledPositions.isEmpty())
+            blockLightScheduledPositions.compact();
+        if (skyLightScheduledPositions.isEmpty())
+            skyLightScheduledPositions.compact();
+        if (blockLightQueuedChunks.isEmpty())
+            blockLightQueuedChunks.compact();
+        if (skyLightQueuedChunks.isEmpty())
+            skyLightQueuedChunks.compact();
+        if (pausedChunks.isEmpty())
+            pausedChunks.compact();
+        dirtyChunkRoots.trim();
+    }
+
+    @Override
+    public void processLightingUpdatesForAllTypes() {
+        processLightingUpdatesForAllTypes(LightingTrigger.API);
+    }
+
+    public void processLightingUpdatesForAllTypes(@NotNull LightingTrigger trigger) {
+        val traceRecorder = this.traceRecorder;
+        if (traceRecorder != null && !isTraceSuppressed)
+            traceRecorder.recordFlush(null);
+
+        processLightingUpdatesForAllTypesUntil(NO_DEADLINE, null, trigger);
+    }
+
+    /**
+     * Read without the lock, so it may be out of date, only meant to skip preparing a pass with nothing to do.
+     *
+     * @return {@code true} if there are any queued updates or a paused pass
+     */
+    public boolean hasQueuedLightingUpdates() {
+        return queuedLightingUpdates(BLOCK_LIGHT_TYPE) != 0 ||
+               queuedLightingUpdates(SKY_LIGHT_TYPE) != 0 ||
+               pausedLightType != null;
+    }
+
+    /**
+     * @return an empty set to collect the near chunks of the next budgeted pass into, the same one on every call
+     */
+    public @NotNull PosHashSet nearChunks() {
+        if (!nearChunks.isEmpty())
+            nearChunks.resetQuick();
+        return nearChunks;
+    }
+
+    /**
+     * Processes the queued updates of all light types, pausing once the given budget is used up.
+     * <p>
+     * Updates in the near chunks are processed first, the others only with whatever budget is left after.
+     * <p>
+     * A paused pass is resumed by the next call to any of the processing methods,
+     * or finished early when light is read from a chunk it still has work queued in.
+     *
+     * @param nearChunks chunks observed by players, as per {@link ChunkCoordIntPair#chunkXZ2Int(int, int)}
+     */
+    public void processLightingUpdatesForAllTypes(long budgetNanos, @NotNull PosHashSet nearChunks) {
+        if (budgetNanos <= 0)
+            return;
+
+        // Replays always process everything, a paused pass is simply finished by the next recorded flush
+        val traceRecorder = this.traceRecorder;
+        if (traceRecorder != null && !isTraceSuppressed)
+            traceRecorder.recordFlush(null);
+
+        processLightingUpdatesForAllTypesUntil(System.nanoTime() + budgetNanos, nearChunks, LightingTrigger.TICK);
+    }
+
+    private void processLightingUpdatesForAllTypesUntil(long deadlineNanos,
+                                                        @Nullable PosHashSet nearChunks,
+                                                        LightingTrigger trigger) {
+        if (batchDepth != 0)
+            return;
+
+        // We only want to perform updates if we're being called from a tick event on the client
+        // There are many locations in the client code which will end up making calls to this method, usually from
+        // other threads.
+        if (isClientSide && !isCallingFromClientThread())
+            return;
+
+        // Quickly check if the queue is empty before we acquire a more expensive lock.
+        if (queuedLightingUpdates(BLOCK_LIGHT_TYPE) == 0 &&
+            queuedLightingUpdates(SKY_LIGHT_TYPE) == 0 &&
+            pausedLightType == null)
+            return;
+
+        acquireLock();
         try {
-            if (hasBlockLightUpdates)
-                updateLighting(BLOCK_LIGHT_TYPE);
-            if (hasSkyLightUpdates)
-                updateLighting(SKY_LIGHT_TYPE);
+            currentTrigger = trigger;
+            val flushEvent = PhosphorLightingEvents.beginFlush();
+            val blockLightUpdates = blockLightUpdateQueue.size();
+            val skyLightUpdates = skyLightUpdateQueue.size();
+            val visitedPositions = metrics.getVisitedPositions();
+
+            if (nearChunks == null ||
+                updateLighting(BLOCK_LIGHT_TYPE, profiler, deadlineNanos, nearChunks) &&
+                updateLighting(SKY_LIGHT_TYPE, profiler, deadlineNanos, nearChunks)) {
+                if (updateLighting(BLOCK_LIGHT_TYPE, profiler, deadlineNanos))
+                    updateLighting(SKY_LIGHT_TYPE, profiler, deadlineNanos);
+            }
             resetBlockReferences();
+
+            PhosphorLightingEvents.commitFlush(flushEvent,
+                                               trigger,
+                                               blockLightUpdates,
+                                               skyLightUpdates,
+                                               metrics.getVisitedPositions() - visitedPositions);
+        } finally {
+            releaseLock();
+        }
+    }
+
+    /**
+     * Processes the queued updates of the given light type if any of them may change the light in the given chunk.
+     * <p>
+     * Light spreads at most 15 blocks sideways, so only updates in the chunk or its direct neighbours are relevant.
+     * A paused pass is only finished along with them, as it has to be completed before any new pass can start.
+     */
+    private void processLightingUpdatesNearChunk(LightType lightType, int chunkPosX, int chunkPosZ) {
+        if (batchDepth != 0)
+            return;
+        if (isClientSide && !isCallingFromClientThread())
+            return;
+
+        // Quickly check if the queue is empty before we acquire a more expensive lock.
+        if (queuedLightingUpdates(lightType) == 0)
+            return;
+
+        val queuedChunks = lightType.isBlock() ? blockLightQueuedChunks : skyLightQueuedChunks;
+
+        acquireLock();
+        try {
+            for (var offsetX = -1; offsetX <= 1; offsetX++) {
+                for (var offsetZ = -1; offsetZ <= 1; offsetZ++) {
+                    if (queuedChunks.contains(ChunkCoordIntPair.chunkXZ2Int(chunkPosX + offsetX, chunkPosZ + offsetZ))) {
+                        processLightingUpdatesForType(lightType, LightingTrigger.READ);
+                        return;
+                    }
+                }
+            }
         } finally {
             releaseLock();
         }
     }
 
+    private void addQueuedChunk(LightType lightType, long posLong) {
+        val chunkKey = ChunkCoordIntPair.chunkXZ2Int(posXFromPosLong(posLong) >> 4, posZFromPosLong(posLong) >> 4);
+        if (lightType.isBlock()) {
+            blockLightQueuedChunks.add(chunkKey);
+        } else {
+            skyLightQueuedChunks.add(chunkKey);
+        }
+    }
+
+    private void finishPausedLightingForChunk(LightType lightType, int chunkPosX, int chunkPosZ) {
+        // Only the paused light type has intermediate values, and only in the chunks it still has work queued in
+        if (pausedLightType != lightType || !pausedChunks.contains(ChunkCoordIntPair.chunkXZ2Int(chunkPosX, chunkPosZ)))
+            return;
+
+        acquireLock();
+        try {
+            if (pausedLightType != null) {
+                currentTrigger = LightingTrigger.READ;
+                resumeLighting(profiler, NO_DEADLINE);
+            }
+            resetBlockReferences();
+        } finally {
+            releaseLock();
+        }
+    }
+
+    /**
+     * Hands the queued updates over to the async thread.
+     * <p>
+     * Must be called from the owning thread once it is done mutating the world for the current tick,
+     * and paired with {@link #awaitAsyncLightingUpdates()} before the world is mutated again.
+     */
+    public void beginAsyncLightingUpdates() {
+        if (!isAsync || asyncLightingUpdates != null || batchDepth != 0)
+            return;
+        if (queuedLightingUpdates(BLOCK_LIGHT_TYPE) == 0 &&
+            queuedLightingUpdates(SKY_LIGHT_TYPE) == 0)
+            return;
+
+        // Keeps the recorder on the owning thread
+        if (traceRecorder != null) {
+            processLightingUpdatesForAllTypes(LightingTrigger.ASYNC);
+            return;
+        }
+
+        assert asyncExecutor != null;
+        asyncLightingUpdates = asyncExecutor.submit(this::processAsyncLightingUpdates);
+    }
+
+    /**
+     * Blocks until the pass started by {@link #beginAsyncLightingUpdates()} is complete, publishing its light values.
+     */
+    public void awaitAsyncLightingUpdates() {
+        val pending = asyncLightingUpdates;
+        if (pending == null)
+            return;
+        asyncLightingUpdates = null;
+
+        // The pass reads blocks without holding any lock the world takes, so it must be complete before returning
+        var isInterrupted = false;
+        try {
+            while (true) {
+                try {
+                    pending.get();
+                    break;
+                } catch (InterruptedException e) {
+                    isInterrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Async lighting update failed", e.getCause());
+        } finally {
+            if (isInterrupted)
+                Thread.currentThread().interrupt();
+        }
+    }
+
+    private void processAsyncLightingUpdates() {
+        assert asyncProfiler != null;
+
+        acquireLock();
+        try {
+            currentTrigger = LightingTrigger.ASYNC;
+            val flushEvent = PhosphorLightingEvents.beginFlush();
+            val blockLightUpdates = blockLightUpdateQueue.size();
+            val skyLightUpdates = skyLightUpdateQueue.size();
+            val visitedPositions = metrics.getVisitedPositions();
+
+            updateLighting(BLOCK_LIGHT_TYPE, asyncProfiler, NO_DEADLINE);
+            updateLighting(SKY_LIGHT_TYPE, asyncProfiler, NO_DEADLINE);
+            resetBlockReferences();
+
+            PhosphorLightingEvents.commitFlush(flushEvent,
+                                               LightingTrigger.ASYNC,
+                                               blockLightUpdates,
+                                               skyLightUpdates,
+                                               metrics.getVisitedPositions() - visitedPositions);
+        } finally {
+            releaseLock();
+        }
+    }
+
+    private Thread newAsyncThread(Runnable runnable) {
+        val thread = new Thread(runnable, "Lumi Lighting Thread #" + ASYNC_THREAD_COUNTER.incrementAndGet());
+        thread.setDaemon(true);
+        asyncThread = thread;
+        return thread;
+    }
+
     private void resetBlockReferences() {
         cursor.reset();
         for (var i = 0; i < NEIGHBOUR_COUNT; i++)
             neighbors[i].reset();
+        Arrays.fill(chunkCacheKeys, NO_CACHED_CHUNK);
+        Arrays.fill(chunkCacheChunks, null);
     }
 
-    private void scheduleLightingUpdate(LightType lightType, long posLong) {
+    private @Nullable LumiChunk getCachedChunk(long chunkPosLong, int chunkPosX, int chunkPosZ) {
+        val index = (chunkPosX & CHUNK_CACHE_POS_BIT_MASK) |
+                    (chunkPosZ & CHUNK_CACHE_POS_BIT_MASK) << CHUNK_CACHE_SIZE_BIT_LENGTH;
+        val isMiss = chunkCacheKeys[index] != chunkPosLong;
+        metrics.addChunkLookup(isMiss);
+        if (!isMiss)
+            return chunkCacheChunks[index];
+
+        val chunk = world.lumi$getChunkFromChunkPosIfExists(chunkPosX, chunkPosZ);
+        val traceRecorder = this.traceRecorder;
+        if (chunk != null && traceRecorder != null)
+            traceRecorder.recordChunk(chunk);
+        chunkCacheKeys[index] = chunkPosLong;
+        chunkCacheChunks[index] = chunk;
+        return chunk;
+    }
+
+    @Override
+    public void scheduleLightingUpdates(@NotNull LightType lightType,
+                                        long @NotNull [] packedBlockPositions,
+                                        int offset,
+                                        int count) {
+        if (count <= 0)
+            return;
+
+        val traceRecorder = this.traceRecorder;
+        if (traceRecorder != null && !isTraceSuppressed) {
+            for (var i = offset; i < offset + count; i++) {
+                val packedBlockPos = packedBlockPositions[i];
+                traceRecorder.recordSchedule(lightType,
+                                             unpackBlockPosX(packedBlockPos),
+                                             unpackBlockPosY(packedBlockPos),
+                                             unpackBlockPosZ(packedBlockPos));
+            }
+        }
+
         acquireLock();
         try {
-            scheduleLightingUpdatePostLock(lightType, posLong);
+            scheduleLightingUpdatesPostLock(lightType, packedBlockPositions, offset, count);
         } finally {
             releaseLock();
         }
     }
 
+    /**
+     * Same as scheduling each position separately, with the queue grown once up front and the metrics updated once.
+     */
+    private void scheduleLightingUpdatesPostLock(LightType lightType, long[] packedBlockPositions, int offset, int count) {
+        final LongArrayList queue;
+        final PosHashSet scheduledPositions;
+        if (lightType.isBlock()) {
+            queue = blockLightUpdateQueue;
+            scheduledPositions = blockLightScheduledPositions;
+        } else {
+            queue = skyLightUpdateQueue;
+            scheduledPositions = skyLightScheduledPositions;
+        }
+
+        var maxLightUpdates = lightType.isBlock() ? maxBlockLightUpdates : maxSkyLightUpdates;
+        // Outside of batches the queue never grows past the maximum, it is processed once full instead
+        queue.ensureCapacity(batchDepth != 0 ? queue.size() + count : Math.min(queue.size() + count, maxLightUpdates));
+
+        var uniqueUpdates = 0L;
+        for (var i = offset; i < offset + count; i++) {
+            val packedBlockPos = packedBlockPositions[i];
+            val posLong = posLongFromPosXYZ(unpackBlockPosX(packedBlockPos),
+                                            unpackBlockPosY(packedBlockPos),
+                                            unpackBlockPosZ(packedBlockPos));
+            // Each position only needs to be checked once per pass
+            if (scheduledPositions.contains(posLong))
+                continue;
+
+            if (queuedLightingUpdates(lightType) >= maxLightUpdates) {
+                processFullUpdateQueue(lightType);
+                maxLightUpdates = lightType.isBlock() ? maxBlockLightUpdates : maxSkyLightUpdates;
+            }
+
+            scheduledPositions.add(posLong);
+            queue.add(posLong);
+            addQueuedChunk(lightType, posLong);
+            uniqueUpdates++;
+        }
+        metrics.addScheduledLightingUpdates(count);
+        metrics.addUniqueLightingUpdates(uniqueUpdates);
+    }
+
+    private long rangeVolume(LightType lightType) {
+        return lightType.isBlock() ? blockLightRangeVolume : skyLightRangeVolume;
+    }
+
+    /**
+     * @return size of the update queue, plus the amount of positions covered by the range queue
+     */
+    private long queuedLightingUpdates(LightType lightType) {
+        if (lightType.isBlock())
+            return blockLightUpdateQueue.size() + blockLightRangeVolume;
+        return skyLightUpdateQueue.size() + skyLightRangeVolume;
+    }
+
     public void scheduleLightingUpdatePostLock(@NotNull LightType lightType, int posX, int posY, int posZ) {
         scheduleLightingUpdatePostLock(lightType, posLongFromPosXYZ(posX, posY, posZ));
     }
@@ -797,18 +1653,119 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
     private void scheduleLightingUpdatePostLock(LightType lightType, long posLong) {
         final int maxLightUpdates;
         final LongList queue;
+        final PosHashSet scheduledPositions;
         if (lightType.isBlock()) {
             maxLightUpdates = maxBlockLightUpdates;
             queue = blockLightUpdateQueue;
+            scheduledPositions = blockLightScheduledPositions;
         } else {
             maxLightUpdates = maxSkyLightUpdates;
             queue = skyLightUpdateQueue;
+            scheduledPositions = skyLightScheduledPositions;
         }
 
-        if (queue.size() >= maxLightUpdates)
-            processLightingUpdatesForType(lightType);
+        metrics.addScheduledLightingUpdates(1);
+        // Each position only needs to be checked once per pass
+        if (scheduledPositions.contains(posLong))
+            return;
+
+        if (queuedLightingUpdates(lightType) >= maxLightUpdates)
+            processFullUpdateQueue(lightType);
 
+        scheduledPositions.add(posLong);
         queue.add(posLong);
+        addQueuedChunk(lightType, posLong);
+        metrics.addUniqueLightingUpdate();
+    }
+
+    @Override
+    public void beginBatch() {
+        awaitAsyncLightingUpdates();
+        acquireLock();
+        try {
+            batchDepth++;
+        } finally {
+            releaseLock();
+        }
+    }
+
+    @Override
+    public void endBatch() {
+        acquireLock();
+        try {
+            if (batchDepth == 0) {
+                LOG.error("Lighting batch ended without being started", new IllegalStateException());
+                return;
+            }
+            if (--batchDepth != 0)
+                return;
+        } finally {
+            releaseLock();
+        }
+
+        // Replays already update the columns as each recorded block update happens
+        val traceRecorder = beginTrace();
+        try {
+            for (val entry : batchedColumns.long2IntEntrySet()) {
+                val columnKey = entry.getLongKey();
+                updateSkyLightHeight((int) (columnKey >> 32), entry.getIntValue(), (int) columnKey);
+            }
+            batchedColumns.clear();
+        } finally {
+            endTrace(traceRecorder);
+        }
+        processLightingUpdatesForAllTypes(LightingTrigger.BATCH);
+    }
+
+    /**
+     * Starts recording all calls made to this engine, replacing any trace already being recorded without closing it.
+     */
+    public void startTrace(@NotNull LightingTraceRecorder traceRecorder) {
+        awaitAsyncLightingUpdates();
+        this.traceRecorder = traceRecorder;
+    }
+
+    /**
+     * Processes all queued updates and closes the trace being recorded.
+     *
+     * @return the closed trace, or {@code null} if none was being recorded, see {@link LightingTraceRecorder#isFailed()}
+     */
+    public @Nullable LightingTraceRecorder stopTrace() {
+        val traceRecorder = this.traceRecorder;
+        if (traceRecorder == null)
+            return null;
+
+        awaitAsyncLightingUpdates();
+        processLightingUpdatesForAllTypes(LightingTrigger.API);
+        this.traceRecorder = null;
+        traceRecorder.close();
+        return traceRecorder;
+    }
+
+    /**
+     * @return the recorder if the calling method should be recorded, in which case it must be paired with {@link #endTrace}
+     */
+    private @Nullable LightingTraceRecorder beginTrace() {
+        val traceRecorder = this.traceRecorder;
+        if (traceRecorder == null || isTraceSuppressed)
+            return null;
+        isTraceSuppressed = true;
+        return traceRecorder;
+    }
+
+    private void endTrace(@Nullable LightingTraceRecorder traceRecorder) {
+        if (traceRecorder != null)
+            isTraceSuppressed = false;
+    }
+
+    private static void traceChunkOp(LightingTraceRecorder traceRecorder, int op, LumiChunk chunk) {
+        traceRecorder.recordChunks(chunk.lumi$chunkPosX(), chunk.lumi$chunkPosZ(), TRACE_CHUNK_RADIUS);
+        traceRecorder.recordChunk(chunk);
+        traceRecorder.recordChunkOp(op, chunk);
+    }
+
+    public @NotNull PhosphorLightingMetrics metrics() {
+        return metrics;
     }
 
     @SideOnly(CLIENT)
@@ -817,8 +1774,10 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
     }
 
     private void acquireLock() {
-        if (lock.tryLock())
+        if (lock.tryLock()) {
+            metrics.applyRequestedReset();
             return;
+        }
 
         // If we cannot lock, something has gone wrong... Only one thread should ever acquire the lock.
         // Validate that we're on the right thread immediately so we can gather information.
@@ -827,7 +1786,7 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
         if (LumiConfig.ENABLE_ILLEGAL_THREAD_ACCESS_WARNINGS) {
             val currentThread = Thread.currentThread();
 
-            if (currentThread != updateThread) {
+            if (currentThread != updateThread && currentThread != asyncThread) {
                 val e = new IllegalAccessException(String.format("World is owned by '%s' (ID: %s)," +
                                                                  " but was accessed from thread '%s' (ID: %s)",
                                                                  updateThread.getName(),
@@ -848,42 +1807,567 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
 
         // Wait for the lock to be released. This will likely introduce unwanted stalls, but will mitigate the issue.
         lock.lock();
+        metrics.applyRequestedReset();
     }
 
     private void releaseLock() {
         lock.unlock();
     }
 
-    private void updateLighting(LightType lightType) {
+    private boolean updateLighting(LightType lightType, Profiler profiler, long deadlineNanos) {
+        return updateLighting(lightType, profiler, deadlineNanos, null);
+    }
+
+    /**
+     * @param nearChunks if present, only the updates in these chunks are processed, the others stay queued
+     * @return {@code false} if the pass ran out of time and was paused, or was not started at all
+     */
+    private boolean updateLighting(LightType lightType,
+                                   Profiler profiler,
+                                   long deadlineNanos,
+                                   @Nullable PosHashSet nearChunks) {
+        if (pausedLightType != null && !resumeLighting(profiler, deadlineNanos))
+            return false;
+
+        // Ranges are expanded one queue's worth at a time, each part fully propagated before the next is expanded.
+        // Near chunk passes only take the first part, as their far updates are held back in the deferred update queue.
+        do {
+            if (queuedLightingUpdates(lightType) == 0)
+                return true;
+            if (isPastDeadline(deadlineNanos))
+                return false;
+            if (!updateLightingPass(lightType, profiler, deadlineNanos, nearChunks))
+                return false;
+        } while (nearChunks == null && rangeVolume(lightType) != 0);
+        return true;
+    }
+
+    /**
+     * Expands the next part of the range queue and processes it together with the rest of the update queue.
+     *
+     * @return {@code false} if the pass ran out of time and was paused
+     */
+    private boolean updateLightingPass(LightType lightType,
+                                       Profiler profiler,
+                                       long deadlineNanos,
+                                       @Nullable PosHashSet nearChunks) {
+        val updateQueue = lightType.isBlock() ? blockLightUpdateQueue : skyLightUpdateQueue;
+        expandRangeEntries(lightType);
+        if (nearChunks != null) {
+            deferFarUpdates(updateQueue, nearChunks);
+            if (updateQueue.isEmpty()) {
+                restoreDeferredUpdates(lightType);
+                return true;
+            }
+        }
+
         currentLightType = lightType;
 
         profiler.startSection("lighting");
 
+        val passEvent = PhosphorLightingEvents.beginPass();
+        val queuedUpdates = updateQueue.size();
+        val visitedPositions = metrics.getVisitedPositions();
+        if (queuedUpdates >= MIN_LARGE_PASS_LIGHTING_UPDATES) {
+            lastLargePassNanos = System.nanoTime();
+            areQueuesTrimmed = false;
+        }
+
+        if (isParallel && traceRecorder == null) {
+            profiler.startSection("parallel");
+            propagateRegionsInParallel(lightType);
+            profiler.endSection();
+        }
+
         profiler.startSection("checking");
+        val checkingStartNanos = System.nanoTime();
         processUpdateQueue();
+        if (nearChunks != null)
+            restoreDeferredUpdates(lightType);
         processInitialDarkening();
         processInitialBrightening();
+        metrics.addChecking(System.nanoTime() - checkingStartNanos);
+        profiler.endSection();
+
+        val isComplete = propagateLighting(profiler, deadlineNanos);
+        // Region engines hand their dirty chunks to the owning engine instead
+        if (regionFrontier == null) {
+            flushDirtyChunks();
+            flushRenderUpdates();
+        }
+        PhosphorLightingEvents.commitPass(passEvent,
+                                          currentTrigger,
+                                          lightType,
+                                          queuedUpdates,
+                                          metrics.getVisitedPositions() - visitedPositions,
+                                          !isComplete);
         profiler.endSection();
+        return isComplete;
+    }
+
+    /**
+     * Moves all updates outside the near chunks from the update queue into the deferred update queue.
+     */
+    private void deferFarUpdates(LongList updateQueue, PosHashSet nearChunks) {
+        val updateQueueSize = updateQueue.size();
+        var nearUpdates = 0;
+        for (var i = 0; i < updateQueueSize; i++) {
+            val posLong = updateQueue.getLong(i);
+            val chunkPosX = posXFromPosLong(posLong) >> 4;
+            val chunkPosZ = posZFromPosLong(posLong) >> 4;
+            if (nearChunks.contains(ChunkCoordIntPair.chunkXZ2Int(chunkPosX, chunkPosZ))) {
+                updateQueue.set(nearUpdates++, posLong);
+            } else {
+                deferredUpdateQueue.add(posLong);
+            }
+        }
+        updateQueue.size(nearUpdates);
+    }
+
+    /**
+     * Puts the deferred updates back into the update queue, after it was drained.
+     */
+    private void restoreDeferredUpdates(LightType lightType) {
+        final LongList updateQueue;
+        final PosHashSet scheduledPositions;
+        if (lightType.isBlock()) {
+            updateQueue = blockLightUpdateQueue;
+            scheduledPositions = blockLightScheduledPositions;
+        } else {
+            updateQueue = skyLightUpdateQueue;
+            scheduledPositions = skyLightScheduledPositions;
+        }
+
+        val deferredUpdateQueueSize = deferredUpdateQueue.size();
+        for (var i = 0; i < deferredUpdateQueueSize; i++) {
+            val posLong = deferredUpdateQueue.getLong(i);
+            // Still unique, but processing the queue may have cleared the positions
+            scheduledPositions.add(posLong);
+            updateQueue.add(posLong);
+            addQueuedChunk(lightType, posLong);
+        }
+        deferredUpdateQueue.clear();
+    }
+
+    private boolean resumeLighting(Profiler profiler, long deadlineNanos) {
+        val lightType = pausedLightType;
+        assert lightType != null;
+        currentLightType = lightType;
+        pausedLightType = null;
+        if (!pausedChunks.isEmpty())
+            pausedChunks.resetQuick();
 
+        profiler.startSection("lighting");
+        val passEvent = PhosphorLightingEvents.beginPass();
+        val visitedPositions = metrics.getVisitedPositions();
+        val isComplete = propagateLighting(profiler, deadlineNanos);
+        flushDirtyChunks();
+        flushRenderUpdates();
+        PhosphorLightingEvents.commitPass(passEvent,
+                                          currentTrigger,
+                                          lightType,
+                                          0,
+                                          metrics.getVisitedPositions() - visitedPositions,
+                                          !isComplete);
+        profiler.endSection();
+        return isComplete;
+    }
+
+    /**
+     * @return {@code false} if the pass ran out of time and was paused
+     */
+    private boolean propagateLighting(Profiler profiler, long deadlineNanos) {
         // Iterate through enqueued updates (brightening and darkening in parallel)
         // from brightest to darkest so that we only need to iterate once
+        // Nothing is ever enqueued above the current index, so a paused pass resumes by simply starting over
+        passDarkeningNanos = 0;
+        passBrighteningNanos = 0;
         for (var queueIndex = MAX_LIGHT_VALUE; queueIndex >= 0; queueIndex--) {
             profiler.startSection("darkening");
-            processDarkeningQueue(queueIndex);
+            if (!processDarkeningQueue(queueIndex, deadlineNanos)) {
+                profiler.endSection();
+                pauseLighting();
+                metrics.addPropagation(passDarkeningNanos, passBrighteningNanos, true);
+                return false;
+            }
             profiler.endStartSection("brightening");
-            processBrighteningQueue(queueIndex);
+            if (!processBrighteningQueue(queueIndex, deadlineNanos)) {
+                profiler.endSection();
+                pauseLighting();
+                metrics.addPropagation(passDarkeningNanos, passBrighteningNanos, true);
+                return false;
+            }
             profiler.endSection();
         }
 
         cursor.isValid = false;
-        profiler.endSection();
+        metrics.addPropagation(passDarkeningNanos, passBrighteningNanos, false);
+
+        // Region engines are trimmed along with the engine which owns them
+        if (regionFrontier == null)
+            trimQueuesIfIdle();
+        return true;
+    }
+
+    /**
+     * Records a changed position, it is marked for a render update by the next {@link #flushRenderUpdates()}.
+     */
+    private void markBlockForRenderUpdate(int posX, int posY, int posZ) {
+        // Render updates are a no-op on the server
+        if (renderUpdateBounds == null)
+            return;
+
+        val subChunkPosX = posX & 15;
+        val subChunkPosY = posY & 15;
+        val subChunkPosZ = posZ & 15;
+        val subChunkPosLong = posLongFromPosXYZ(posX - subChunkPosX, posY - subChunkPosY, posZ - subChunkPosZ);
+
+        val bounds = renderUpdateBounds.get(subChunkPosLong);
+        if (bounds == NO_RENDER_UPDATE_BOUNDS) {
+            val pos = subChunkPosX | subChunkPosY << 4 | subChunkPosZ << 8;
+            renderUpdateBounds.put(subChunkPosLong, pos | pos << 12);
+            return;
+        }
+
+        val minX = Math.min(bounds & 15, subChunkPosX);
+        val minY = Math.min(bounds >> 4 & 15, subChunkPosY);
+        val minZ = Math.min(bounds >> 8 & 15, subChunkPosZ);
+        val maxX = Math.max(bounds >> 12 & 15, subChunkPosX);
+        val maxY = Math.max(bounds >> 16 & 15, subChunkPosY);
+        val maxZ = Math.max(bounds >> 20 & 15, subChunkPosZ);
+        val newBounds = minX | minY << 4 | minZ << 8 | maxX << 12 | maxY << 16 | maxZ << 20;
+        if (newBounds != bounds)
+            renderUpdateBounds.put(subChunkPosLong, newBounds);
+    }
+
+    /**
+     * Marks the changed bounds of every sub chunk recorded since the last flush for a render update.
+     */
+    private void flushRenderUpdates() {
+        if (renderUpdateBounds == null || renderUpdateBounds.isEmpty())
+            return;
+
+        for (val entry : renderUpdateBounds.long2IntEntrySet()) {
+            val subChunkPosLong = entry.getLongKey();
+            val bounds = entry.getIntValue();
+
+            val basePosX = posXFromPosLong(subChunkPosLong);
+            val basePosY = (int) (subChunkPosLong >> POS_Y_BIT_SHIFT & POS_Y_BIT_MASK);
+            val basePosZ = posZFromPosLong(subChunkPosLong);
+            worldRoot.lumi$markBlockRangeForRenderUpdate(basePosX + (bounds & 15),
+                                                         basePosY + (bounds >> 4 & 15),
+                                                         basePosZ + (bounds >> 8 & 15),
+                                                         basePosX + (bounds >> 12 & 15),
+                                                         basePosY + (bounds >> 16 & 15),
+                                                         basePosZ + (bounds >> 20 & 15));
+        }
+        renderUpdateBounds.clear();
+    }
+
+    private void pauseLighting() {
+        pausedLightType = currentLightType;
+        cursor.isValid = false;
+
+        for (var i = 0; i < LIGHT_VALUE_RANGE; i++) {
+            addPausedChunks(brighteningQueues[i]);
+            addPausedChunks(darkeningQueues[i]);
+        }
+    }
+
+    private void addPausedChunks(LongList queue) {
+        val queueSize = queue.size();
+        for (var i = 0; i < queueSize; i++) {
+            val posLong = queue.getLong(i);
+            pausedChunks.add(ChunkCoordIntPair.chunkXZ2Int(posXFromPosLong(posLong) >> 4, posZFromPosLong(posLong) >> 4));
+        }
+    }
+
+    /**
+     * Expands the range queue into the update queue one row at a time, skipping positions already present,
+     * until the update queue reaches its maximum size.
+     * <p>
+     * The rest of a partially expanded range is queued again as up to two ranges, to be expanded by the next pass.
+     */
+    private void expandRangeEntries(LightType lightType) {
+        final LongArrayList updateQueue;
+        final PosHashSet scheduledPositions;
+        final LongArrayList rangeQueue;
+        final int maxLightUpdates;
+        if (lightType.isBlock()) {
+            updateQueue = blockLightUpdateQueue;
+            scheduledPositions = blockLightScheduledPositions;
+            rangeQueue = blockLightRangeQueue;
+            maxLightUpdates = maxBlockLightUpdates;
+        } else {
+            updateQueue = skyLightUpdateQueue;
+            scheduledPositions = skyLightScheduledPositions;
+            rangeQueue = skyLightRangeQueue;
+            maxLightUpdates = maxSkyLightUpdates;
+        }
+
+        var expandedVolume = 0L;
+        expansion:
+        while (!rangeQueue.isEmpty() && updateQueue.size() < maxLightUpdates) {
+            val rangeQueueSize = rangeQueue.size();
+            val minPosLong = rangeQueue.getLong(rangeQueueSize - 2);
+            val maxPosLong = rangeQueue.getLong(rangeQueueSize - 1);
+            rangeQueue.size(rangeQueueSize - 2);
+
+            val minPosX = posXFromPosLong(minPosLong);
+            val minPosY = (int) (minPosLong >> POS_Y_BIT_SHIFT & POS_Y_BIT_MASK);
+            val minPosZ = posZFromPosLong(minPosLong);
+            val maxPosX = posXFromPosLong(maxPosLong);
+            val maxPosY = (int) (maxPosLong >> POS_Y_BIT_SHIFT & POS_Y_BIT_MASK);
+            val maxPosZ = posZFromPosLong(maxPosLong);
+            for (var posY = minPosY; posY <= maxPosY; posY++) {
+                for (var posZ = minPosZ; posZ <= maxPosZ; posZ++) {
+                    for (var posX = minPosX; posX <= maxPosX; posX++) {
+                        val posLong = posLongFromPosXYZ(posX, posY, posZ);
+                        if (scheduledPositions.add(posLong)) {
+                            updateQueue.add(posLong);
+                            metrics.addUniqueLightingUpdate();
+                        }
+                    }
+                    expandedVolume += maxPosX - minPosX + 1;
+                    if (updateQueue.size() < maxLightUpdates)
+                        continue;
+
+                    // Queue the rest of the current layer, then the layers above it
+                    if (posY < maxPosY) {
+                        rangeQueue.add(posLongFromPosXYZ(minPosX, posY + 1, minPosZ));
+                        rangeQueue.add(maxPosLong);
+                    }
+                    if (posZ < maxPosZ) {
+                        rangeQueue.add(posLongFromPosXYZ(minPosX, posY, posZ + 1));
+                        rangeQueue.add(posLongFromPosXYZ(maxPosX, posY, maxPosZ));
+                    }
+                    break expansion;
+                }
+            }
+        }
+
+        if (lightType.isBlock()) {
+            blockLightRangeVolume -= expandedVolume;
+        } else {
+            skyLightRangeVolume -= expandedVolume;
+        }
+    }
+
+    /**
+     * Splits the update queue by region and fully propagates each region on its own, in parallel.
+     * <p>
+     * Everything touching the world outside of the light values is done here on the owning thread:
+     * the chunks of each region are resolved up front, updates in sub chunks which are not prepared yet stay queued,
+     * and the dirty chunks and metrics of the region engines are collected once they are done.
+     * <p>
+     * Afterwards, the update queue only contains the region frontiers and the kept updates,
+     * which are then handled by the regular serial pass.
+     */
+    private void propagateRegionsInParallel(LightType lightType) {
+        assert regionEngines != null;
+
+        final LongList updateQueue;
+        final PosHashSet scheduledPositions;
+        if (lightType.isBlock()) {
+            updateQueue = blockLightUpdateQueue;
+            scheduledPositions = blockLightScheduledPositions;
+        } else {
+            updateQueue = skyLightUpdateQueue;
+            scheduledPositions = skyLightScheduledPositions;
+        }
+        val updateQueueSize = updateQueue.size();
+        if (updateQueueSize < MIN_PARALLEL_LIGHTING_UPDATES)
+            return;
+
+        val regions = new Long2ObjectOpenHashMap<LongList>();
+        val serialUpdates = new LongArrayList();
+        for (var i = 0; i < updateQueueSize; i++) {
+            val posLong = updateQueue.getLong(i);
+            val chunkPosX = posXFromPosLong(posLong) >> 4;
+            val chunkPosZ = posZFromPosLong(posLong) >> 4;
+            val chunk = getCachedChunk(posLong & BLOCK_POS_CHUNK_BIT_MASK, chunkPosX, chunkPosZ);
+            val chunkPosY = (int) (posLong >> POS_Y_BIT_SHIFT & POS_Y_BIT_MASK) >> 4;
+            // Preparing a sub chunk touches the world, so the serial pass does it
+            if (chunk == null || chunk.lumi$getSubChunkIfPrepared(chunkPosY) == null) {
+                serialUpdates.add(posLong);
+                continue;
+            }
+
+            val regionKey = regionKeyFromPosLong(posLong);
+            var regionQueue = regions.get(regionKey);
+            if (regionQueue == null) {
+                regionQueue = new LongArrayList();
+                regions.put(regionKey, regionQueue);
+            }
+            regionQueue.add(posLong);
+        }
+        // Nothing to gain, keep it serial
+        if (regions.size() < 2)
+            return;
+
+        updateQueue.clear();
+        scheduledPositions.resetQuick();
+        val serialUpdatesSize = serialUpdates.size();
+        for (var i = 0; i < serialUpdatesSize; i++) {
+            val posLong = serialUpdates.getLong(i);
+            scheduledPositions.add(posLong);
+            updateQueue.add(posLong);
+        }
+
+        val engines = new ArrayList<PhosphorLightingEngine>(regions.size());
+        val tasks = new ArrayList<ForkJoinTask<LongList>>(regions.size());
+        try {
+            for (val region : regions.long2ObjectEntrySet()) {
+                var regionEngine = regionEngines.poll();
+                if (regionEngine == null)
+                    regionEngine = new PhosphorLightingEngine(world, new Profiler(), true);
+                engines.add(regionEngine);
+                prepareRegion(regionEngine, region.getLongKey());
+
+                val engine = regionEngine;
+                val regionQueue = region.getValue();
+                tasks.add(ForkJoinTask.adapt(() -> engine.propagateRegionUpdates(lightType, regionQueue)));
+            }
+            parallelLightingPool().invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+
+            for (var i = 0; i < tasks.size(); i++) {
+                val frontier = tasks.get(i).join();
+                val frontierSize = frontier.size();
+                for (var j = 0; j < frontierSize; j++) {
+                    val posLong = frontier.getLong(j);
+                    if (scheduledPositions.add(posLong))
+                        updateQueue.add(posLong);
+                }
+
+                val regionEngine = engines.get(i);
+                dirtyChunkRoots.addAll(regionEngine.dirtyChunkRoots);
+                metrics.drainFrom(regionEngine.metrics);
+            }
+        } finally {
+            for (val regionEngine : engines) {
+                regionEngine.releaseRegion();
+                regionEngines.offer(regionEngine);
+            }
+        }
+    }
+
+    /**
+     * Resolves the chunks of a region for a region engine, on the owning thread.
+     */
+    private void prepareRegion(PhosphorLightingEngine regionEngine, long regionKey) {
+        assert regionEngine.regionChunks != null;
+
+        val regionPosX = (int) (regionKey >> 32);
+        val regionPosZ = (int) regionKey;
+        regionEngine.regionPosX = regionPosX;
+        regionEngine.regionPosZ = regionPosZ;
+
+        val baseChunkPosX = regionPosX << REGION_SIZE_CHUNK_BIT_SHIFT;
+        val baseChunkPosZ = regionPosZ << REGION_SIZE_CHUNK_BIT_SHIFT;
+        for (var chunkPosZ = baseChunkPosZ; chunkPosZ < baseChunkPosZ + REGION_SIZE_CHUNKS; chunkPosZ++) {
+            for (var chunkPosX = baseChunkPosX; chunkPosX < baseChunkPosX + REGION_SIZE_CHUNKS; chunkPosX++) {
+                val chunkPosLong = posLongFromPosXYZ(chunkPosX << 4, 0, chunkPosZ << 4) & BLOCK_POS_CHUNK_BIT_MASK;
+                regionEngine.regionChunks[regionChunkIndex(chunkPosX, chunkPosZ)] = getCachedChunk(chunkPosLong,
+                                                                                                   chunkPosX,
+                                                                                                   chunkPosZ);
+            }
+        }
+    }
+
+    /**
+     * Drops any references into the world kept by a region engine, once it is done.
+     */
+    private void releaseRegion() {
+        assert regionChunks != null && regionFrontier != null;
+
+        Arrays.fill(regionChunks, null);
+        regionFrontier.clear();
+        dirtyChunkRoots.clear();
+        lastDirtyChunk = null;
+        resetBlockReferences();
+    }
+
+    /**
+     * Runs on a worker thread, only ever reading blocks and writing light values within already prepared sub chunks.
+     */
+    private LongList propagateRegionUpdates(LightType lightType, LongList regionQueue) {
+        assert regionFrontier != null;
+
+        if (lightType.isBlock()) {
+            blockLightUpdateQueue.addAll(regionQueue);
+        } else {
+            skyLightUpdateQueue.addAll(regionQueue);
+        }
+        currentTrigger = LightingTrigger.REGION;
+        updateLighting(lightType, profiler, NO_DEADLINE);
+        resetBlockReferences();
+
+        return new LongArrayList(regionFrontier);
+    }
+
+    /**
+     * Hands a position back to the serial pass, along with the cursor it was reached from.
+     *
+     * @return always {@code false}, as the position is not valid within the region
+     */
+    private boolean deferToSerialPass(long posLong) {
+        assert regionFrontier != null;
+
+        // Both sides of the edge get checked again once all regions are merged
+        regionFrontier.add(posLong & BLOCK_POS_BIT_MASK);
+        regionFrontier.add(cursor.data & BLOCK_POS_BIT_MASK);
+        return false;
+    }
+
+    private static int regionChunkIndex(int chunkPosX, int chunkPosZ) {
+        return (chunkPosX & REGION_CHUNK_POS_BIT_MASK) | (chunkPosZ & REGION_CHUNK_POS_BIT_MASK) << REGION_SIZE_CHUNK_BIT_SHIFT;
+    }
+
+    private boolean isInRegion(int chunkPosX, int chunkPosZ) {
+        return chunkPosX >> REGION_SIZE_CHUNK_BIT_SHIFT == regionPosX &&
+               chunkPosZ >> REGION_SIZE_CHUNK_BIT_SHIFT == regionPosZ;
+    }
+
+    private static long regionKeyFromPosLong(long posLong) {
+        val regionPosX = posXFromPosLong(posLong) >> 4 >> REGION_SIZE_CHUNK_BIT_SHIFT;
+        val regionPosZ = posZFromPosLong(posLong) >> 4 >> REGION_SIZE_CHUNK_BIT_SHIFT;
+        return ((long) regionPosX << 32) | (regionPosZ & 0xFFFFFFFFL);
+    }
+
+    private static ForkJoinPool parallelLightingPool() {
+        return ParallelLightingPoolHolder.POOL;
+    }
+
+    private static final class ParallelLightingPoolHolder {
+        private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+        private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+            val thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("Lumi Parallel Lighting Thread #" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
     }
 
     private void processUpdateQueue() {
         assert currentLightType != null;
 
         // Process the queued updates and enqueue them for further processing
-        val updateQueue = currentLightType.isBlock() ? blockLightUpdateQueue : skyLightUpdateQueue;
+        final LongList updateQueue;
+        final PosHashSet scheduledPositions;
+        if (currentLightType.isBlock()) {
+            updateQueue = blockLightUpdateQueue;
+            scheduledPositions = blockLightScheduledPositions;
+        } else {
+            updateQueue = skyLightUpdateQueue;
+            scheduledPositions = skyLightScheduledPositions;
+        }
+        // The whole queue is drained below, so the positions may be scheduled again from here on
+        if (!scheduledPositions.isEmpty())
+            scheduledPositions.resetQuick();
+        // Chunks covered by ranges which are not expanded yet still hold queued updates
+        val queuedChunks = currentLightType.isBlock() ? blockLightQueuedChunks : skyLightQueuedChunks;
+        if (!queuedChunks.isEmpty() && rangeVolume(currentLightType) == 0)
+            queuedChunks.resetQuick();
         setQueue(updateQueue);
         while (nextItem()) {
             val cursorUpdatedLightValue = getCursorUpdatedLightValue();
@@ -922,9 +2406,18 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
         }
     }
 
-    private void processDarkeningQueue(int queueIndex) {
-        setQueue(darkeningQueues[queueIndex]);
-        while (nextItem()) {
+    /**
+     * @return {@code false} if the deadline was reached before the queue was empty
+     */
+    private boolean processDarkeningQueue(int queueIndex, long deadlineNanos) {
+        val queue = darkeningQueues[queueIndex];
+        if (queue.isEmpty())
+            return true;
+
+        val startNanos = System.nanoTime();
+        metrics.addDarkeningQueueSize(queueIndex, queue.size());
+        setQueue(queue);
+        while (nextItem(deadlineNanos)) {
             // Don't darken if we got brighter due to some other change
             if (cursor.lightValue >= queueIndex)
                 continue;
@@ -968,18 +2461,31 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
             // Schedule brightening since light level was set to 0
             enqueueBrighteningFromCursor(newLightValue);
         }
+        passDarkeningNanos += System.nanoTime() - startNanos;
+        return queue.isEmpty();
     }
 
-    private void processBrighteningQueue(int queueIndex) {
-        setQueue(brighteningQueues[queueIndex]);
-        while (nextItem()) {
+    /**
+     * @return {@code false} if the deadline was reached before the queue was empty
+     */
+    private boolean processBrighteningQueue(int queueIndex, long deadlineNanos) {
+        val queue = brighteningQueues[queueIndex];
+        if (queue.isEmpty())
+            return true;
+
+        val startNanos = System.nanoTime();
+        metrics.addBrighteningQueueSize(queueIndex, queue.size());
+        setQueue(queue);
+        while (nextItem(deadlineNanos)) {
             // Only process this if nothing else has happened at this position since scheduling
             if (cursor.lightValue == queueIndex) {
-                worldRoot.lumi$markBlockForRenderUpdate(cursor.posX, cursor.posY, cursor.posZ);
+                markBlockForRenderUpdate(cursor.posX, cursor.posY, cursor.posZ);
                 if (queueIndex > 1)
                     spreadLightFromCursor(queueIndex);
             }
         }
+        passBrighteningNanos += System.nanoTime() - startNanos;
+        return queue.isEmpty();
     }
 
     private void updateNeighborBlocks() {
@@ -1049,8 +2555,8 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
         val subChunkPosZ = posZ & 15;
 
         brighteningQueues[lightValue].add(posLong);
-        chunk.lumi$setLightValue(currentLightType, subChunkPosX, posY, subChunkPosZ, lightValue);
-        chunk.lumi$root().lumi$markDirty();
+        chunk.lumi$setLightValueWithoutMarkingDirty(currentLightType, subChunkPosX, posY, subChunkPosZ, lightValue);
+        markChunkDirty(chunk);
     }
 
     private void enqueueDarkening(int posX, int posY, int posZ, long posLong, int oldLightValue, LumiChunk chunk) {
@@ -1060,8 +2566,28 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
         val subChunkPosZ = posZ & 15;
 
         darkeningQueues[oldLightValue].add(posLong);
-        chunk.lumi$setLightValue(currentLightType, subChunkPosX, posY, subChunkPosZ, MIN_LIGHT_VALUE);
-        chunk.lumi$root().lumi$markDirty();
+        chunk.lumi$setLightValueWithoutMarkingDirty(currentLightType, subChunkPosX, posY, subChunkPosZ, MIN_LIGHT_VALUE);
+        markChunkDirty(chunk);
+    }
+
+    private void markChunkDirty(LumiChunk chunk) {
+        if (chunk == lastDirtyChunk)
+            return;
+        lastDirtyChunk = chunk;
+        dirtyChunkRoots.add(chunk.lumi$root());
+    }
+
+    /**
+     * Marks every chunk written to since the last flush dirty.
+     */
+    private void flushDirtyChunks() {
+        lastDirtyChunk = null;
+        if (dirtyChunkRoots.isEmpty())
+            return;
+
+        for (val chunkRoot : dirtyChunkRoots)
+            chunkRoot.lumi$markDirty();
+        dirtyChunkRoots.clear();
     }
 
     private void setQueue(LongList queue) {
@@ -1070,6 +2596,22 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
         currentQueueIndex = 0;
     }
 
+    private static boolean isPastDeadline(long deadlineNanos) {
+        return deadlineNanos != NO_DEADLINE && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    private boolean nextItem(long deadlineNanos) {
+        if (deadlineNanos != NO_DEADLINE &&
+            (++itemsSinceDeadlineCheck & DEADLINE_CHECK_INTERVAL_MASK) == 0 &&
+            isPastDeadline(deadlineNanos)) {
+            assert currentQueue != null;
+            // Keep the remaining entries for when the pass is resumed
+            currentQueue.removeElements(0, currentQueueIndex);
+            return false;
+        }
+        return nextItem();
+    }
+
     private boolean nextItem() {
         areNeighboursBlocksValid = false;
 
@@ -1077,8 +2619,10 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
         while (currentQueueIndex < currentQueueSize) {
             val isValid = cursor.updateCursor(currentQueue.getLong(currentQueueIndex));
             currentQueueIndex++;
-            if (isValid)
+            if (isValid) {
+                metrics.addVisitedPosition();
                 return true;
+            }
         }
 
         currentQueue.clear();
@@ -1112,6 +2656,7 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
         LumiSubChunk subChunk = null;
 
         LumiSubChunkRoot subChunkRoot = null;
+        LumiSubChunkImpl subChunkImpl = null;
 
         Block block;
         int blockMeta;
@@ -1139,6 +2684,7 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
             this.chunk = cursor.chunk;
             this.subChunk = cursor.subChunk;
             this.subChunkRoot = cursor.subChunkRoot;
+            this.subChunkImpl = cursor.subChunkImpl;
         }
 
         void updateNeighbour() {
@@ -1155,9 +2701,9 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
         }
 
         void updatePos() {
-            this.posX = (int) ((data >> POS_X_BIT_SHIFT & POS_X_BIT_MASK) - (1L << POS_X_BIT_LENGTH - 1L));
+            this.posX = posXFromPosLong(data);
             this.posY = (int) (data >> POS_Y_BIT_SHIFT & POS_Y_BIT_MASK);
-            this.posZ = (int) ((data >> POS_Z_BIT_SHIFT & POS_Z_BIT_MASK) - (1L << POS_Z_BIT_LENGTH - 1L));
+            this.posZ = posZFromPosLong(data);
         }
 
         boolean updateChunk() {
@@ -1165,11 +2711,18 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
             if (chunk == null || this.chunkLongPos != chunkPosLong) {
                 val chunkPosX = posX >> 4;
                 val chunkPosZ = posZ >> 4;
-                this.chunk = world.lumi$getChunkFromChunkPosIfExists(chunkPosX, chunkPosZ);
+                if (regionChunks != null) {
+                    if (!isInRegion(chunkPosX, chunkPosZ))
+                        return deferToSerialPass(data);
+                    this.chunk = regionChunks[regionChunkIndex(chunkPosX, chunkPosZ)];
+                } else {
+                    this.chunk = getCachedChunk(chunkPosLong, chunkPosX, chunkPosZ);
+                }
                 if (chunk == null)
                     return false;
                 this.subChunk = null;
                 this.subChunkRoot = null;
+                this.subChunkImpl = null;
             }
 
             this.chunkLongPos = chunkPosLong;
@@ -1180,9 +2733,14 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
             // We can only re-use the subchunk, if we are re-using the chunk itself.
             val chunkPosY = posY >> 4;
             if (!(this.chunkPosY == chunkPosY && subChunk != null)) {
-                this.subChunk = chunk.lumi$getSubChunk(chunkPosY);
-                this.subChunkRoot = subChunk.lumi$root();
+                // Missing sub chunks are read as implicit defaults, they are only prepared once written to
+                this.subChunk = chunk.lumi$getSubChunkIfPrepared(chunkPosY);
+                this.subChunkRoot = subChunk == null ? null : subChunk.lumi$root();
+                this.subChunkImpl = useBlockBits && subChunkRoot instanceof LumiSubChunkImpl ? (LumiSubChunkImpl) subChunkRoot : null;
             }
+            // Region engines may not prepare sub chunks, so they leave the missing ones to the serial pass
+            if (subChunk == null && regionChunks != null)
+                return deferToSerialPass(data);
             this.chunkPosY = chunkPosY;
 
             this.subChunkPosX = posX & 15;
@@ -1191,25 +2749,78 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
             return true;
         }
 
+        @SuppressWarnings("CastToIncompatibleInterface")
         boolean updateBlock() {
-            this.block = subChunkRoot.lumi$getBlock(subChunkPosX, subChunkPosY, subChunkPosZ);
-            this.blockMeta = subChunkRoot.lumi$getBlockMeta(subChunkPosX, subChunkPosY, subChunkPosZ);
+            if (subChunkImpl != null && updateBlockFromBits())
+                return true;
+
+            if (subChunkRoot != null) {
+                this.block = subChunkRoot.lumi$getBlock(subChunkPosX, subChunkPosY, subChunkPosZ);
+                this.blockMeta = subChunkRoot.lumi$getBlockMeta(subChunkPosX, subChunkPosY, subChunkPosZ);
+            } else {
+                this.block = Blocks.air;
+                this.blockMeta = 0;
+            }
+            // Positional light properties may access tile entities, which is not thread safe
+            if (regionChunks != null && ((LumiBlockImpl) block).lumi$hasPositionalLightProperties())
+                return deferToSerialPass(data);
             if (currentLightType.isBlock()) {
                 this.brightnessValue = clampLightValue(chunk.lumi$getBlockBrightness(block, blockMeta, subChunkPosX, posY, subChunkPosZ));
-                this.lightValue = subChunk.lumi$getBlockLightValue(subChunkPosX, subChunkPosY, subChunkPosZ);
+                if (subChunk != null) {
+                    this.lightValue = subChunk.lumi$getBlockLightValue(subChunkPosX, subChunkPosY, subChunkPosZ);
+                } else {
+                    this.lightValue = MIN_LIGHT_VALUE;
+                }
             } else {
                 if (chunk.lumi$canBlockSeeSky(subChunkPosX, posY, subChunkPosZ)) {
                     this.brightnessValue = MAX_LIGHT_VALUE;
                 } else {
                     this.brightnessValue = MIN_LIGHT_VALUE;
                 }
-                this.lightValue = subChunk.lumi$getSkyLightValue(subChunkPosX, subChunkPosY, subChunkPosZ);
+                if (subChunk != null) {
+                    this.lightValue = subChunk.lumi$getSkyLightValue(subChunkPosX, subChunkPosY, subChunkPosZ);
+                } else {
+                    this.lightValue = brightnessValue;
+                }
             }
 
             this.opacityValue = clampBlockLightOpacity(chunk.lumi$getBlockOpacity(block, blockMeta, subChunkPosX, posY, subChunkPosZ));
             return true;
         }
 
+        /**
+         * Skips the block lookups for air in empty sub chunks and for opaque blocks that do not emit light.
+         *
+         * @return {@code false} if the block has to be looked up
+         */
+        boolean updateBlockFromBits() {
+            if (subChunkImpl.lumi$hasNoBlocks()) {
+                this.block = Blocks.air;
+                this.opacityValue = MIN_BLOCK_LIGHT_OPACITY;
+            } else {
+                val index = SubChunkBitSet.index(subChunkPosX, subChunkPosY, subChunkPosZ);
+                if (!subChunkImpl.lumi$opaqueBlocks().get(index) || subChunkImpl.lumi$lightEmittingBlocks().get(index))
+                    return false;
+                // Never read in this state, only the light values are needed for opaque blocks
+                this.block = null;
+                this.opacityValue = MAX_BLOCK_LIGHT_OPACITY;
+            }
+            this.blockMeta = 0;
+
+            if (currentLightType.isBlock()) {
+                this.brightnessValue = MIN_LIGHT_VALUE;
+                this.lightValue = subChunk.lumi$getBlockLightValue(subChunkPosX, subChunkPosY, subChunkPosZ);
+            } else {
+                if (chunk.lumi$canBlockSeeSky(subChunkPosX, posY, subChunkPosZ)) {
+                    this.brightnessValue = MAX_LIGHT_VALUE;
+                } else {
+                    this.brightnessValue = MIN_LIGHT_VALUE;
+                }
+                this.lightValue = subChunk.lumi$getSkyLightValue(subChunkPosX, subChunkPosY, subChunkPosZ);
+            }
+            return true;
+        }
+
         void reset() {
             isValid = false;
 
@@ -1230,6 +2841,7 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
 
             subChunk = null;
             subChunkRoot = null;
+            subChunkImpl = null;
 
             block = null;
             blockMeta = 0;
@@ -1245,6 +2857,14 @@ public final class PhosphorLightingEngine implements LumiLightingEngine {
     }
     // endregion
 
+    private static int posXFromPosLong(long posLong) {
+        return (int) ((posLong >> POS_X_BIT_SHIFT & POS_X_BIT_MASK) - (1L << POS_X_BIT_LENGTH - 1L));
+    }
+
+    private static int posZFromPosLong(long posLong) {
+        return (int) ((posLong >> POS_Z_BIT_SHIFT & POS_Z_BIT_MASK) - (1L << POS_Z_BIT_LENGTH - 1L));
+    }
+
     private static long posLongFromPosXYZ(int posX, int posY, int posZ) {
         // The additional logic is needed as the X and Z may be negative, and this preserves the sign value.
         return ((long) posX + (1L << POS_X_BIT_LENGTH - 1L) << POS_X_BIT_SHIFT) |
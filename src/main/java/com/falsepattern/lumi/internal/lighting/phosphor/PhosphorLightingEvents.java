@@ -0,0 +1,244 @@
+/*
+ * Lumi
+ *
+ * Copyright (C) 2023-2025 FalsePattern, Ven
+ * All Rights Reserved
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, only version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.falsepattern.lumi.internal.lighting.phosphor;
+
+import com.falsepattern.lumi.api.lighting.LightType;
+import lombok.experimental.UtilityClass;
+import lombok.val;
+import lombok.var;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.falsepattern.lumi.internal.Lumi.createLogger;
+
+/**
+ * Java Flight Recorder events for lighting passes and flushes.
+ * <p>
+ * The event types are defined at runtime through {@code jdk.jfr.EventFactory}, as the JFR API is not available on every
+ * Java 8 runtime. Without it, or while the events are disabled in the recording settings, nothing is allocated and
+ * the {@code begin} methods return {@code null}.
+ */
+@UtilityClass
+final class PhosphorLightingEvents {
+    private static final Logger LOG = createLogger("JFR");
+
+    private static final int PASS_TRIGGER = 0;
+    private static final int PASS_LIGHT_TYPE = 1;
+    private static final int PASS_QUEUED_UPDATES = 2;
+    private static final int PASS_VISITED_POSITIONS = 3;
+    private static final int PASS_PAUSED = 4;
+
+    private static final int FLUSH_TRIGGER = 0;
+    private static final int FLUSH_BLOCK_LIGHT_UPDATES = 1;
+    private static final int FLUSH_SKY_LIGHT_UPDATES = 2;
+    private static final int FLUSH_VISITED_POSITIONS = 3;
+
+    private static final @Nullable MethodHandle NEW_EVENT;
+    private static final @Nullable MethodHandle IS_ENABLED;
+    private static final @Nullable MethodHandle BEGIN;
+    private static final @Nullable MethodHandle SET;
+    private static final @Nullable MethodHandle COMMIT;
+
+    private static final @Nullable Object PASS_FACTORY;
+    private static final @Nullable Object PASS_PROTOTYPE;
+    private static final @Nullable Object FLUSH_FACTORY;
+    private static final @Nullable Object FLUSH_PROTOTYPE;
+
+    static {
+        MethodHandle newEvent = null;
+        MethodHandle isEnabled = null;
+        MethodHandle begin = null;
+        MethodHandle set = null;
+        MethodHandle commit = null;
+        Object passFactory = null;
+        Object passPrototype = null;
+        Object flushFactory = null;
+        Object flushPrototype = null;
+        try {
+            val lookup = MethodHandles.publicLookup();
+            val eventClass = Class.forName("jdk.jfr.Event");
+            val eventFactoryClass = Class.forName("jdk.jfr.EventFactory");
+
+            newEvent = lookup.findVirtual(eventFactoryClass, "newEvent", MethodType.methodType(eventClass))
+                             .asType(MethodType.methodType(Object.class, Object.class));
+            isEnabled = lookup.findVirtual(eventClass, "isEnabled", MethodType.methodType(boolean.class))
+                              .asType(MethodType.methodType(boolean.class, Object.class));
+            begin = lookup.findVirtual(eventClass, "begin", MethodType.methodType(void.class))
+                          .asType(MethodType.methodType(void.class, Object.class));
+            set = lookup.findVirtual(eventClass, "set", MethodType.methodType(void.class, int.class, Object.class))
+                        .asType(MethodType.methodType(void.class, Object.class, int.class, Object.class));
+            commit = lookup.findVirtual(eventClass, "commit", MethodType.methodType(void.class))
+                           .asType(MethodType.methodType(void.class, Object.class));
+
+            val factory = new EventFactoryBuilder(lookup, eventFactoryClass);
+            passFactory = factory.create("com.falsepattern.lumi.LightingPass",
+                                         "Lighting Pass",
+                                         "A single propagation pass of one light type",
+                                         String.class, "trigger", "Trigger",
+                                         String.class, "lightType", "Light Type",
+                                         int.class, "queuedUpdates", "Queued Updates",
+                                         long.class, "visitedPositions", "Visited Positions",
+                                         boolean.class, "paused", "Paused");
+            flushFactory = factory.create("com.falsepattern.lumi.LightingFlush",
+                                          "Lighting Flush",
+                                          "Processing of the queued lighting updates, including all passes",
+                                          String.class, "trigger", "Trigger",
+                                          int.class, "blockLightUpdates", "Queued Block Light Updates",
+                                          int.class, "skyLightUpdates", "Queued Sky Light Updates",
+                                          long.class, "visitedPositions", "Visited Positions");
+            passPrototype = (Object) newEvent.invokeExact(passFactory);
+            flushPrototype = (Object) newEvent.invokeExact(flushFactory);
+        } catch (ClassNotFoundException e) {
+            LOG.debug("Java Flight Recorder is not available, lighting events are disabled");
+        } catch (Throwable t) {
+            LOG.warn("Failed to define Java Flight Recorder lighting events", t);
+            passFactory = null;
+            flushFactory = null;
+        }
+        NEW_EVENT = newEvent;
+        IS_ENABLED = isEnabled;
+        BEGIN = begin;
+        SET = set;
+        COMMIT = commit;
+        PASS_FACTORY = passFactory;
+        PASS_PROTOTYPE = passFactory == null ? null : passPrototype;
+        FLUSH_FACTORY = flushFactory;
+        FLUSH_PROTOTYPE = flushFactory == null ? null : flushPrototype;
+    }
+
+    static @Nullable Object beginPass() {
+        return begin(PASS_FACTORY, PASS_PROTOTYPE);
+    }
+
+    static void commitPass(@Nullable Object event,
+                           LightingTrigger trigger,
+                           LightType lightType,
+                           int queuedUpdates,
+                           long visitedPositions,
+                           boolean isPaused) {
+        if (event == null)
+            return;
+        commit(event,
+               PASS_TRIGGER, trigger.name(),
+               PASS_LIGHT_TYPE, lightType.name(),
+               PASS_QUEUED_UPDATES, queuedUpdates,
+               PASS_VISITED_POSITIONS, visitedPositions,
+               PASS_PAUSED, isPaused);
+    }
+
+    static @Nullable Object beginFlush() {
+        return begin(FLUSH_FACTORY, FLUSH_PROTOTYPE);
+    }
+
+    static void commitFlush(@Nullable Object event,
+                            LightingTrigger trigger,
+                            int blockLightUpdates,
+                            int skyLightUpdates,
+                            long visitedPositions) {
+        if (event == null)
+            return;
+        commit(event,
+               FLUSH_TRIGGER, trigger.name(),
+               FLUSH_BLOCK_LIGHT_UPDATES, blockLightUpdates,
+               FLUSH_SKY_LIGHT_UPDATES, skyLightUpdates,
+               FLUSH_VISITED_POSITIONS, visitedPositions);
+    }
+
+    private static @Nullable Object begin(@Nullable Object factory, @Nullable Object prototype) {
+        if (factory == null)
+            return null;
+        assert NEW_EVENT != null && IS_ENABLED != null && BEGIN != null;
+        try {
+            if (!(boolean) IS_ENABLED.invokeExact(prototype))
+                return null;
+            val event = (Object) NEW_EVENT.invokeExact(factory);
+            BEGIN.invokeExact(event);
+            return event;
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    private static void commit(Object event, Object... indicesAndValues) {
+        assert SET != null && COMMIT != null;
+        try {
+            for (var i = 0; i < indicesAndValues.length; i += 2)
+                SET.invokeExact(event, (int) indicesAndValues[i], indicesAndValues[i + 1]);
+            COMMIT.invokeExact(event);
+        } catch (Throwable ignored) {
+            // Never let a broken recording affect lighting
+        }
+    }
+
+    private static final class EventFactoryBuilder {
+        private final MethodHandle create;
+        private final MethodHandle newAnnotationElement;
+        private final MethodHandle newValueDescriptor;
+        private final Class<?> nameClass;
+        private final Class<?> labelClass;
+        private final Class<?> descriptionClass;
+        private final Class<?> categoryClass;
+
+        EventFactoryBuilder(MethodHandles.Lookup lookup, Class<?> eventFactoryClass) throws ReflectiveOperationException {
+            val annotationElementClass = Class.forName("jdk.jfr.AnnotationElement");
+            val valueDescriptorClass = Class.forName("jdk.jfr.ValueDescriptor");
+            this.create = lookup.findStatic(eventFactoryClass,
+                                            "create",
+                                            MethodType.methodType(eventFactoryClass, List.class, List.class));
+            this.newAnnotationElement = lookup.findConstructor(annotationElementClass,
+                                                              MethodType.methodType(void.class, Class.class, Object.class));
+            this.newValueDescriptor = lookup.findConstructor(valueDescriptorClass,
+                                                            MethodType.methodType(void.class, Class.class, String.class, List.class));
+            this.nameClass = Class.forName("jdk.jfr.Name");
+            this.labelClass = Class.forName("jdk.jfr.Label");
+            this.descriptionClass = Class.forName("jdk.jfr.Description");
+            this.categoryClass = Class.forName("jdk.jfr.Category");
+        }
+
+        /**
+         * @param fields triples of field type, name and label
+         */
+        Object create(String name, String label, String description, Object... fields) throws Throwable {
+            val annotations = new ArrayList<Object>();
+            annotations.add(newAnnotationElement.invoke(nameClass, name));
+            annotations.add(newAnnotationElement.invoke(labelClass, label));
+            annotations.add(newAnnotationElement.invoke(descriptionClass, description));
+            annotations.add(newAnnotationElement.invoke(categoryClass, new String[]{"Lumi", "Lighting"}));
+
+            val valueDescriptors = new ArrayList<Object>();
+            for (var i = 0; i < fields.length; i += 3) {
+                val fieldLabel = Arrays.asList(newAnnotationElement.invoke(labelClass, fields[i + 2]));
+                valueDescriptors.add(newValueDescriptor.invoke(fields[i], fields[i + 1], fieldLabel));
+            }
+            return create.invoke(annotations, valueDescriptors);
+        }
+    }
+}
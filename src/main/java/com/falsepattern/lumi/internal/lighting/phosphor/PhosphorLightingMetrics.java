@@ -0,0 +1,295 @@
+/*
+ * Lumi
+ *
+ * Copyright (C) 2023-2025 FalsePattern, Ven
+ * All Rights Reserved
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, only version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.falsepattern.lumi.internal.lighting.phosphor;
+
+import lombok.NoArgsConstructor;
+import lombok.val;
+import lombok.var;
+
+import java.util.Arrays;
+
+import static com.falsepattern.lumi.internal.lighting.phosphor.PhosphorUtil.LIGHT_VALUE_RANGE;
+import static lombok.AccessLevel.PACKAGE;
+
+/**
+ * Counters kept by a {@link PhosphorLightingEngine}.
+ * <p>
+ * Only ever written by the thread holding the engine lock, and read without synchronisation,
+ * so values observed from other threads may be slightly out of date.
+ * <p>
+ * Chunk lookups count the chunks looked up by passes whenever they move on to another chunk,
+ * misses are the ones which were not cached and had to be looked up in the world.
+ */
+@NoArgsConstructor(access = PACKAGE)
+public final class PhosphorLightingMetrics implements PhosphorLightingMetricsMXBean {
+    /**
+     * Amount of power of two microsecond buckets in the pass duration histograms, the last one is open ended.
+     */
+    public static final int HISTOGRAM_BUCKET_COUNT = 20;
+
+    private long scheduledLightingUpdates;
+    private long uniqueLightingUpdates;
+    private long forcedFlushes;
+    private long passes;
+    private long pausedPasses;
+    private long visitedPositions;
+
+    private long checkingNanos;
+    private long darkeningNanos;
+    private long brighteningNanos;
+    private final long[] checkingMicrosHistogram = new long[HISTOGRAM_BUCKET_COUNT];
+    private final long[] darkeningMicrosHistogram = new long[HISTOGRAM_BUCKET_COUNT];
+    private final long[] brighteningMicrosHistogram = new long[HISTOGRAM_BUCKET_COUNT];
+
+    private final int[] peakDarkeningQueueSizes = new int[LIGHT_VALUE_RANGE];
+    private final int[] peakBrighteningQueueSizes = new int[LIGHT_VALUE_RANGE];
+
+    private long chunkLookups;
+    private long chunkLookupMisses;
+
+    /**
+     * Set by {@link #reset()} from any thread, the counters are cleared by the engine once it next holds its lock.
+     */
+    private volatile boolean isResetRequested;
+
+    void addScheduledLightingUpdates(long count) {
+        scheduledLightingUpdates += count;
+    }
+
+    void addUniqueLightingUpdate() {
+        uniqueLightingUpdates++;
+    }
+
+    void addUniqueLightingUpdates(long count) {
+        uniqueLightingUpdates += count;
+    }
+
+    void addForcedFlush() {
+        forcedFlushes++;
+    }
+
+    void addVisitedPosition() {
+        visitedPositions++;
+    }
+
+    void addChecking(long nanos) {
+        checkingNanos += nanos;
+        checkingMicrosHistogram[histogramBucket(nanos)]++;
+    }
+
+    void addPropagation(long darkeningNanos, long brighteningNanos, boolean isPaused) {
+        passes++;
+        if (isPaused)
+            pausedPasses++;
+        this.darkeningNanos += darkeningNanos;
+        this.brighteningNanos += brighteningNanos;
+        darkeningMicrosHistogram[histogramBucket(darkeningNanos)]++;
+        brighteningMicrosHistogram[histogramBucket(brighteningNanos)]++;
+    }
+
+    void addDarkeningQueueSize(int queueIndex, int queueSize) {
+        if (queueSize > peakDarkeningQueueSizes[queueIndex])
+            peakDarkeningQueueSizes[queueIndex] = queueSize;
+    }
+
+    void addBrighteningQueueSize(int queueIndex, int queueSize) {
+        if (queueSize > peakBrighteningQueueSizes[queueIndex])
+            peakBrighteningQueueSizes[queueIndex] = queueSize;
+    }
+
+    void addChunkLookup(boolean isMiss) {
+        chunkLookups++;
+        if (isMiss)
+            chunkLookupMisses++;
+    }
+
+    /**
+     * Adds the counters of another engine to these, and clears them on the other engine.
+     */
+    void drainFrom(PhosphorLightingMetrics metrics) {
+        scheduledLightingUpdates += metrics.scheduledLightingUpdates;
+        uniqueLightingUpdates += metrics.uniqueLightingUpdates;
+        forcedFlushes += metrics.forcedFlushes;
+        passes += metrics.passes;
+        pausedPasses += metrics.pausedPasses;
+        visitedPositions += metrics.visitedPositions;
+        checkingNanos += metrics.checkingNanos;
+        darkeningNanos += metrics.darkeningNanos;
+        brighteningNanos += metrics.brighteningNanos;
+        for (var i = 0; i < HISTOGRAM_BUCKET_COUNT; i++) {
+            checkingMicrosHistogram[i] += metrics.checkingMicrosHistogram[i];
+            darkeningMicrosHistogram[i] += metrics.darkeningMicrosHistogram[i];
+            brighteningMicrosHistogram[i] += metrics.brighteningMicrosHistogram[i];
+        }
+        for (var i = 0; i < LIGHT_VALUE_RANGE; i++) {
+            addDarkeningQueueSize(i, metrics.peakDarkeningQueueSizes[i]);
+            addBrighteningQueueSize(i, metrics.peakBrighteningQueueSizes[i]);
+        }
+        chunkLookups += metrics.chunkLookups;
+        chunkLookupMisses += metrics.chunkLookupMisses;
+        metrics.clear();
+    }
+
+    /**
+     * @return upper bound in microseconds of the bucket holding the given fraction of the samples
+     */
+    public static long histogramPercentileMicros(long[] histogram, double fraction) {
+        var samples = 0L;
+        for (val count : histogram)
+            samples += count;
+        if (samples == 0)
+            return 0;
+
+        val target = (long) Math.ceil(samples * fraction);
+        var seen = 0L;
+        for (var i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= target)
+                return 1L << i;
+        }
+        return 1L << (histogram.length - 1);
+    }
+
+    private static int histogramBucket(long nanos) {
+        val micros = nanos / 1000;
+        return Math.min(64 - Long.numberOfLeadingZeros(micros), HISTOGRAM_BUCKET_COUNT - 1);
+    }
+
+    @Override
+    public long getScheduledLightingUpdates() {
+        return scheduledLightingUpdates;
+    }
+
+    @Override
+    public long getUniqueLightingUpdates() {
+        return uniqueLightingUpdates;
+    }
+
+    @Override
+    public long getForcedFlushes() {
+        return forcedFlushes;
+    }
+
+    @Override
+    public long getPasses() {
+        return passes;
+    }
+
+    @Override
+    public long getPausedPasses() {
+        return pausedPasses;
+    }
+
+    @Override
+    public long getVisitedPositions() {
+        return visitedPositions;
+    }
+
+    @Override
+    public long getCheckingNanos() {
+        return checkingNanos;
+    }
+
+    @Override
+    public long getDarkeningNanos() {
+        return darkeningNanos;
+    }
+
+    @Override
+    public long getBrighteningNanos() {
+        return brighteningNanos;
+    }
+
+    @Override
+    public long[] getCheckingMicrosHistogram() {
+        return checkingMicrosHistogram.clone();
+    }
+
+    @Override
+    public long[] getDarkeningMicrosHistogram() {
+        return darkeningMicrosHistogram.clone();
+    }
+
+    @Override
+    public long[] getBrighteningMicrosHistogram() {
+        return brighteningMicrosHistogram.clone();
+    }
+
+    @Override
+    public int[] getPeakDarkeningQueueSizes() {
+        return peakDarkeningQueueSizes.clone();
+    }
+
+    @Override
+    public int[] getPeakBrighteningQueueSizes() {
+        return peakBrighteningQueueSizes.clone();
+    }
+
+    @Override
+    public long getChunkLookups() {
+        return chunkLookups;
+    }
+
+    @Override
+    public long getChunkLookupMisses() {
+        return chunkLookupMisses;
+    }
+
+    /**
+     * Clears the counters if a reset was requested, only called by the thread holding the engine lock.
+     */
+    void applyRequestedReset() {
+        if (!isResetRequested)
+            return;
+        isResetRequested = false;
+        clear();
+    }
+
+    /**
+     * Requests the counters to be cleared, they keep their values until the engine next acquires its lock.
+     */
+    @Override
+    public void reset() {
+        isResetRequested = true;
+    }
+
+    private void clear() {
+        scheduledLightingUpdates = 0;
+        uniqueLightingUpdates = 0;
+        forcedFlushes = 0;
+        passes = 0;
+        pausedPasses = 0;
+        visitedPositions = 0;
+        checkingNanos = 0;
+        darkeningNanos = 0;
+        brighteningNanos = 0;
+        Arrays.fill(checkingMicrosHistogram, 0);
+        Arrays.fill(darkeningMicrosHistogram, 0);
+        Arrays.fill(brighteningMicrosHistogram, 0);
+        Arrays.fill(peakDarkeningQueueSizes, 0);
+        Arrays.fill(peakBrighteningQueueSizes, 0);
+        chunkLookups = 0;
+        chunkLookupMisses = 0;
+    }
+}
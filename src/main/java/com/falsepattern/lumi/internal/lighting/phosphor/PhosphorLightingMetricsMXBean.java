@@ -0,0 +1,66 @@
+/*
+ * Lumi
+ *
+ * Copyright (C) 2023-2025 FalsePattern, Ven
+ * All Rights Reserved
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, only version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.falsepattern.lumi.internal.lighting.phosphor;
+
+/**
+ * Management interface of {@link PhosphorLightingMetrics}, registered once per serverside world.
+ * <p>
+ * Histograms are in microseconds, where index {@code i} counts the durations in {@code [2^(i-1), 2^i)},
+ * and the last index counts everything above. Peak queue sizes are indexed by light value.
+ */
+public interface PhosphorLightingMetricsMXBean {
+    long getScheduledLightingUpdates();
+
+    long getUniqueLightingUpdates();
+
+    long getForcedFlushes();
+
+    long getPasses();
+
+    long getPausedPasses();
+
+    long getVisitedPositions();
+
+    long getCheckingNanos();
+
+    long getDarkeningNanos();
+
+    long getBrighteningNanos();
+
+    long[] getCheckingMicrosHistogram();
+
+    long[] getDarkeningMicrosHistogram();
+
+    long[] getBrighteningMicrosHistogram();
+
+    int[] getPeakDarkeningQueueSizes();
+
+    int[] getPeakBrighteningQueueSizes();
+
+    long getChunkLookups();
+
+    long getChunkLookupMisses();
+
+    void reset();
+}
@@ -0,0 +1,127 @@
+/*
+ * Lumi
+ *
+ * Copyright (C) 2023-2025 FalsePattern, Ven
+ * All Rights Reserved
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, only version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.falsepattern.lumi.internal.lighting.phosphor;
+
+import cpw.mods.fml.common.eventhandler.SubscribeEvent;
+import lombok.NoArgsConstructor;
+import lombok.val;
+import lombok.var;
+import net.minecraft.world.World;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.world.WorldEvent;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static com.falsepattern.lumi.internal.Lumi.createLogger;
+import static com.falsepattern.lumi.internal.world.WorldProviderManager.worldProviderManager;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Registers the metrics of every serverside {@link PhosphorLightingEngine} as an MBean while its world is loaded.
+ * <p>
+ * Also closes any lighting trace still being recorded once its world unloads.
+ */
+@NoArgsConstructor(access = PRIVATE)
+public final class PhosphorLightingMetricsManager {
+    private static final Logger LOG = createLogger("Phosphor Metrics");
+
+    private static final PhosphorLightingMetricsManager INSTANCE = new PhosphorLightingMetricsManager();
+
+    private boolean isRegistered = false;
+
+    public static PhosphorLightingMetricsManager phosphorLightingMetricsManager() {
+        return INSTANCE;
+    }
+
+    public void registerEventHandler() {
+        if (isRegistered)
+            return;
+
+        MinecraftForge.EVENT_BUS.register(this);
+        isRegistered = true;
+    }
+
+    @SubscribeEvent
+    public void onWorldLoad(WorldEvent.Load evt) {
+        val worldBase = evt.world;
+        if (worldBase.isRemote)
+            return;
+
+        val server = ManagementFactory.getPlatformMBeanServer();
+        val lumiWorldsFromBaseWorld = worldProviderManager().lumiWorldsFromBaseWorld(worldBase);
+        for (var i = 0; i < lumiWorldsFromBaseWorld.length; i++) {
+            val world = lumiWorldsFromBaseWorld[i];
+            val lightingEngine = world.lumi$lightingEngine();
+            if (!(lightingEngine instanceof PhosphorLightingEngine))
+                continue;
+
+            val metrics = ((PhosphorLightingEngine) lightingEngine).metrics();
+            try {
+                val objectName = objectName(worldBase, world.lumi$worldID());
+                // A world with the same dimension may not have been unloaded cleanly
+                if (server.isRegistered(objectName))
+                    server.unregisterMBean(objectName);
+                server.registerMBean(metrics, objectName);
+            } catch (JMException e) {
+                LOG.warn("Failed to register lighting metrics for dimension {}", worldBase.provider.dimensionId, e);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public void onWorldUnload(WorldEvent.Unload evt) {
+        val worldBase = evt.world;
+        if (worldBase.isRemote)
+            return;
+
+        val server = ManagementFactory.getPlatformMBeanServer();
+        val lumiWorldsFromBaseWorld = worldProviderManager().lumiWorldsFromBaseWorld(worldBase);
+        for (var i = 0; i < lumiWorldsFromBaseWorld.length; i++) {
+            val world = lumiWorldsFromBaseWorld[i];
+            val lightingEngine = world.lumi$lightingEngine();
+            if (lightingEngine instanceof PhosphorLightingEngine) {
+                val traceRecorder = ((PhosphorLightingEngine) lightingEngine).stopTrace();
+                if (traceRecorder != null && !traceRecorder.isFailed())
+                    LOG.info("Saved lighting trace to {} as its world unloaded", traceRecorder.file());
+            }
+
+            try {
+                val objectName = objectName(worldBase, world.lumi$worldID());
+                if (server.isRegistered(objectName))
+                    server.unregisterMBean(objectName);
+            } catch (JMException e) {
+                LOG.warn("Failed to unregister lighting metrics for dimension {}", worldBase.provider.dimensionId, e);
+            }
+        }
+    }
+
+    private static ObjectName objectName(World worldBase, String worldID) throws JMException {
+        return new ObjectName("com.falsepattern.lumi:type=PhosphorLightingMetrics" +
+                              ",dimension=" + worldBase.provider.dimensionId +
+                              ",world=" + ObjectName.quote(worldID));
+    }
+}
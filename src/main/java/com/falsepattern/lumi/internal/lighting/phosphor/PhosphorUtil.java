@@ -29,6 +29,7 @@ import com.falsepattern.lumi.api.chunk.LumiChunk;
 import com.falsepattern.lumi.api.lighting.LightType;
 import com.falsepattern.lumi.api.lighting.LumiLightingEngine;
 import com.falsepattern.lumi.api.world.LumiWorld;
+import com.falsepattern.lumi.internal.mixin.interfaces.LumiSubChunkImpl;
 import lombok.experimental.UtilityClass;
 import lombok.val;
 import lombok.var;
@@ -482,21 +483,37 @@ final class PhosphorUtil {
             return false;
 
         val lightingEngine = world.lumi$lightingEngine();
+        // The emitter bitmaps are built from the vanilla light properties, which only the root world uses
+        val useEmitterBits = (Object) world == world.lumi$root();
         var scheduledBlockUpdate = false;
         for (var chunkPosY = 0; chunkPosY < 16; chunkPosY++) {
             val basePosY = chunkPosY * 16;
+            if (useEmitterBits) {
+                val subChunk = chunk.lumi$getSubChunkIfPrepared(chunkPosY);
+                if (subChunk == null)
+                    continue;
+                val subChunkRoot = subChunk.lumi$root();
+                // Only exact if every block was placed through the sub chunk itself, as during vanilla generation
+                if (subChunkRoot instanceof LumiSubChunkImpl &&
+                    !((LumiSubChunkImpl) subChunkRoot).lumi$wereBlockArraysHandedOut()) {
+                    val lightEmittingBlocks = ((LumiSubChunkImpl) subChunkRoot).lumi$lightEmittingBlocks();
+                    for (var index = lightEmittingBlocks.nextSetIndex(0);
+                         index >= 0;
+                         index = lightEmittingBlocks.nextSetIndex(index + 1)) {
+                        val subChunkPosX = index & 15;
+                        val subChunkPosZ = (index >> 4) & 15;
+                        val posY = basePosY + (index >> 8);
+                        scheduledBlockUpdate |= scheduleBlockLightSource(chunk, lightingEngine, subChunkPosX, posY, subChunkPosZ);
+                    }
+                    continue;
+                }
+            }
+
             for (var subChunkPosY = 0; subChunkPosY < 16; subChunkPosY++) {
                 for (var subChunkPosZ = 0; subChunkPosZ < 16; subChunkPosZ++) {
                     for (var subChunkPosX = 0; subChunkPosX < 16; subChunkPosX++) {
                         val posY = basePosY + subChunkPosY;
-
-                        val brightness = chunk.lumi$getBlockBrightness(subChunkPosX, posY, subChunkPosZ);
-                        if (brightness > MIN_LIGHT_VALUE) {
-                            val posX = basePosX + subChunkPosX;
-                            val posZ = basePosZ + subChunkPosZ;
-                            lightingEngine.scheduleLightingUpdate(BLOCK_LIGHT_TYPE, posX, posY, posZ);
-                            scheduledBlockUpdate = true;
-                        }
+                        scheduledBlockUpdate |= scheduleBlockLightSource(chunk, lightingEngine, subChunkPosX, posY, subChunkPosZ);
                     }
                 }
             }
@@ -512,4 +529,19 @@ final class PhosphorUtil {
         chunk.lumi$isLightingInitialized(true);
         return true;
     }
+
+    private static boolean scheduleBlockLightSource(LumiChunk chunk,
+                                                    LumiLightingEngine lightingEngine,
+                                                    int subChunkPosX,
+                                                    int posY,
+                                                    int subChunkPosZ) {
+        val brightness = chunk.lumi$getBlockBrightness(subChunkPosX, posY, subChunkPosZ);
+        if (brightness <= MIN_LIGHT_VALUE)
+            return false;
+
+        val posX = (chunk.lumi$chunkPosX() << 4) + subChunkPosX;
+        val posZ = (chunk.lumi$chunkPosZ() << 4) + subChunkPosZ;
+        lightingEngine.scheduleLightingUpdate(BLOCK_LIGHT_TYPE, posX, posY, posZ);
+        return true;
+    }
 }
@@ -26,11 +26,17 @@ package com.falsepattern.lumi.internal.mixin.hook;
 import com.falsepattern.lumi.api.LumiChunkAPI;
 import com.falsepattern.lumi.api.lighting.LightType;
 import com.falsepattern.lumi.api.world.LumiWorld;
+import com.falsepattern.lumi.internal.collection.PosHashSet;
 import com.falsepattern.lumi.internal.config.LumiConfig;
+import com.falsepattern.lumi.internal.lighting.phosphor.LightingTrigger;
+import com.falsepattern.lumi.internal.lighting.phosphor.PhosphorLightingEngine;
 import cpw.mods.fml.relauncher.SideOnly;
 import lombok.experimental.UtilityClass;
 import lombok.val;
 import lombok.var;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.util.MathHelper;
+import net.minecraft.world.ChunkCoordIntPair;
 import net.minecraft.world.EnumSkyBlock;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.Chunk;
@@ -45,6 +51,10 @@ import static cpw.mods.fml.relauncher.Side.CLIENT;
 @UtilityClass
 public final class LightingHooks {
     private static final int DEFAULT_PRECIPITATION_HEIGHT = -999;
+    /**
+     * Radius in chunks around each player in which lighting updates are prioritised by budgeted passes.
+     */
+    private static final int NEAR_PLAYER_CHUNK_RADIUS = 4;
 
     public static int getCurrentLightValue(Chunk chunkBase,
                                            EnumSkyBlock baseLightType,
@@ -235,6 +245,22 @@ public final class LightingHooks {
         scheduleLightingUpdate(worldBase, lightType, posX, posY, posZ);
     }
 
+    public static void scheduleLightingUpdates(World worldBase,
+                                               LightType lightType,
+                                               long[] packedBlockPositions,
+                                               int offset,
+                                               int count) {
+        if (count <= 0)
+            return;
+
+        val lumiWorldsFromBaseWorld = lumiWorldsFromBaseWorld(worldBase);
+        for (var i = 0; i < lumiWorldsFromBaseWorld.length; i++) {
+            val world = lumiWorldsFromBaseWorld[i];
+            val lightingEngine = world.lumi$lightingEngine();
+            lightingEngine.scheduleLightingUpdates(lightType, packedBlockPositions, offset, count);
+        }
+    }
+
     public static void scheduleLightingUpdate(World worldBase,
                                               LightType lightType,
                                               int posX,
@@ -248,17 +274,84 @@ public final class LightingHooks {
         }
     }
 
-    public static void processLightingUpdatesForAllTypes(Chunk chunkBase) {
+    public static void processLightingUpdatesForAllTypes(Chunk chunkBase, LightingTrigger trigger) {
         val worldBase = chunkBase.worldObj;
-        processLightingUpdatesForAllTypes(worldBase);
+        processLightingUpdatesForAllTypes(worldBase, trigger);
+    }
+
+    public static void processLightingUpdatesForAllTypes(World worldBase, LightingTrigger trigger) {
+        val lumiWorldsFromBaseWorld = lumiWorldsFromBaseWorld(worldBase);
+        for (var i = 0; i < lumiWorldsFromBaseWorld.length; i++) {
+            val world = lumiWorldsFromBaseWorld[i];
+            val lightingEngine = world.lumi$lightingEngine();
+            if (lightingEngine instanceof PhosphorLightingEngine) {
+                ((PhosphorLightingEngine) lightingEngine).processLightingUpdatesForAllTypes(trigger);
+            } else {
+                lightingEngine.processLightingUpdatesForAllTypes();
+            }
+        }
+    }
+
+    public static void processLightingUpdatesForAllTypes(World worldBase, long budgetNanos) {
+        val lumiWorldsFromBaseWorld = lumiWorldsFromBaseWorld(worldBase);
+        for (var i = 0; i < lumiWorldsFromBaseWorld.length; i++) {
+            val world = lumiWorldsFromBaseWorld[i];
+            val lightingEngine = world.lumi$lightingEngine();
+            if (!(lightingEngine instanceof PhosphorLightingEngine))
+                continue;
+            val phosphorLightingEngine = (PhosphorLightingEngine) lightingEngine;
+            // Most ticks have nothing queued, so the players are only looked at when there is work to do
+            if (!phosphorLightingEngine.hasQueuedLightingUpdates())
+                continue;
+
+            val nearChunks = phosphorLightingEngine.nearChunks();
+            collectNearChunksFromPlayers(worldBase, nearChunks);
+            phosphorLightingEngine.processLightingUpdatesForAllTypes(budgetNanos, nearChunks);
+        }
+    }
+
+    /**
+     * Collects the chunks close to any player, along with the chunks still waiting to be sent to them.
+     */
+    private static void collectNearChunksFromPlayers(World worldBase, PosHashSet nearChunks) {
+        for (val playerBase : worldBase.playerEntities) {
+            if (!(playerBase instanceof EntityPlayerMP))
+                continue;
+            val player = (EntityPlayerMP) playerBase;
+
+            val playerChunkPosX = MathHelper.floor_double(player.posX) >> 4;
+            val playerChunkPosZ = MathHelper.floor_double(player.posZ) >> 4;
+            for (var chunkPosZ = -NEAR_PLAYER_CHUNK_RADIUS; chunkPosZ <= NEAR_PLAYER_CHUNK_RADIUS; chunkPosZ++) {
+                for (var chunkPosX = -NEAR_PLAYER_CHUNK_RADIUS; chunkPosX <= NEAR_PLAYER_CHUNK_RADIUS; chunkPosX++) {
+                    nearChunks.add(ChunkCoordIntPair.chunkXZ2Int(playerChunkPosX + chunkPosX,
+                                                                 playerChunkPosZ + chunkPosZ));
+                }
+            }
+
+            for (val pendingChunk : player.loadedChunks) {
+                val chunkPosition = (ChunkCoordIntPair) pendingChunk;
+                nearChunks.add(ChunkCoordIntPair.chunkXZ2Int(chunkPosition.chunkXPos, chunkPosition.chunkZPos));
+            }
+        }
+    }
+
+    public static void beginAsyncLightingUpdates(World worldBase) {
+        val lumiWorldsFromBaseWorld = lumiWorldsFromBaseWorld(worldBase);
+        for (var i = 0; i < lumiWorldsFromBaseWorld.length; i++) {
+            val world = lumiWorldsFromBaseWorld[i];
+            val lightingEngine = world.lumi$lightingEngine();
+            if (lightingEngine instanceof PhosphorLightingEngine)
+                ((PhosphorLightingEngine) lightingEngine).beginAsyncLightingUpdates();
+        }
     }
 
-    public static void processLightingUpdatesForAllTypes(World worldBase) {
+    public static void awaitAsyncLightingUpdates(World worldBase) {
         val lumiWorldsFromBaseWorld = lumiWorldsFromBaseWorld(worldBase);
         for (var i = 0; i < lumiWorldsFromBaseWorld.length; i++) {
             val world = lumiWorldsFromBaseWorld[i];
             val lightingEngine = world.lumi$lightingEngine();
-            lightingEngine.processLightingUpdatesForAllTypes();
+            if (lightingEngine instanceof PhosphorLightingEngine)
+                ((PhosphorLightingEngine) lightingEngine).awaitAsyncLightingUpdates();
         }
     }
 
@@ -23,6 +23,55 @@
 
 package com.falsepattern.lumi.internal.mixin.interfaces;
 
+import com.falsepattern.lumi.api.lighting.LightType;
+import com.falsepattern.lumi.internal.collection.SubChunkBitSet;
+import net.minecraft.world.chunk.NibbleArray;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
 public interface LumiSubChunkImpl {
     void lumi$setDirty(boolean state);
+
+    /**
+     * Inflates the light array if it is stored compactly, the returned array is never compacted again.
+     */
+    @NotNull NibbleArray lumi$getOrCreateLightArray(@NotNull LightType lightType);
+
+    void lumi$setLightArray(@NotNull LightType lightType, @Nullable NibbleArray lightArray);
+
+    void lumi$fillLightArray(@NotNull LightType lightType, int lightValue);
+
+    boolean lumi$isLightArrayEmpty(@NotNull LightType lightType);
+
+    /**
+     * @return the raw nibble data, which must not be modified, or {@code null} if all light values are zero
+     */
+    byte @Nullable [] lumi$lightData(@NotNull LightType lightType);
+
+    void lumi$compactLightArrays();
+
+    /**
+     * Drops the block arrays if the sub chunk holds nothing but air, they are allocated again on the next block write.
+     * <p>
+     * Only used on sub chunks prepared for light, as the block arrays of any other sub chunk may have been handed out.
+     */
+    void lumi$releaseBlockStorage();
+
+    /**
+     * Positions holding blocks with a static light opacity of 15, kept up to date on block changes.
+     */
+    @NotNull SubChunkBitSet lumi$opaqueBlocks();
+
+    /**
+     * Positions holding blocks that may emit light, including all blocks with positional light properties.
+     */
+    @NotNull SubChunkBitSet lumi$lightEmittingBlocks();
+
+    /**
+     * @return {@code true} if the block arrays were ever handed out or replaced, in which case they may have been
+     *         written to directly at any time since, and the bitmaps are only as fresh as their last verification
+     */
+    boolean lumi$wereBlockArraysHandedOut();
+
+    boolean lumi$hasNoBlocks();
 }
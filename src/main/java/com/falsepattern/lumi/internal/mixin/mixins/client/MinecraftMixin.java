@@ -23,6 +23,7 @@
 
 package com.falsepattern.lumi.internal.mixin.mixins.client;
 
+import com.falsepattern.lumi.internal.lighting.phosphor.LightingTrigger;
 import com.falsepattern.lumi.internal.mixin.hook.LightingHooks;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.multiplayer.WorldClient;
@@ -46,6 +47,6 @@ public abstract class MinecraftMixin {
             require = 1)
     private void updateClientLighting(CallbackInfo ci) {
         if (theWorld != null)
-            LightingHooks.processLightingUpdatesForAllTypes(theWorld);
+            LightingHooks.processLightingUpdatesForAllTypes(theWorld, LightingTrigger.CLIENT_TICK);
     }
 }
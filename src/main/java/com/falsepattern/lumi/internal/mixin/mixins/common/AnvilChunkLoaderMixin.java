@@ -23,6 +23,7 @@
 
 package com.falsepattern.lumi.internal.mixin.mixins.common;
 
+import com.falsepattern.lumi.internal.lighting.phosphor.LightingTrigger;
 import com.falsepattern.lumi.internal.mixin.hook.LightingHooks;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.Chunk;
@@ -38,6 +39,6 @@ public abstract class AnvilChunkLoaderMixin {
             at = @At("HEAD"),
             require = 1)
     private void processLightUpdatesOnSave(World worldBase, Chunk chunkBase, CallbackInfo callbackInfo) {
-        LightingHooks.processLightingUpdatesForAllTypes(worldBase);
+        LightingHooks.processLightingUpdatesForAllTypes(worldBase, LightingTrigger.SAVE);
     }
 }
@@ -0,0 +1,53 @@
+/*
+ * Lumi
+ *
+ * Copyright (C) 2023-2025 FalsePattern, Ven
+ * All Rights Reserved
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, only version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.falsepattern.lumi.internal.mixin.mixins.common;
+
+import com.falsepattern.lumi.internal.asm.BlockLightPropertyScanner;
+import com.falsepattern.lumi.internal.mixin.interfaces.LumiBlockImpl;
+import net.minecraft.block.Block;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+@Mixin(Block.class)
+public abstract class BlockMixin implements LumiBlockImpl {
+    @Unique
+    private byte lumi$lightPropertiesKind;
+
+    private static final byte LIGHT_PROPERTIES_UNKNOWN = 0;
+    private static final byte LIGHT_PROPERTIES_STATIC = 1;
+    private static final byte LIGHT_PROPERTIES_POSITIONAL = 2;
+
+    /**
+     * The result only depends on the class, so it is resolved once per block instance.
+     */
+    @Override
+    public boolean lumi$hasPositionalLightProperties() {
+        byte kind = lumi$lightPropertiesKind;
+        if (kind == LIGHT_PROPERTIES_UNKNOWN) {
+            kind = BlockLightPropertyScanner.hasPositionalLightProperties(getClass()) ? LIGHT_PROPERTIES_POSITIONAL : LIGHT_PROPERTIES_STATIC;
+            lumi$lightPropertiesKind = kind;
+        }
+        return kind == LIGHT_PROPERTIES_POSITIONAL;
+    }
+}
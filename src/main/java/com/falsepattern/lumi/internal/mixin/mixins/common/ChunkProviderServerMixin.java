@@ -23,6 +23,7 @@
 
 package com.falsepattern.lumi.internal.mixin.mixins.common;
 
+import com.falsepattern.lumi.internal.lighting.phosphor.LightingTrigger;
 import com.falsepattern.lumi.internal.mixin.hook.LightingHooks;
 import net.minecraft.util.IProgressUpdate;
 import net.minecraft.world.WorldServer;
@@ -47,7 +48,7 @@ public abstract class ChunkProviderServerMixin {
             at = @At("HEAD"),
             require = 1)
     private void processLightUpdatesOnSave(boolean saveAll, IProgressUpdate progressUpdate, CallbackInfoReturnable<Boolean> cir) {
-        LightingHooks.processLightingUpdatesForAllTypes(worldObj);
+        LightingHooks.processLightingUpdatesForAllTypes(worldObj, LightingTrigger.SAVE);
     }
 
     @Inject(method = "unloadQueuedChunks",
@@ -59,6 +60,6 @@ public abstract class ChunkProviderServerMixin {
         if (chunksToUnload.isEmpty())
             return;
 
-        LightingHooks.processLightingUpdatesForAllTypes(worldObj);
+        LightingHooks.processLightingUpdatesForAllTypes(worldObj, LightingTrigger.UNLOAD);
     }
 }
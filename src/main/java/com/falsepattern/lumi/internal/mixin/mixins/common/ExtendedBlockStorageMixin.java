@@ -23,11 +23,19 @@
 
 package com.falsepattern.lumi.internal.mixin.mixins.common;
 
+import com.falsepattern.lumi.api.chunk.LumiSubChunk;
 import com.falsepattern.lumi.internal.ArrayHelper;
+import com.falsepattern.lumi.internal.collection.SubChunkBitSet;
+import com.falsepattern.lumi.internal.config.LumiConfig;
+import com.falsepattern.lumi.internal.mixin.interfaces.LumiBlockImpl;
 import com.falsepattern.lumi.internal.mixin.interfaces.LumiSubChunkImpl;
 import lombok.val;
+import lombok.var;
+import net.minecraft.block.Block;
 import net.minecraft.world.chunk.NibbleArray;
 import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import org.jetbrains.annotations.NotNull;
+import org.spongepowered.asm.lib.Opcodes;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Overwrite;
 import org.spongepowered.asm.mixin.Shadow;
@@ -36,27 +44,64 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
-import static com.falsepattern.lumi.internal.util.LazyUtil.ensurePresent;
-import static com.falsepattern.lumi.internal.util.LazyUtil.lazyGet;
-import static com.falsepattern.lumi.internal.util.LazyUtil.lazySet;
+import static com.falsepattern.lumi.api.lighting.LightType.BLOCK_LIGHT_TYPE;
+import static com.falsepattern.lumi.api.lighting.LightType.SKY_LIGHT_TYPE;
 
 @Mixin(ExtendedBlockStorage.class)
 public abstract class ExtendedBlockStorageMixin implements LumiSubChunkImpl {
     @Shadow
     private int blockRefCount;
     @Shadow
-    private NibbleArray blocklightArray;
+    private byte[] blockLSBArray;
     @Shadow
-    private NibbleArray skylightArray;
+    private NibbleArray blockMSBArray;
+    @Shadow
+    private NibbleArray blockMetadataArray;
+
+    @Shadow
+    public abstract Block getBlockByExtId(int x, int y, int z);
 
     @Unique
     private boolean lumi$isDirty;
     @Unique
     private boolean lumi$isTrivial;
+    @Unique
+    private boolean lumi$isLightOnly;
+
+    @Unique
+    private SubChunkBitSet lumi$opaqueBlocks;
+    @Unique
+    private SubChunkBitSet lumi$lightEmittingBlocks;
+    @Unique
+    private boolean lumi$areBlockBitsValid;
+    /**
+     * Set once the block arrays are handed out, as they may be written to directly afterwards.
+     */
+    @Unique
+    private boolean lumi$areBlockBitsUnverified;
+    @Unique
+    private boolean lumi$wereBlockArraysHandedOut;
+    /**
+     * Hash of the block IDs the bitmaps were built from, see {@link #lumi$blockIDHash(int, int)}.
+     */
+    @Unique
+    private int lumi$blockIDHash;
+    /**
+     * Kept instead of trusting the block ref count, which is only recounted after loading.
+     */
+    @Unique
+    private int lumi$nonAirBlockCount;
 
     private static final NibbleArray DUMMY = new NibbleArray(new byte[0], 4);
 
+    // Read in place of the missing block arrays of light-only sub chunks, never stored in a field or handed out
+    private static final byte[] LIGHT_ONLY_BLOCK_LSB_ARRAY = new byte[4096];
+    private static final NibbleArray LIGHT_ONLY_BLOCK_METADATA_ARRAY = new NibbleArray(4096, 4);
+
+    private static final int EMPTY_BLOCK_ID_HASH = lumi$emptyBlockIDHash();
+
     @Redirect(method = "<init>",
                    at = @At(value = "NEW",
                             target = "(II)Lnet/minecraft/world/chunk/NibbleArray;",
@@ -98,7 +143,7 @@ public abstract class ExtendedBlockStorageMixin implements LumiSubChunkImpl {
      */
     @Overwrite
     public NibbleArray getBlocklightArray() {
-        return blocklightArray = ensurePresent(blocklightArray);
+        return lumi$getOrCreateLightArray(BLOCK_LIGHT_TYPE);
     }
 
     /**
@@ -107,7 +152,7 @@ public abstract class ExtendedBlockStorageMixin implements LumiSubChunkImpl {
      */
     @Overwrite
     public int getExtBlocklightValue(int x, int y, int z) {
-        return lazyGet(blocklightArray, x, y, z);
+        return lumi$subChunk().lumi$getBlockLightValue(x, y, z);
     }
 
     /**
@@ -116,7 +161,7 @@ public abstract class ExtendedBlockStorageMixin implements LumiSubChunkImpl {
      */
     @Overwrite
     public NibbleArray getSkylightArray() {
-        return skylightArray = ensurePresent(skylightArray);
+        return lumi$getOrCreateLightArray(SKY_LIGHT_TYPE);
     }
 
     /**
@@ -125,7 +170,7 @@ public abstract class ExtendedBlockStorageMixin implements LumiSubChunkImpl {
      */
     @Overwrite
     public int getExtSkylightValue(int x, int y, int z) {
-        return lazyGet(skylightArray, x, y, z);
+        return lumi$subChunk().lumi$getSkyLightValue(x, y, z);
     }
 
     @Inject(method = "<init>*",
@@ -135,6 +180,12 @@ public abstract class ExtendedBlockStorageMixin implements LumiSubChunkImpl {
     private void lumiSubChunkInit(int posY, boolean hasSky, CallbackInfo ci) {
         this.lumi$isDirty = true;
         this.lumi$isTrivial = false;
+
+        // A new sub chunk holds nothing but air, so world generation keeps the bitmaps up to date from the start
+        this.lumi$opaqueBlocks = new SubChunkBitSet();
+        this.lumi$lightEmittingBlocks = new SubChunkBitSet();
+        this.lumi$blockIDHash = EMPTY_BLOCK_ID_HASH;
+        this.lumi$areBlockBitsValid = true;
     }
 
     /**
@@ -143,9 +194,7 @@ public abstract class ExtendedBlockStorageMixin implements LumiSubChunkImpl {
      */
     @Overwrite
     public void setExtSkylightValue(int posX, int posY, int posZ, int lightValue) {
-        skylightArray = lazySet(skylightArray, posX, posY, posZ, lightValue);
-        if (skylightArray != null)
-            lumi$isDirty = true;
+        lumi$subChunk().lumi$setSkyLightValue(posX, posY, posZ, lightValue);
     }
 
     /**
@@ -154,9 +203,7 @@ public abstract class ExtendedBlockStorageMixin implements LumiSubChunkImpl {
      */
     @Overwrite
     public void setExtBlocklightValue(int posX, int posY, int posZ, int lightValue) {
-        blocklightArray = lazySet(blocklightArray, posX, posY, posZ, lightValue);
-        if (skylightArray != null)
-            lumi$isDirty = true;
+        lumi$subChunk().lumi$setBlockLightValue(posX, posY, posZ, lightValue);
     }
 
     /**
@@ -165,8 +212,7 @@ public abstract class ExtendedBlockStorageMixin implements LumiSubChunkImpl {
      */
     @Overwrite
     public void setBlocklightArray(NibbleArray blockLightArray) {
-        this.blocklightArray = blockLightArray;
-        lumi$isDirty = true;
+        lumi$setLightArray(BLOCK_LIGHT_TYPE, blockLightArray);
     }
 
     /**
@@ -175,8 +221,7 @@ public abstract class ExtendedBlockStorageMixin implements LumiSubChunkImpl {
      */
     @Overwrite
     public void setSkylightArray(NibbleArray skyLightArray) {
-        this.skylightArray = skyLightArray;
-        lumi$isDirty = true;
+        lumi$setLightArray(SKY_LIGHT_TYPE, skyLightArray);
     }
 
     /**
@@ -189,8 +234,8 @@ public abstract class ExtendedBlockStorageMixin implements LumiSubChunkImpl {
             return false;
 
         if (lumi$isDirty) {
-            val blockLightEmpty = ArrayHelper.isEmpty(blocklightArray);
-            val skyLightEmpty = ArrayHelper.isEmpty(skylightArray);
+            val blockLightEmpty = lumi$isLightArrayEmpty(BLOCK_LIGHT_TYPE);
+            val skyLightEmpty = lumi$isLightArrayEmpty(SKY_LIGHT_TYPE);
             lumi$isTrivial = blockLightEmpty && skyLightEmpty;
             lumi$isDirty = false;
         }
@@ -198,8 +243,236 @@ public abstract class ExtendedBlockStorageMixin implements LumiSubChunkImpl {
         return lumi$isTrivial;
     }
 
+    @Inject(method = {"func_150818_a",
+                      "setExtBlockMetadata",
+                      "setBlockLSBArray",
+                      "setBlockMSBArray",
+                      "setBlockMetadataArray"},
+            at = @At("HEAD"),
+            require = 5)
+    private void ensureBlockStorageOnWrite(CallbackInfo ci) {
+        lumi$ensureBlockStorage();
+    }
+
+    @Inject(method = {"getBlockLSBArray",
+                      "getMetadataArray",
+                      "createBlockMSBArray"},
+            at = @At("HEAD"),
+            require = 3)
+    private void ensureBlockStorageOnLegacyAccess(CallbackInfoReturnable<?> cir) {
+        lumi$ensureBlockStorage();
+    }
+
+    @Redirect(method = "getBlockByExtId",
+              at = @At(value = "FIELD",
+                       target = "Lnet/minecraft/world/chunk/storage/ExtendedBlockStorage;blockLSBArray:[B",
+                       opcode = Opcodes.GETFIELD),
+              require = 1)
+    private byte[] readLightOnlyBlockLSBArray(ExtendedBlockStorage instance) {
+        val blockLSBArray = this.blockLSBArray;
+        return blockLSBArray != null ? blockLSBArray : LIGHT_ONLY_BLOCK_LSB_ARRAY;
+    }
+
+    @Redirect(method = "getExtBlockMetadata",
+              at = @At(value = "FIELD",
+                       target = "Lnet/minecraft/world/chunk/storage/ExtendedBlockStorage;blockMetadataArray:Lnet/minecraft/world/chunk/NibbleArray;",
+                       opcode = Opcodes.GETFIELD),
+              require = 1)
+    private NibbleArray readLightOnlyBlockMetadataArray(ExtendedBlockStorage instance) {
+        val blockMetadataArray = this.blockMetadataArray;
+        return blockMetadataArray != null ? blockMetadataArray : LIGHT_ONLY_BLOCK_METADATA_ARRAY;
+    }
+
+    @Inject(method = "func_150818_a",
+            at = @At("HEAD"),
+            require = 1)
+    private void updateBlockBits(int x, int y, int z, Block block, CallbackInfo ci) {
+        if (!lumi$areBlockBitsValid)
+            return;
+
+        val index = SubChunkBitSet.index(x, y, z);
+        val oldBlockID = lumi$blockID(index);
+        val newBlockID = Block.getIdFromBlock(block);
+        lumi$blockIDHash ^= lumi$blockIDHash(index, oldBlockID) ^ lumi$blockIDHash(index, newBlockID);
+        lumi$nonAirBlockCount += (newBlockID != 0 ? 1 : 0) - (oldBlockID != 0 ? 1 : 0);
+        lumi$opaqueBlocks.set(index, lumi$isOpaque(block));
+        lumi$lightEmittingBlocks.set(index, lumi$mayEmitLight(block));
+    }
+
+    @Inject(method = {"setBlockLSBArray",
+                      "setBlockMSBArray",
+                      "clearMSBArray"},
+            at = @At("HEAD"),
+            require = 3)
+    private void invalidateBlockBitsOnWrite(CallbackInfo ci) {
+        lumi$areBlockBitsValid = false;
+        lumi$wereBlockArraysHandedOut = true;
+    }
+
+    // The returned arrays may be written to directly, createBlockMSBArray also replaces any present MSB array
+    @Inject(method = {"getBlockLSBArray",
+                      "getBlockMSBArray",
+                      "createBlockMSBArray"},
+            at = @At("HEAD"),
+            require = 3)
+    private void unverifyBlockBitsOnLegacyAccess(CallbackInfoReturnable<?> cir) {
+        lumi$areBlockBitsUnverified = true;
+        lumi$wereBlockArraysHandedOut = true;
+    }
+
+    @Override
+    public @NotNull SubChunkBitSet lumi$opaqueBlocks() {
+        lumi$ensureBlockBits();
+        return lumi$opaqueBlocks;
+    }
+
+    @Override
+    public @NotNull SubChunkBitSet lumi$lightEmittingBlocks() {
+        lumi$ensureBlockBits();
+        return lumi$lightEmittingBlocks;
+    }
+
+    @Override
+    public boolean lumi$wereBlockArraysHandedOut() {
+        return lumi$wereBlockArraysHandedOut;
+    }
+
+    @Override
+    public boolean lumi$hasNoBlocks() {
+        if (lumi$isLightOnly)
+            return true;
+        lumi$ensureBlockBits();
+        return lumi$nonAirBlockCount == 0;
+    }
+
     @Override
     public void lumi$setDirty(boolean state) {
         lumi$isDirty = state;
     }
+
+    @Override
+    public void lumi$releaseBlockStorage() {
+        if (lumi$isLightOnly || !LumiConfig.ENABLE_LIGHT_ONLY_SUB_CHUNKS)
+            return;
+        if (blockRefCount != 0 || blockMSBArray != null || blockLSBArray == null || blockMetadataArray == null)
+            return;
+        if (!ArrayHelper.isZero(blockLSBArray) || !ArrayHelper.isZero(blockMetadataArray.data))
+            return;
+
+        // Left empty instead of sharing arrays, so anything accessing the fields directly fails instead of writing to all of them
+        blockLSBArray = null;
+        blockMetadataArray = null;
+        lumi$isLightOnly = true;
+    }
+
+    @Unique
+    private void lumi$ensureBlockStorage() {
+        if (!lumi$isLightOnly)
+            return;
+
+        blockLSBArray = new byte[4096];
+        blockMetadataArray = new NibbleArray(4096, 4);
+        lumi$isLightOnly = false;
+    }
+
+    @Unique
+    private void lumi$ensureBlockBits() {
+        if (lumi$areBlockBitsValid) {
+            if (!lumi$areBlockBitsUnverified)
+                return;
+
+            // Hashing the block IDs is far cheaper than looking up the light properties of every block again
+            lumi$areBlockBitsUnverified = false;
+            val blockIDHash = lumi$hashBlockIDs();
+            if (blockIDHash == lumi$blockIDHash)
+                return;
+        }
+
+        if (lumi$opaqueBlocks == null) {
+            lumi$opaqueBlocks = new SubChunkBitSet();
+            lumi$lightEmittingBlocks = new SubChunkBitSet();
+        } else {
+            lumi$opaqueBlocks.clear();
+            lumi$lightEmittingBlocks.clear();
+        }
+
+        var nonAirBlockCount = 0;
+        if (!lumi$isLightOnly) {
+            for (var y = 0; y < 16; y++) {
+                for (var z = 0; z < 16; z++) {
+                    for (var x = 0; x < 16; x++) {
+                        val index = SubChunkBitSet.index(x, y, z);
+                        if (lumi$blockID(index) == 0)
+                            continue;
+                        val block = getBlockByExtId(x, y, z);
+                        lumi$opaqueBlocks.set(index, lumi$isOpaque(block));
+                        lumi$lightEmittingBlocks.set(index, lumi$mayEmitLight(block));
+                        nonAirBlockCount++;
+                    }
+                }
+            }
+        }
+        lumi$nonAirBlockCount = nonAirBlockCount;
+        lumi$blockIDHash = lumi$hashBlockIDs();
+        lumi$areBlockBitsValid = true;
+        lumi$areBlockBitsUnverified = false;
+    }
+
+    @Unique
+    private int lumi$blockID(int index) {
+        val blockLSBArray = this.blockLSBArray;
+        if (blockLSBArray == null)
+            return 0;
+        var blockID = blockLSBArray[index] & 0xFF;
+        val blockMSBArray = this.blockMSBArray;
+        if (blockMSBArray != null)
+            blockID |= (blockMSBArray.data[index >> 1] >> ((index & 1) << 2) & 0xF) << 8;
+        return blockID;
+    }
+
+    @Unique
+    private int lumi$hashBlockIDs() {
+        if (blockLSBArray == null)
+            return EMPTY_BLOCK_ID_HASH;
+        var blockIDHash = 0;
+        for (var index = 0; index < SubChunkBitSet.SIZE; index++)
+            blockIDHash ^= lumi$blockIDHash(index, lumi$blockID(index));
+        return blockIDHash;
+    }
+
+    /**
+     * Combined by XOR, so a single block change updates the hash of the whole sub chunk without rehashing it.
+     */
+    @Unique
+    private static int lumi$blockIDHash(int index, int blockID) {
+        val hash = (index << 12 | blockID) * 0x9E3779B9;
+        return hash ^ hash >>> 16;
+    }
+
+    @Unique
+    private static int lumi$emptyBlockIDHash() {
+        var blockIDHash = 0;
+        for (var index = 0; index < SubChunkBitSet.SIZE; index++)
+            blockIDHash ^= lumi$blockIDHash(index, 0);
+        return blockIDHash;
+    }
+
+    /**
+     * Blocks with positional light properties are never considered opaque, as their opacity depends on the world.
+     */
+    @Unique
+    private static boolean lumi$isOpaque(Block block) {
+        return !((LumiBlockImpl) block).lumi$hasPositionalLightProperties() && block.getLightOpacity() >= 15;
+    }
+
+    @Unique
+    private static boolean lumi$mayEmitLight(Block block) {
+        return ((LumiBlockImpl) block).lumi$hasPositionalLightProperties() || block.getLightValue() > 0;
+    }
+
+    @Unique
+    @SuppressWarnings("CastToIncompatibleInterface")
+    private LumiSubChunk lumi$subChunk() {
+        return (LumiSubChunk) this;
+    }
 }
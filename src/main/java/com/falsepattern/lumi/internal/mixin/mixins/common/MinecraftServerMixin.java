@@ -0,0 +1,107 @@
+/*
+ * Lumi
+ *
+ * Copyright (C) 2023-2025 FalsePattern, Ven
+ * All Rights Reserved
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, only version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.falsepattern.lumi.internal.mixin.mixins.common;
+
+import com.falsepattern.lumi.internal.config.LumiConfig;
+import com.falsepattern.lumi.internal.mixin.hook.LightingHooks;
+import lombok.val;
+import lombok.var;
+import net.minecraft.server.MinecraftServer;
+import net.minecraftforge.common.DimensionManager;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import java.util.concurrent.TimeUnit;
+
+@Mixin(MinecraftServer.class)
+public abstract class MinecraftServerMixin {
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    /**
+     * Every world gets at least this much of the budget, even if the worlds before it used it all up.
+     */
+    private static final long MIN_WORLD_BUDGET_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    @Unique
+    private long lumi$tickStartNanos;
+    @Unique
+    private int lumi$firstBudgetedWorld;
+
+    @Inject(method = "tick",
+            at = @At("HEAD"),
+            require = 1)
+    private void awaitAsyncLighting(CallbackInfo ci) {
+        lumi$tickStartNanos = System.nanoTime();
+        if (!LumiConfig.ENABLE_ASYNC_LIGHTING)
+            return;
+
+        val worldsBase = DimensionManager.getWorlds();
+        for (val worldBase : worldsBase)
+            LightingHooks.awaitAsyncLightingUpdates(worldBase);
+    }
+
+    @Inject(method = "tick",
+            at = @At("RETURN"),
+            require = 1)
+    private void beginAsyncLighting(CallbackInfo ci) {
+        if (!LumiConfig.ENABLE_ASYNC_LIGHTING)
+            return;
+
+        val worldsBase = DimensionManager.getWorlds();
+        for (val worldBase : worldsBase)
+            LightingHooks.beginAsyncLightingUpdates(worldBase);
+    }
+
+    @Inject(method = "tick",
+            at = @At("RETURN"),
+            require = 1)
+    private void processBudgetedLighting(CallbackInfo ci) {
+        if (LumiConfig.ENABLE_ASYNC_LIGHTING || LumiConfig.LIGHTING_TIME_BUDGET_MICROS <= 0)
+            return;
+
+        // Whatever is left of the tick is spent first, the configured budget guarantees progress on slow ticks
+        val nanos = System.nanoTime();
+        val tickSlackNanos = TICK_NANOS - (nanos - lumi$tickStartNanos);
+        val budgetNanos = Math.max(tickSlackNanos, TimeUnit.MICROSECONDS.toNanos(LumiConfig.LIGHTING_TIME_BUDGET_MICROS));
+        val deadlineNanos = nanos + budgetNanos;
+
+        val worldsBase = DimensionManager.getWorlds();
+        val worldCount = worldsBase.length;
+        if (worldCount == 0)
+            return;
+
+        // Rotated each tick, so the same world is not always the one left with the least time
+        val firstWorld = lumi$firstBudgetedWorld % worldCount;
+        lumi$firstBudgetedWorld = (firstWorld + 1) % worldCount;
+        for (var i = 0; i < worldCount; i++) {
+            val worldBase = worldsBase[(firstWorld + i) % worldCount];
+            // An even share of what is left, so time not used by a world goes to the ones after it
+            val remainingNanos = deadlineNanos - System.nanoTime();
+            val worldBudgetNanos = Math.max(remainingNanos / (worldCount - i), MIN_WORLD_BUDGET_NANOS);
+            LightingHooks.processLightingUpdatesForAllTypes(worldBase, worldBudgetNanos);
+        }
+    }
+}
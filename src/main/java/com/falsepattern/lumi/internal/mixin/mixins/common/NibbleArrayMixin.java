@@ -23,8 +23,7 @@
 
 package com.falsepattern.lumi.internal.mixin.mixins.common;
 
-import lombok.val;
-import lombok.var;
+import com.falsepattern.lumi.internal.util.NibbleUtil;
 import net.minecraft.world.chunk.NibbleArray;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
@@ -49,22 +48,7 @@ public abstract class NibbleArrayMixin {
      */
     @Overwrite
     public int get(int subChunkPosX, int subChunkPosY, int subChunkPosZ) {
-        subChunkPosX &= 15;
-        subChunkPosY &= 15;
-        subChunkPosZ &= 15;
-
-        val key = subChunkPosY << depthBitsPlusFour |
-                  subChunkPosZ << depthBits |
-                  subChunkPosX;
-
-        val index = key >> 1;
-        val parity = key & 1;
-
-        var value = data[index];
-        if (parity == 1)
-            value >>= 4;
-
-        return value & 0xF;
+        return NibbleUtil.get(data, depthBits, depthBitsPlusFour, subChunkPosX, subChunkPosY, subChunkPosZ);
     }
 
     /**
@@ -73,27 +57,6 @@ public abstract class NibbleArrayMixin {
      */
     @Overwrite
     public void set(int subChunkPosX, int subChunkPosY, int subChunkPosZ, int value) {
-        subChunkPosX &= 15;
-        subChunkPosY &= 15;
-        subChunkPosZ &= 15;
-
-        value &= 0x0F;
-
-        val key = subChunkPosY << depthBitsPlusFour |
-                  subChunkPosZ << depthBits |
-                  subChunkPosX;
-
-        val index = key >> 1;
-        val parity = key & 1;
-
-        var currentValue = data[index];
-        if (parity == 0) {
-            currentValue &= 0xF0;
-        } else {
-            value <<= 4;
-            currentValue &= 0x0F;
-        }
-
-        data[index] = (byte) (value | currentValue);
+        NibbleUtil.set(data, depthBits, depthBitsPlusFour, subChunkPosX, subChunkPosY, subChunkPosZ, value);
     }
 }
@@ -23,6 +23,7 @@
 
 package com.falsepattern.lumi.internal.mixin.mixins.common;
 
+import com.falsepattern.lumi.internal.lighting.phosphor.LightingTrigger;
 import com.falsepattern.lumi.internal.mixin.hook.LightingHooks;
 import net.minecraft.network.play.server.S21PacketChunkData;
 import net.minecraft.world.chunk.Chunk;
@@ -42,6 +43,6 @@ public abstract class S21PacketChunkDataMixin {
                                                      boolean hasSky,
                                                      int subChunkMask,
                                                      CallbackInfoReturnable<S21PacketChunkData.Extracted> cir) {
-        LightingHooks.processLightingUpdatesForAllTypes(chunkBase);
+        LightingHooks.processLightingUpdatesForAllTypes(chunkBase, LightingTrigger.PACKET);
     }
 }
@@ -152,7 +152,7 @@ public abstract class LumiChunkImplMixin implements LumiChunk {
     @Override
     @SuppressWarnings("InstanceofIncompatibleInterface")
     public @Nullable LumiSubChunk lumi$getSubChunkIfPrepared(int chunkPosY) {
-        val subChunk = storageArrays[chunkPosY];
+        val subChunk = storageArrays[chunkPosY & 15];
         if (subChunk instanceof LumiSubChunk)
             return (LumiSubChunk) subChunk;
         return null;
@@ -238,6 +238,25 @@ public abstract class LumiChunkImplMixin implements LumiChunk {
         }
     }
 
+    @Override
+    public void lumi$setLightValueWithoutMarkingDirty(@NotNull LightType lightType,
+                                                      int subChunkPosX,
+                                                      int posY,
+                                                      int subChunkPosZ,
+                                                      int lightValue) {
+        switch (lightType) {
+            case BLOCK_LIGHT_TYPE:
+                lumi$writeBlockLightValue(subChunkPosX, posY, subChunkPosZ, lightValue);
+                break;
+            case SKY_LIGHT_TYPE:
+                if (lumi$world.lumi$root().lumi$hasSky())
+                    lumi$writeSkyLightValue(subChunkPosX, posY, subChunkPosZ, lightValue);
+                break;
+            default:
+                break;
+        }
+    }
+
     @Override
     public int lumi$getLightValue(@NotNull LightType lightType, int subChunkPosX, int posY, int subChunkPosZ) {
         switch (lightType) {
@@ -252,6 +271,12 @@ public abstract class LumiChunkImplMixin implements LumiChunk {
 
     @Override
     public void lumi$setBlockLightValue(int subChunkPosX, int posY, int subChunkPosZ, int lightValue) {
+        lumi$writeBlockLightValue(subChunkPosX, posY, subChunkPosZ, lightValue);
+        lumi$root.lumi$markDirty();
+    }
+
+    @Unique
+    private void lumi$writeBlockLightValue(int subChunkPosX, int posY, int subChunkPosZ, int lightValue) {
         val chunkPosY = (posY & 255) / 16;
 
         subChunkPosX &= 15;
@@ -260,15 +285,15 @@ public abstract class LumiChunkImplMixin implements LumiChunk {
 
         val subChunk = lumi$getSubChunk(chunkPosY);
         subChunk.lumi$setBlockLightValue(subChunkPosX, subChunkPosY, subChunkPosZ, lightValue);
-
-        lumi$root.lumi$markDirty();
     }
 
     @Override
     public int lumi$getBlockLightValue(int subChunkPosX, int posY, int subChunkPosZ) {
         val chunkPosY = (posY & 255) / 16;
 
-        val subChunk = lumi$getSubChunk(chunkPosY);
+        val subChunk = lumi$getSubChunkIfPrepared(chunkPosY);
+        if (subChunk == null)
+            return BLOCK_LIGHT_TYPE.defaultLightValue();
 
         subChunkPosX &= 15;
         val subChunkPosY = posY & 15;
@@ -282,6 +307,12 @@ public abstract class LumiChunkImplMixin implements LumiChunk {
         if (!lumi$world.lumi$root().lumi$hasSky())
             return;
 
+        lumi$writeSkyLightValue(subChunkPosX, posY, subChunkPosZ, lightValue);
+        lumi$root.lumi$markDirty();
+    }
+
+    @Unique
+    private void lumi$writeSkyLightValue(int subChunkPosX, int posY, int subChunkPosZ, int lightValue) {
         val chunkPosY = (posY & 255) / 16;
 
         subChunkPosX &= 15;
@@ -290,8 +321,6 @@ public abstract class LumiChunkImplMixin implements LumiChunk {
 
         val subChunk = lumi$getSubChunk(chunkPosY);
         subChunk.lumi$setSkyLightValue(subChunkPosX, subChunkPosY, subChunkPosZ, lightValue);
-
-        lumi$root.lumi$markDirty();
     }
 
     @Override
@@ -304,7 +333,9 @@ public abstract class LumiChunkImplMixin implements LumiChunk {
         subChunkPosX &= 15;
         subChunkPosZ &= 15;
 
-        val subChunk = lumi$getSubChunk(chunkPosY);
+        val subChunk = lumi$getSubChunkIfPrepared(chunkPosY);
+        if (subChunk == null)
+            return 0;
 
         val subChunkPosY = posY & 15;
         return subChunk.lumi$getSkyLightValue(subChunkPosX, subChunkPosY, subChunkPosZ);
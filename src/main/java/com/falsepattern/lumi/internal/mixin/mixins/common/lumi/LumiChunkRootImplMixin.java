@@ -25,6 +25,7 @@ package com.falsepattern.lumi.internal.mixin.mixins.common.lumi;
 
 import com.falsepattern.lumi.api.chunk.LumiChunkRoot;
 import com.falsepattern.lumi.internal.mixin.hook.LightingHooks;
+import com.falsepattern.lumi.internal.mixin.interfaces.LumiSubChunkImpl;
 import lombok.val;
 import lombok.var;
 import net.minecraft.block.Block;
@@ -89,10 +90,10 @@ public abstract class LumiChunkRootImplMixin implements LumiChunkRoot {
             val posY = chunkPosY << 4;
             subChunkBase = new ExtendedBlockStorage(posY, !worldObj.provider.hasNoSky);
             storageArrays[chunkPosY] = subChunkBase;
+            ((LumiSubChunkImpl) subChunkBase).lumi$releaseBlockStorage();
             LightingHooks.handleSubChunkInit(thiz(), subChunkBase);
+            lumi$markDirty();
         }
-
-        lumi$markDirty();
     }
 
     @Override
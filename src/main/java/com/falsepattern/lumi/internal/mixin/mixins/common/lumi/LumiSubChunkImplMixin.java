@@ -23,14 +23,14 @@
 
 package com.falsepattern.lumi.internal.mixin.mixins.common.lumi;
 
-import com.falsepattern.chunk.api.ArrayUtil;
 import com.falsepattern.lumi.api.chunk.LumiSubChunk;
 import com.falsepattern.lumi.api.chunk.LumiSubChunkRoot;
 import com.falsepattern.lumi.api.lighting.LightType;
 import com.falsepattern.lumi.internal.ArrayHelper;
+import com.falsepattern.lumi.internal.collection.CompactNibbleArray;
 import com.falsepattern.lumi.internal.mixin.interfaces.LumiSubChunkImpl;
-import com.falsepattern.lumi.internal.util.LazyUtil;
 import lombok.val;
+import lombok.var;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.world.chunk.NibbleArray;
 import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
@@ -47,13 +47,30 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import net.minecraftforge.common.util.Constants;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import static com.falsepattern.lumi.api.init.LumiExtendedBlockStorageInitHook.LUMI_EXTENDED_BLOCK_STORAGE_INIT_HOOK_INFO;
 import static com.falsepattern.lumi.api.init.LumiExtendedBlockStorageInitHook.LUMI_EXTENDED_BLOCK_STORAGE_INIT_HOOK_METHOD;
+import static com.falsepattern.lumi.api.lighting.LightType.BLOCK_LIGHT_TYPE;
+import static com.falsepattern.lumi.api.lighting.LightType.SKY_LIGHT_TYPE;
 
+/**
+ * Light arrays are stored in one of three ways, checked in order:
+ * <ul>
+ *     <li>A regular nibble array, once written to or handed out to a legacy caller</li>
+ *     <li>A {@link CompactNibbleArray}, for uniform or low-palette data</li>
+ *     <li>Nothing, if all light values are zero</li>
+ * </ul>
+ * Regular arrays are compacted again when saved, unless they have been handed out.
+ */
 @Unique
 @Mixin(ExtendedBlockStorage.class)
 public abstract class LumiSubChunkImplMixin implements LumiSubChunk, LumiSubChunkImpl {
+    private static final int NIBBLE_DATA_SIZE = 2048;
+    // Kept apart from the array tags, older versions never mistake a single value for the full light array
+    private static final String BLOCK_LIGHT_UNIFORM_NBT_TAG_NAME = "block_light_uniform";
+    private static final String SKY_LIGHT_UNIFORM_NBT_TAG_NAME = "sky_light_uniform";
+
     @Nullable
     @Shadow
     private NibbleArray blocklightArray;
@@ -63,6 +80,17 @@ public abstract class LumiSubChunkImplMixin implements LumiSubChunk, LumiSubChun
 
     private LumiSubChunkRoot lumi$root;
 
+    @Nullable
+    private CompactNibbleArray lumi$blockLightCompact;
+    @Nullable
+    private CompactNibbleArray lumi$skyLightCompact;
+
+    private boolean lumi$blockLightArrayShared;
+    private boolean lumi$skyLightArrayShared;
+
+    // Only kept up to date for arrays that have not been handed out
+    private int lumi$blockLightNonZeroCount;
+    private int lumi$skyLightNonZeroCount;
 
     @Inject(method = LUMI_EXTENDED_BLOCK_STORAGE_INIT_HOOK_METHOD,
             at = @At("RETURN"),
@@ -86,64 +114,69 @@ public abstract class LumiSubChunkImplMixin implements LumiSubChunk, LumiSubChun
 
     @Override
     public void lumi$writeToNBT(@NotNull NBTTagCompound output) {
-        if (blocklightArray != null)
-            output.setByteArray(BLOCK_LIGHT_NBT_TAG_NAME, blocklightArray.data);
-        if (skylightArray != null)
-            output.setByteArray(SKY_LIGHT_NBT_TAG_NAME, skylightArray.data);
+        // Compacted first, so uniform light is stored as a single value
+        lumi$compactLightArrays();
+
+        val blockLightValue = lumi$uniformLightValue(BLOCK_LIGHT_TYPE);
+        if (blockLightValue >= 0) {
+            output.setByte(BLOCK_LIGHT_UNIFORM_NBT_TAG_NAME, (byte) blockLightValue);
+        } else {
+            val blockLightData = lumi$lightData(BLOCK_LIGHT_TYPE);
+            if (blockLightData != null)
+                output.setByteArray(BLOCK_LIGHT_NBT_TAG_NAME, blockLightData);
+        }
+
+        val skyLightValue = lumi$uniformLightValue(SKY_LIGHT_TYPE);
+        if (skyLightValue >= 0) {
+            output.setByte(SKY_LIGHT_UNIFORM_NBT_TAG_NAME, (byte) skyLightValue);
+        } else {
+            val skyLightData = lumi$lightData(SKY_LIGHT_TYPE);
+            if (skyLightData != null)
+                output.setByteArray(SKY_LIGHT_NBT_TAG_NAME, skyLightData);
+        }
     }
 
     @Override
     public void lumi$readFromNBT(@NotNull NBTTagCompound input) {
-        if (input.hasKey(BLOCK_LIGHT_NBT_TAG_NAME, Constants.NBT.TAG_BYTE_ARRAY)) {
-            val blockLightBytes = input.getByteArray(BLOCK_LIGHT_NBT_TAG_NAME);
-            if (ArrayHelper.isZero(blockLightBytes)) {
-                blocklightArray = null;
-            } else if (blocklightArray == null) {
-                blocklightArray = new NibbleArray(blockLightBytes, 4);
-            } else {
-                System.arraycopy(blockLightBytes, 0, blocklightArray.data, 0, 2048);
-            }
+        if (input.hasKey(BLOCK_LIGHT_UNIFORM_NBT_TAG_NAME, Constants.NBT.TAG_BYTE)) {
+            lumi$fillLightArray(BLOCK_LIGHT_TYPE, input.getByte(BLOCK_LIGHT_UNIFORM_NBT_TAG_NAME));
+        } else if (input.hasKey(BLOCK_LIGHT_NBT_TAG_NAME, Constants.NBT.TAG_BYTE_ARRAY)) {
+            lumi$loadBlockLight(input.getByteArray(BLOCK_LIGHT_NBT_TAG_NAME));
         } else {
-            blocklightArray = null;
+            lumi$loadBlockLight(null);
         }
 
-        if (input.hasKey(SKY_LIGHT_NBT_TAG_NAME, Constants.NBT.TAG_BYTE_ARRAY)) {
-            val skyLightBytes = input.getByteArray(SKY_LIGHT_NBT_TAG_NAME);
-            if (ArrayHelper.isZero(skyLightBytes)) {
-                skylightArray = null;
-            } else if (skylightArray == null) {
-                skylightArray = new NibbleArray(skyLightBytes, 4);
-            } else {
-                System.arraycopy(skyLightBytes, 0, skylightArray.data, 0, 2048);
-            }
+        if (input.hasKey(SKY_LIGHT_UNIFORM_NBT_TAG_NAME, Constants.NBT.TAG_BYTE)) {
+            lumi$fillLightArray(SKY_LIGHT_TYPE, input.getByte(SKY_LIGHT_UNIFORM_NBT_TAG_NAME));
+        } else if (input.hasKey(SKY_LIGHT_NBT_TAG_NAME, Constants.NBT.TAG_BYTE_ARRAY)) {
+            lumi$loadSkyLight(input.getByteArray(SKY_LIGHT_NBT_TAG_NAME));
         } else {
-            skylightArray = null;
+            lumi$loadSkyLight(null);
         }
     }
 
     @Override
     public void lumi$cloneFrom(LumiSubChunk from) {
-        blocklightArray = ArrayUtil.copyArray(from.lumi$getBlockLightArray(), lumi$getBlockLightArray());
-        skylightArray = ArrayUtil.copyArray(from.lumi$getSkyLightArray(), lumi$getSkyLightArray());
+        if (from instanceof LumiSubChunkImpl) {
+            val fromImpl = (LumiSubChunkImpl) from;
+            lumi$loadBlockLight(lumi$copyOf(fromImpl.lumi$lightData(BLOCK_LIGHT_TYPE)));
+            lumi$loadSkyLight(lumi$copyOf(fromImpl.lumi$lightData(SKY_LIGHT_TYPE)));
+        } else {
+            lumi$loadBlockLight(lumi$copyOf(from.lumi$getBlockLightArray()));
+            lumi$loadSkyLight(lumi$copyOf(from.lumi$getSkyLightArray()));
+        }
     }
 
     @Override
     public void lumi$writeToPacket(@NotNull ByteBuffer output) {
-        if (blocklightArray != null && ArrayHelper.isZero(blocklightArray.data)) {
-            blocklightArray = null;
-            lumi$setDirty(true);
-        }
-        if (skylightArray != null && ArrayHelper.isZero(skylightArray.data)) {
-            skylightArray = null;
-            lumi$setDirty(true);
-        }
-
-        byte flag = (byte) ((blocklightArray != null ? 1 : 0) | (skylightArray != null ? 2 : 0));
+        val blockLightData = lumi$isLightArrayEmpty(BLOCK_LIGHT_TYPE) ? null : lumi$lightData(BLOCK_LIGHT_TYPE);
+        val skyLightData = lumi$isLightArrayEmpty(SKY_LIGHT_TYPE) ? null : lumi$lightData(SKY_LIGHT_TYPE);
+        byte flag = (byte) ((blockLightData != null ? 1 : 0) | (skyLightData != null ? 2 : 0));
         output.put(flag);
-        if (blocklightArray != null)
-            output.put(blocklightArray.data);
-        if (skylightArray != null)
-            output.put(skylightArray.data);
+        if (blockLightData != null)
+            output.put(blockLightData);
+        if (skyLightData != null)
+            output.put(skyLightData);
     }
 
     @Override
@@ -153,20 +186,14 @@ public abstract class LumiSubChunkImplMixin implements LumiSubChunk, LumiSubChun
         boolean doSky = (flag & 2) != 0;
 
         if (doBlock) {
-            if (blocklightArray == null) {
-                blocklightArray = new NibbleArray(4096, 4);
-            }
-            input.get(blocklightArray.data);
+            lumi$loadBlockLight(lumi$readLightData(input, blocklightArray));
         } else {
-            blocklightArray = null;
+            lumi$loadBlockLight(null);
         }
         if (doSky) {
-            if (skylightArray == null) {
-                skylightArray = new NibbleArray(4096, 4);
-            }
-            input.get(skylightArray.data);
+            lumi$loadSkyLight(lumi$readLightData(input, skylightArray));
         } else {
-            skylightArray = null;
+            lumi$loadSkyLight(null);
         }
         lumi$setDirty(true);
     }
@@ -206,35 +233,325 @@ public abstract class LumiSubChunkImplMixin implements LumiSubChunk, LumiSubChun
 
     @Override
     public void lumi$setBlockLightValue(int subChunkPosX, int subChunkPosY, int subChunkPosZ, int lightValue) {
-        blocklightArray = LazyUtil.lazySet(blocklightArray, subChunkPosX, subChunkPosY, subChunkPosZ, lightValue);
-        if (blocklightArray != null)
-            lumi$setDirty(true);
+        if (blocklightArray == null) {
+            val compact = lumi$blockLightCompact;
+            if (compact == null ? lightValue == 0 : compact.get(subChunkPosX, subChunkPosY, subChunkPosZ) == lightValue)
+                return;
+            blocklightArray = lumi$inflate(compact);
+            lumi$blockLightCompact = null;
+            lumi$blockLightNonZeroCount = compact == null ? 0 : compact.nonZeroCount();
+        }
+
+        val oldLightValue = blocklightArray.get(subChunkPosX, subChunkPosY, subChunkPosZ);
+        if (oldLightValue == lightValue)
+            return;
+        blocklightArray.set(subChunkPosX, subChunkPosY, subChunkPosZ, lightValue);
+        lumi$blockLightNonZeroCount += lumi$nonZeroDelta(oldLightValue, lightValue);
+        if (lumi$blockLightNonZeroCount == 0 && !lumi$blockLightArrayShared)
+            blocklightArray = null;
+        lumi$setDirty(true);
     }
 
     @Override
     public int lumi$getBlockLightValue(int subChunkPosX, int subChunkPosY, int subChunkPosZ) {
-        return LazyUtil.lazyGet(blocklightArray, subChunkPosX, subChunkPosY, subChunkPosZ);
+        if (blocklightArray != null)
+            return blocklightArray.get(subChunkPosX, subChunkPosY, subChunkPosZ);
+        if (lumi$blockLightCompact != null)
+            return lumi$blockLightCompact.get(subChunkPosX, subChunkPosY, subChunkPosZ);
+        return 0;
     }
 
     @Override
     public void lumi$setSkyLightValue(int subChunkPosX, int subChunkPosY, int subChunkPosZ, int lightValue) {
-        skylightArray = LazyUtil.lazySet(skylightArray, subChunkPosX, subChunkPosY, subChunkPosZ, lightValue);
-        if (skylightArray != null)
-            lumi$setDirty(true);
+        if (skylightArray == null) {
+            val compact = lumi$skyLightCompact;
+            if (compact == null ? lightValue == 0 : compact.get(subChunkPosX, subChunkPosY, subChunkPosZ) == lightValue)
+                return;
+            skylightArray = lumi$inflate(compact);
+            lumi$skyLightCompact = null;
+            lumi$skyLightNonZeroCount = compact == null ? 0 : compact.nonZeroCount();
+        }
+
+        val oldLightValue = skylightArray.get(subChunkPosX, subChunkPosY, subChunkPosZ);
+        if (oldLightValue == lightValue)
+            return;
+        skylightArray.set(subChunkPosX, subChunkPosY, subChunkPosZ, lightValue);
+        lumi$skyLightNonZeroCount += lumi$nonZeroDelta(oldLightValue, lightValue);
+        if (lumi$skyLightNonZeroCount == 0 && !lumi$skyLightArrayShared)
+            skylightArray = null;
+        lumi$setDirty(true);
     }
 
     @Override
     public int lumi$getSkyLightValue(int subChunkPosX, int subChunkPosY, int subChunkPosZ) {
-        return LazyUtil.lazyGet(skylightArray, subChunkPosX, subChunkPosY, subChunkPosZ);
+        if (skylightArray != null)
+            return skylightArray.get(subChunkPosX, subChunkPosY, subChunkPosZ);
+        if (lumi$skyLightCompact != null)
+            return lumi$skyLightCompact.get(subChunkPosX, subChunkPosY, subChunkPosZ);
+        return 0;
     }
 
     @Override
     public NibbleArray lumi$getBlockLightArray() {
+        if (blocklightArray == null && lumi$blockLightCompact != null) {
+            blocklightArray = lumi$inflate(lumi$blockLightCompact);
+            lumi$blockLightCompact = null;
+        }
+        if (blocklightArray != null)
+            lumi$blockLightArrayShared = true;
         return blocklightArray;
     }
 
     @Override
     public NibbleArray lumi$getSkyLightArray() {
+        if (skylightArray == null && lumi$skyLightCompact != null) {
+            skylightArray = lumi$inflate(lumi$skyLightCompact);
+            lumi$skyLightCompact = null;
+        }
+        if (skylightArray != null)
+            lumi$skyLightArrayShared = true;
         return skylightArray;
     }
+
+    @Override
+    public @NotNull NibbleArray lumi$getOrCreateLightArray(@NotNull LightType lightType) {
+        switch (lightType) {
+            case BLOCK_LIGHT_TYPE:
+                if (blocklightArray == null) {
+                    blocklightArray = lumi$inflate(lumi$blockLightCompact);
+                    lumi$blockLightCompact = null;
+                }
+                lumi$blockLightArrayShared = true;
+                return blocklightArray;
+            case SKY_LIGHT_TYPE:
+                if (skylightArray == null) {
+                    skylightArray = lumi$inflate(lumi$skyLightCompact);
+                    lumi$skyLightCompact = null;
+                }
+                lumi$skyLightArrayShared = true;
+                return skylightArray;
+            default:
+                throw new IllegalArgumentException("Unknown light type: " + lightType);
+        }
+    }
+
+    @Override
+    public void lumi$setLightArray(@NotNull LightType lightType, @Nullable NibbleArray lightArray) {
+        switch (lightType) {
+            case BLOCK_LIGHT_TYPE:
+                blocklightArray = lightArray;
+                lumi$blockLightCompact = null;
+                lumi$blockLightArrayShared = lightArray != null;
+                break;
+            case SKY_LIGHT_TYPE:
+                skylightArray = lightArray;
+                lumi$skyLightCompact = null;
+                lumi$skyLightArrayShared = lightArray != null;
+                break;
+            default:
+                return;
+        }
+        lumi$setDirty(true);
+    }
+
+    @Override
+    public void lumi$fillLightArray(@NotNull LightType lightType, int lightValue) {
+        switch (lightType) {
+            case BLOCK_LIGHT_TYPE:
+                if (blocklightArray != null && lumi$blockLightArrayShared) {
+                    lumi$fill(blocklightArray, lightValue);
+                } else {
+                    blocklightArray = null;
+                    lumi$blockLightCompact = lumi$uniformOrNull(lightValue);
+                }
+                break;
+            case SKY_LIGHT_TYPE:
+                if (skylightArray != null && lumi$skyLightArrayShared) {
+                    lumi$fill(skylightArray, lightValue);
+                } else {
+                    skylightArray = null;
+                    lumi$skyLightCompact = lumi$uniformOrNull(lightValue);
+                }
+                break;
+            default:
+                return;
+        }
+        lumi$setDirty(true);
+    }
+
+    @Override
+    public boolean lumi$isLightArrayEmpty(@NotNull LightType lightType) {
+        switch (lightType) {
+            case BLOCK_LIGHT_TYPE:
+                if (blocklightArray == null)
+                    return lumi$blockLightCompact == null;
+                if (lumi$blockLightArrayShared)
+                    return ArrayHelper.isZero(blocklightArray.data);
+                return lumi$blockLightNonZeroCount == 0;
+            case SKY_LIGHT_TYPE:
+                if (skylightArray == null)
+                    return lumi$skyLightCompact == null;
+                if (lumi$skyLightArrayShared)
+                    return ArrayHelper.isZero(skylightArray.data);
+                return lumi$skyLightNonZeroCount == 0;
+            default:
+                return true;
+        }
+    }
+
+    @Override
+    public byte @Nullable [] lumi$lightData(@NotNull LightType lightType) {
+        switch (lightType) {
+            case BLOCK_LIGHT_TYPE:
+                if (blocklightArray != null)
+                    return blocklightArray.data;
+                return lumi$blockLightCompact == null ? null : lumi$blockLightCompact.toNibbleData();
+            case SKY_LIGHT_TYPE:
+                if (skylightArray != null)
+                    return skylightArray.data;
+                return lumi$skyLightCompact == null ? null : lumi$skyLightCompact.toNibbleData();
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public void lumi$compactLightArrays() {
+        if (blocklightArray != null && !lumi$blockLightArrayShared)
+            lumi$loadBlockLight(blocklightArray.data);
+        if (skylightArray != null && !lumi$skyLightArrayShared)
+            lumi$loadSkyLight(skylightArray.data);
+    }
+
+    @Unique
+    private void lumi$loadBlockLight(byte @Nullable [] data) {
+        if (blocklightArray != null && lumi$blockLightArrayShared) {
+            lumi$copyInto(blocklightArray, data);
+            return;
+        }
+
+        val compact = data == null ? null : CompactNibbleArray.compact(data);
+        if (compact != null) {
+            blocklightArray = null;
+            lumi$blockLightCompact = compact.isZero() ? null : compact;
+        } else {
+            blocklightArray = data == null ? null : lumi$reuseOrWrap(blocklightArray, data);
+            lumi$blockLightCompact = null;
+            lumi$blockLightNonZeroCount = data == null ? 0 : lumi$countNonZero(data);
+        }
+    }
+
+    @Unique
+    private void lumi$loadSkyLight(byte @Nullable [] data) {
+        if (skylightArray != null && lumi$skyLightArrayShared) {
+            lumi$copyInto(skylightArray, data);
+            return;
+        }
+
+        val compact = data == null ? null : CompactNibbleArray.compact(data);
+        if (compact != null) {
+            skylightArray = null;
+            lumi$skyLightCompact = compact.isZero() ? null : compact;
+        } else {
+            skylightArray = data == null ? null : lumi$reuseOrWrap(skylightArray, data);
+            lumi$skyLightCompact = null;
+            lumi$skyLightNonZeroCount = data == null ? 0 : lumi$countNonZero(data);
+        }
+    }
+
+    /**
+     * @return the light value shared by the whole sub chunk, or {@code -1} if the light is not held as a uniform value
+     */
+    @Unique
+    private int lumi$uniformLightValue(@NotNull LightType lightType) {
+        final CompactNibbleArray compact;
+        switch (lightType) {
+            case BLOCK_LIGHT_TYPE:
+                compact = blocklightArray == null ? lumi$blockLightCompact : null;
+                break;
+            case SKY_LIGHT_TYPE:
+                compact = skylightArray == null ? lumi$skyLightCompact : null;
+                break;
+            default:
+                return -1;
+        }
+        if (compact == null || !compact.isUniform())
+            return -1;
+        return compact.get(0, 0, 0);
+    }
+
+    /**
+     * Reads straight into the existing array if there is one, loading the data afterwards either keeps or compacts it.
+     */
+    @Unique
+    private static byte @NotNull [] lumi$readLightData(@NotNull ByteBuffer input, @Nullable NibbleArray reuse) {
+        val data = reuse == null ? new byte[NIBBLE_DATA_SIZE] : reuse.data;
+        input.get(data);
+        return data;
+    }
+
+    @Unique
+    private static @NotNull NibbleArray lumi$inflate(@Nullable CompactNibbleArray compact) {
+        if (compact == null)
+            return new NibbleArray(4096, 4);
+        return new NibbleArray(compact.toNibbleData(), 4);
+    }
+
+    @Unique
+    private static int lumi$nonZeroDelta(int oldLightValue, int newLightValue) {
+        return (newLightValue != 0 ? 1 : 0) - (oldLightValue != 0 ? 1 : 0);
+    }
+
+    @Unique
+    private static int lumi$countNonZero(byte @NotNull [] data) {
+        var nonZeroCount = 0;
+        for (var i = 0; i < NIBBLE_DATA_SIZE; i++) {
+            val nibbles = data[i];
+            if ((nibbles & 0x0F) != 0)
+                nonZeroCount++;
+            if ((nibbles & 0xF0) != 0)
+                nonZeroCount++;
+        }
+        return nonZeroCount;
+    }
+
+    @Unique
+    private static @Nullable CompactNibbleArray lumi$uniformOrNull(int lightValue) {
+        val compact = CompactNibbleArray.uniform(lightValue);
+        return compact.isZero() ? null : compact;
+    }
+
+    @Unique
+    private static @NotNull NibbleArray lumi$reuseOrWrap(@Nullable NibbleArray reuse, byte @NotNull [] data) {
+        if (reuse == null)
+            return new NibbleArray(data, 4);
+        if (reuse.data != data)
+            System.arraycopy(data, 0, reuse.data, 0, NIBBLE_DATA_SIZE);
+        return reuse;
+    }
+
+    @Unique
+    private static void lumi$copyInto(@NotNull NibbleArray array, byte @Nullable [] data) {
+        if (data == null) {
+            Arrays.fill(array.data, (byte) 0);
+        } else if (array.data != data) {
+            System.arraycopy(data, 0, array.data, 0, NIBBLE_DATA_SIZE);
+        }
+    }
+
+    @Unique
+    private static void lumi$fill(@NotNull NibbleArray array, int lightValue) {
+        val nibble = lightValue & 0xF;
+        Arrays.fill(array.data, (byte) (nibble | nibble << 4));
+    }
+
+    @Unique
+    private static byte @Nullable [] lumi$copyOf(@Nullable NibbleArray array) {
+        return array == null ? null : lumi$copyOf(array.data);
+    }
+
+    @Unique
+    private static byte @Nullable [] lumi$copyOf(byte @Nullable [] data) {
+        return data == null ? null : Arrays.copyOf(data, NIBBLE_DATA_SIZE);
+    }
 }
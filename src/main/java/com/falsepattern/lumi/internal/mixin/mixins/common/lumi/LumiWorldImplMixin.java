@@ -30,6 +30,7 @@ import com.falsepattern.lumi.api.lighting.LightType;
 import com.falsepattern.lumi.api.lighting.LumiLightingEngine;
 import com.falsepattern.lumi.api.world.LumiWorld;
 import com.falsepattern.lumi.api.world.LumiWorldRoot;
+import com.falsepattern.lumi.internal.mixin.interfaces.LumiBlockImpl;
 import com.falsepattern.lumi.internal.world.DefaultWorldProvider;
 import lombok.val;
 import net.minecraft.block.Block;
@@ -242,22 +243,31 @@ public abstract class LumiWorldImplMixin implements IBlockAccess, LumiWorld {
     @Override
     public int lumi$getBlockBrightness(int posX, int posY, int posZ) {
         val block = lumi$root.lumi$getBlock(posX, posY, posZ);
-        return block.getLightValue(this, posX, posY, posZ);
+        val blockMeta = lumi$root.lumi$getBlockMeta(posX, posY, posZ);
+        return lumi$getBlockBrightness(block, blockMeta, posX, posY, posZ);
     }
 
     @Override
     public int lumi$getBlockOpacity(int posX, int posY, int posZ) {
         val block = lumi$root.lumi$getBlock(posX, posY, posZ);
-        return block.getLightOpacity(this, posX, posY, posZ);
+        val blockMeta = lumi$root.lumi$getBlockMeta(posX, posY, posZ);
+        return lumi$getBlockOpacity(block, blockMeta, posX, posY, posZ);
     }
 
     @Override
+    @SuppressWarnings("CastToIncompatibleInterface")
     public int lumi$getBlockBrightness(@NotNull Block block, int blockMeta, int posX, int posY, int posZ) {
+        // Skips the megamorphic positional call for the vast majority of blocks
+        if (!((LumiBlockImpl) block).lumi$hasPositionalLightProperties())
+            return block.getLightValue();
         return block.getLightValue(this, posX, posY, posZ);
     }
 
     @Override
+    @SuppressWarnings("CastToIncompatibleInterface")
     public int lumi$getBlockOpacity(@NotNull Block block, int blockMeta, int posX, int posY, int posZ) {
+        if (!((LumiBlockImpl) block).lumi$hasPositionalLightProperties())
+            return block.getLightOpacity();
         return block.getLightOpacity(this, posX, posY, posZ);
     }
     // endregion
@@ -80,6 +80,9 @@ public abstract class LumiWorldRootImplMixin implements IBlockAccess, LumiWorldR
     @Shadow
     public abstract void func_147479_m(int posX, int posY, int posZ);
 
+    @Shadow
+    public abstract void markBlockRangeForRenderUpdate(int minPosX, int minPosY, int minPosZ, int maxPosX, int maxPosY, int maxPosZ);
+
     @Shadow
     public abstract TileEntity getTileEntity(int posX, int posY, int posZ);
 
@@ -118,6 +121,12 @@ public abstract class LumiWorldRootImplMixin implements IBlockAccess, LumiWorldR
             func_147479_m(posX, posY, posZ);
     }
 
+    @Override
+    public void lumi$markBlockRangeForRenderUpdate(int minPosX, int minPosY, int minPosZ, int maxPosX, int maxPosY, int maxPosZ) {
+        if (isRemote)
+            markBlockRangeForRenderUpdate(minPosX, minPosY, minPosZ, maxPosX, maxPosY, maxPosZ);
+    }
+
     @Override
     public void lumi$scheduleLightingUpdate(int posX, int posY, int posZ) {
         func_147451_t(posX, posY, posZ);
@@ -44,6 +44,7 @@ public enum Mixin implements IMixin {
     common_AnvilChunkLoaderMixin(COMMON, always(), "AnvilChunkLoaderMixin"),
     common_ChunkMixin(COMMON, always(), "ChunkMixin"),
     common_ChunkProviderServerMixin(COMMON, always(), "ChunkProviderServerMixin"),
+    common_MinecraftServerMixin(COMMON, always(), "MinecraftServerMixin"),
     common_S21PacketChunkDataMixin(COMMON, always(), "S21PacketChunkDataMixin"),
     common_WorldMixin(COMMON, always(), "WorldMixin"),
 
@@ -54,6 +55,7 @@ public enum Mixin implements IMixin {
     // endregion
 
     // region Fixes & Optimizations
+    common_BlockMixin(COMMON, always(), "BlockMixin"),
     common_ExtendedBlockStorageMixin(COMMON, always(), "ExtendedBlockStorageMixin"),
     common_NibbleArrayMixin(COMMON, always(), "NibbleArrayMixin"),
     common_MixinLongHashMap(COMMON, avoid(ARCHAIC_FIX), "LongHashMapMixin"),
@@ -28,8 +28,10 @@ import com.falsepattern.chunk.api.DataRegistry;
 import com.falsepattern.lumi.api.chunk.LumiChunk;
 import com.falsepattern.lumi.api.chunk.LumiSubChunk;
 import com.falsepattern.lumi.api.init.LumiExtendedBlockStorageInitHook;
+import com.falsepattern.lumi.api.lighting.LightType;
 import com.falsepattern.lumi.api.lighting.LumiLightingEngine;
 import com.falsepattern.lumi.internal.Tags;
+import com.falsepattern.lumi.internal.mixin.interfaces.LumiSubChunkImpl;
 import lombok.NoArgsConstructor;
 import lombok.val;
 import lombok.var;
@@ -43,6 +45,8 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
 
+import static com.falsepattern.lumi.api.lighting.LightType.BLOCK_LIGHT_TYPE;
+import static com.falsepattern.lumi.api.lighting.LightType.SKY_LIGHT_TYPE;
 import static com.falsepattern.lumi.internal.Lumi.createLogger;
 import static com.falsepattern.lumi.internal.world.WorldProviderManager.worldProviderManager;
 import static lombok.AccessLevel.PRIVATE;
@@ -107,17 +111,38 @@ public final class SubChunkNBTManager implements DataManager.SubChunkDataManager
             writeSubChunkData(subChunk, worldTag);
             writeLightingEngineData(chunk, subChunk, lightingEngine, worldTag);
 
-            blockLight = mixLights(blockLight, subChunk.lumi$getBlockLightArray());
-            skyLight = mixLights(skyLight, subChunk.lumi$getSkyLightArray());
+            blockLight = mixLights(blockLight, lightData(subChunk, BLOCK_LIGHT_TYPE));
+            skyLight = mixLights(skyLight, lightData(subChunk, SKY_LIGHT_TYPE));
         }
         output.setByteArray(LumiSubChunk.BLOCK_LIGHT_NBT_TAG_NAME_VANILLA, blockLight == null ? EMPTY : blockLight);
         output.setByteArray(LumiSubChunk.SKY_LIGHT_NBT_TAG_NAME_VANILLA, skyLight == null ? EMPTY : skyLight);
     }
 
-    private static byte[] mixLights(byte[] accumulator, NibbleArray input) {
-        if (input == null)
+    private static byte[] lightData(LumiSubChunk subChunk, LightType lightType) {
+        if (subChunk instanceof LumiSubChunkImpl)
+            return ((LumiSubChunkImpl) subChunk).lumi$lightData(lightType);
+
+        final NibbleArray lightArray;
+        switch (lightType) {
+            case BLOCK_LIGHT_TYPE:
+                lightArray = subChunk.lumi$getBlockLightArray();
+                break;
+            case SKY_LIGHT_TYPE:
+                lightArray = subChunk.lumi$getSkyLightArray();
+                break;
+            default:
+                return null;
+        }
+        return lightArray == null ? null : lightArray.data;
+    }
+
+    static byte[] mixLights(byte[] accumulator, NibbleArray input) {
+        return mixLights(accumulator, input == null ? null : input.data);
+    }
+
+    static byte[] mixLights(byte[] accumulator, byte[] data) {
+        if (data == null)
             return accumulator;
-        var data = input.data;
         if (accumulator == null)
             return Arrays.copyOf(data, data.length);
 
@@ -0,0 +1,91 @@
+/*
+ * Lumi
+ *
+ * Copyright (C) 2023-2025 FalsePattern, Ven
+ * All Rights Reserved
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, only version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package com.falsepattern.lumi.internal.util;
+
+import lombok.experimental.UtilityClass;
+import lombok.val;
+import lombok.var;
+
+/**
+ * Raw nibble access shared by the {@link net.minecraft.world.chunk.NibbleArray} overwrites.
+ * <p>
+ * Kept free of any Minecraft types so it can be exercised outside a mixin environment.
+ */
+@UtilityClass
+public final class NibbleUtil {
+    public static int get(byte[] data,
+                          int depthBits,
+                          int depthBitsPlusFour,
+                          int subChunkPosX,
+                          int subChunkPosY,
+                          int subChunkPosZ) {
+        subChunkPosX &= 15;
+        subChunkPosY &= 15;
+        subChunkPosZ &= 15;
+
+        val key = subChunkPosY << depthBitsPlusFour |
+                  subChunkPosZ << depthBits |
+                  subChunkPosX;
+
+        val index = key >> 1;
+        val parity = key & 1;
+
+        var value = data[index];
+        if (parity == 1)
+            value >>= 4;
+
+        return value & 0xF;
+    }
+
+    public static void set(byte[] data,
+                           int depthBits,
+                           int depthBitsPlusFour,
+                           int subChunkPosX,
+                           int subChunkPosY,
+                           int subChunkPosZ,
+                           int value) {
+        subChunkPosX &= 15;
+        subChunkPosY &= 15;
+        subChunkPosZ &= 15;
+
+        value &= 0x0F;
+
+        val key = subChunkPosY << depthBitsPlusFour |
+                  subChunkPosZ << depthBits |
+                  subChunkPosX;
+
+        val index = key >> 1;
+        val parity = key & 1;
+
+        var currentValue = data[index];
+        if (parity == 0) {
+            currentValue &= 0xF0;
+        } else {
+            value <<= 4;
+            currentValue &= 0x0F;
+        }
+
+        data[index] = (byte) (value | currentValue);
+    }
+}